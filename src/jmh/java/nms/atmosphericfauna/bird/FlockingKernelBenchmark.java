@@ -0,0 +1,64 @@
+package nms.atmosphericfauna.bird;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlockingKernelBenchmark {
+
+    @Param({ "8", "32", "64", "128" })
+    public int neighbors;
+
+    private final FlockingKernel.Batch batch = new FlockingKernel.Batch();
+    private final double[] out = new double[FlockingKernel.OUTPUT_SIZE];
+
+    // Only steerVector uses this state, so when the kernel is unavailable JMH
+    // reports that one benchmark as failed and still runs the scalar one
+    @State(Scope.Thread)
+    public static class Vector {
+
+        private FlockingKernel.Kernel kernel;
+
+        @Setup
+        public void setup() {
+            // The jmh task runs with the vector module
+            kernel = FlockingKernel.loadVector();
+            if (kernel == null)
+                throw new IllegalStateException("Vector flocking kernel unavailable, skipping steerVector");
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        batch.clear();
+        for (int i = 0; i < neighbors; i++) {
+            batch.add(random.nextGaussian() * 4.0, random.nextGaussian() * 2.0, random.nextGaussian() * 4.0,
+                    random.nextGaussian() * 0.1, random.nextGaussian() * 0.05, random.nextGaussian() * 0.1);
+        }
+    }
+
+    // Scalar kernel, under its old name so stored baselines still compare
+    @Benchmark
+    public double[] steer() {
+        // Crow tuning
+        FlockingKernel.steerScalar(0.0, 0.0, 0.0, 0.1, 0.0, 0.1, batch, 0.002, 0.01, 2.5, 0.05, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] steerVector(Vector vector) {
+        vector.kernel.steer(0.0, 0.0, 0.0, 0.1, 0.0, 0.1, batch, 0.002, 0.01, 2.5, 0.05, out);
+        return out;
+    }
+}
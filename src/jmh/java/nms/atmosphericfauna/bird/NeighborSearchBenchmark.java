@@ -0,0 +1,53 @@
+package nms.atmosphericfauna.bird;
+
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.SyntheticFaunaWorld;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.util.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NeighborSearchBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int birds;
+
+    private Bird[] population;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticFaunaWorld world = new SyntheticFaunaWorld(42L);
+        BirdPopulation birdPopulation = new BirdPopulation(RandomSource.create(42L));
+        RandomSource random = RandomSource.create(7L);
+        Species crow = SpeciesRegistry.get(SpeciesRegistry.CROW);
+
+        // Keep density constant so result counts stay comparable across sizes
+        double side = Math.cbrt(birds) * 8.0;
+        population = new Bird[birds];
+        for (int i = 0; i < birds; i++) {
+            population[i] = new Bird(crow, world, birdPopulation, random.nextDouble() * side,
+                    100.0 + random.nextDouble() * side / 4.0, random.nextDouble() * side, 0, 0, 0);
+        }
+    }
+
+    @Benchmark
+    public List<Bird> getNeighbors() {
+        Bird bird = population[next];
+        next = (next + 1) % population.length;
+        return bird.getNeighbors(12.0);
+    }
+}
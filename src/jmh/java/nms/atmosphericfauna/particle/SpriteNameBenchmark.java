@@ -0,0 +1,24 @@
+package nms.atmosphericfauna.particle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpriteNameBenchmark {
+
+    private final StringBuilder sb = new StringBuilder();
+    private int tick = 0;
+
+    @Benchmark
+    public String buildSpriteName() {
+        tick++;
+        return BaseBirdParticle.buildSpriteName(sb, "crow", (tick & 8) != 0, (tick & 4) != 0, 1 + (tick & 1));
+    }
+}
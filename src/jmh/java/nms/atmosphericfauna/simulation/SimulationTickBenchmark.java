@@ -0,0 +1,42 @@
+package nms.atmosphericfauna.simulation;
+
+import nms.atmosphericfauna.config.FaunaConfig;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Whole-population ticks against the synthetic world, including spawning
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimulationTickBenchmark {
+
+    @Param({ "100", "1000", "5000" })
+    public int birds;
+
+    private HeadlessSimulation simulation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FaunaConfig.update(data -> {
+            data.birds.maxActiveBirds = birds;
+            data.birds.maxActiveCrows = birds;
+        });
+        simulation = new HeadlessSimulation(new HeadlessSimulation.Options(42L, birds, 0, 1, 200,
+                HeadlessSimulation.Weather.CLEAR, null));
+        simulation.populate();
+    }
+
+    @Benchmark
+    public void tick() {
+        simulation.tick();
+    }
+}
@@ -0,0 +1,60 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesProfile.SpawnRules;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.SyntheticFaunaWorld;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnValidationBenchmark {
+
+    private static final int CANDIDATES = 1024;
+
+    private final SyntheticFaunaWorld world = new SyntheticFaunaWorld(42L);
+    private final Species crow = SpeciesRegistry.get(SpeciesRegistry.CROW);
+    private final SpawnRules rules = crow.getProfile().spawning();
+    private final SpawnMetrics.SpeciesStats stats = SpawnMetrics.forSpecies(crow);
+    private final BlockPos[] candidates = new BlockPos[CANDIDATES];
+    private RandomSource random;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        random = RandomSource.create(42L);
+        for (int i = 0; i < CANDIDATES; i++) {
+            int x = random.nextInt(4096) - 2048;
+            int z = random.nextInt(4096) - 2048;
+            candidates[i] = new BlockPos(x, world.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z), z);
+        }
+    }
+
+    @Benchmark
+    public boolean isValidSpawnLocation() {
+        BlockPos pos = candidates[next];
+        next = (next + 1) & (CANDIDATES - 1);
+        return AmbientSpawning.isValidSpawnLocation(world, pos, rules);
+    }
+
+    @Benchmark
+    public BlockPos findValidSpawnNear() {
+        BlockPos pos = candidates[next];
+        next = (next + 1) & (CANDIDATES - 1);
+        return AmbientSpawning.findValidSpawnNear(world, random, pos.getX(), pos.getZ(),
+                rules, FaunaConfig.get().searchRadius(), 12, stats);
+    }
+}
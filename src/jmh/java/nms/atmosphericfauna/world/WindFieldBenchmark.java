@@ -0,0 +1,51 @@
+package nms.atmosphericfauna.world;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WindFieldBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private final SyntheticFaunaWorld world = new SyntheticFaunaWorld(42L);
+    private final double[] points = new double[POINTS * 3];
+    private final double[] out = new double[3];
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < points.length; i += 3) {
+            points[i] = random.nextDouble() * 1024 - 512;
+            points[i + 1] = SyntheticFaunaWorld.SEA_LEVEL + random.nextDouble() * 60;
+            points[i + 2] = random.nextDouble() * 1024 - 512;
+        }
+        world.setWeather(true, false);
+    }
+
+    // What every flying bird pays per tick
+    @Benchmark
+    public double[] sample() {
+        int i = next * 3;
+        next = (next + 1) & (POINTS - 1);
+        world.getWind().sample(points[i], points[i + 1], points[i + 2], out);
+        return out;
+    }
+
+    // What the first bird of a tick pays on top
+    @Benchmark
+    public double[] sampleNewTick() {
+        world.tick();
+        return sample();
+    }
+}
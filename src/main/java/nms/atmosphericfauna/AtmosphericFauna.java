@@ -1,75 +1,43 @@
 package nms.atmosphericfauna;
 
 import nms.atmosphericfauna.config.ConfigHandler;
-import nms.atmosphericfauna.particle.BaseBirdParticle;
-import nms.atmosphericfauna.particle.CrowParticle;
-import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.debug.jmx.FaunaMetrics;
+import nms.atmosphericfauna.network.FlockSyncPayload;
+import nms.atmosphericfauna.network.ServerFlockSync;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import net.fabricmc.api.ClientModInitializer;
-// import net.fabricmc.api.ModInitializer;
-import net.fabricmc.fabric.api.client.particle.v1.ParticleFactoryRegistry;
-// import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
-import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.fabricmc.fabric.api.particle.v1.FabricParticleTypes;
-import net.minecraft.core.Registry;
 import net.minecraft.core.particles.SimpleParticleType;
-import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.resources.Identifier;
 
-public class AtmosphericFauna implements /* ModInitializer, */ ClientModInitializer {
+public class AtmosphericFauna implements ModInitializer {
 	public static final String MOD_ID = "atmospheric-fauna";
 	public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
 	public static final SimpleParticleType CROW = FabricParticleTypes.simple(true);
 
-	private static int chunkLoadCount = 0;
-	public static boolean enableChunkLoadSpawning = true;
-
-	/*
-	 * only for now because idk how to set up client and server initializers
-	 * properly
-	 * 
-	 * @Override
-	 * public void onInitialize() {
-	 * LOGGER.info("Atmospheric Fauna is taking flight!");
-	 * ConfigHandler.load();
-	 * Registry.register(BuiltInRegistries.PARTICLE_TYPE,
-	 * Identifier.fromNamespaceAndPath(MOD_ID, "crow"), CROW);
-	 * ServerTickEvents.END_WORLD_TICK.register(AmbientSpawning::tick);
-	 * }
-	 */
-
+	// Runs on both sides, before AtmosphericFaunaClient. Particles stay client
+	// only, so servers don't require the mod on clients. Nothing in here may
+	// touch a client class, dedicated servers don't have them.
 	@Override
-	public void onInitializeClient() {
-		LOGGER.info("Client is initializing...");
+	public void onInitialize() {
+		LOGGER.info("Atmospheric Fauna is taking flight!");
 
 		// Load configuration
 
 		ConfigHandler.load();
+		ServerLifecycleEvents.SERVER_STOPPING.register(server -> ConfigHandler.flush());
 
-		// Register particle types
-
-		Registry.register(BuiltInRegistries.PARTICLE_TYPE, Identifier.fromNamespaceAndPath(MOD_ID, "crow"), CROW);
-
-		// Register particle factories
+		// Server simulation
 
-		ParticleFactoryRegistry.getInstance().register(AtmosphericFauna.CROW, CrowParticle.Factory::new);
+		PayloadTypeRegistry.playS2C().register(FlockSyncPayload.TYPE, FlockSyncPayload.CODEC);
+		ServerFlockSync.register();
 
-		// Ambient spawning
+		// Live metrics over JMX
 
-		ClientTickEvents.END_WORLD_TICK.register(AmbientSpawning::tick);
-		ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
-			chunkLoadCount++;
-			if (chunkLoadCount % 4 == 0 && enableChunkLoadSpawning) {
-				AmbientSpawning.runSpawnAttempt(world);
-			}
-		});
-		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
-			BaseBirdParticle.reset();
-		});
+		FaunaMetrics.register();
 	}
 }
@@ -0,0 +1,158 @@
+package nms.atmosphericfauna;
+
+import nms.atmosphericfauna.audio.FlockCalls;
+import nms.atmosphericfauna.command.FaunaCommand;
+import nms.atmosphericfauna.config.ConfigHandler;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.debug.jmx.FaunaMetrics;
+import nms.atmosphericfauna.network.ClientFlockSync;
+import nms.atmosphericfauna.particle.BaseBirdParticle;
+import nms.atmosphericfauna.particle.BirdParticle;
+import nms.atmosphericfauna.particle.BirdParticlePool;
+import nms.atmosphericfauna.performance.PopulationGovernor;
+import nms.atmosphericfauna.performance.StressTest;
+import nms.atmosphericfauna.recording.SessionRecorder;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.species.SpeciesReloadListener;
+import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.spawning.ChunkSpawnQueue;
+import nms.atmosphericfauna.spawning.RoostCache;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+import nms.atmosphericfauna.world.LevelFaunaWorld;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.particle.v1.ParticleFactoryRegistry;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.PackType;
+
+// Client side of the mod: particles, spawning, commands and everything else
+// that needs a level to draw birds in. Only loaded on clients, after
+// AtmosphericFauna.onInitialize.
+public class AtmosphericFaunaClient implements ClientModInitializer {
+
+	@Override
+	public void onInitializeClient() {
+		AtmosphericFauna.LOGGER.info("Client is initializing...");
+
+		// Configuration is loaded by onInitialize
+
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+			ConfigHandler.flush();
+			RoostCache.flush();
+		});
+
+		// Register particle types
+
+		Registry.register(BuiltInRegistries.PARTICLE_TYPE,
+				Identifier.fromNamespaceAndPath(AtmosphericFauna.MOD_ID, "crow"), AtmosphericFauna.CROW);
+
+		// Register particle factories
+
+		ParticleFactoryRegistry.getInstance().register(AtmosphericFauna.CROW,
+				spriteSet -> new BirdParticle.Factory(spriteSet, SpeciesRegistry.CROW));
+
+		// Species profiles, reloaded with resource packs
+
+		ResourceManagerHelper.get(PackType.CLIENT_RESOURCES).registerReloadListener(new SpeciesReloadListener());
+
+		// Block changes and loud sounds in the client level
+
+		LevelFaunaWorld.setClientViews(ClientFaunaWorld::find);
+
+		// Ambient spawning
+
+		ClientTickEvents.END_WORLD_TICK.register(AmbientSpawning::tick);
+		ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+			ChunkSpawnQueue.add(world, chunk.getPos().toLong());
+			ClientFaunaWorld view = ClientFaunaWorld.find(world);
+			if (view != null) {
+				view.getObstacles().invalidateChunk(chunk.getPos().toLong());
+				view.lightChanged();
+				// Read ahead, so the roosts are there when the spawn queue gets to the chunk
+				if (FaunaConfig.get().enableRoostCache())
+					view.getRoosts().prefetch(chunk.getPos().toLong());
+			}
+		});
+		ClientTickEvents.END_WORLD_TICK.register(ChunkSpawnQueue::tick);
+		ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+			ChunkSpawnQueue.remove(world, chunk.getPos().toLong());
+			ClientFaunaWorld view = ClientFaunaWorld.find(world);
+			if (view != null) {
+				view.getPopulation().removeChunk(chunk.getPos().toLong());
+				view.getObstacles().invalidateChunk(chunk.getPos().toLong());
+			}
+		});
+		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+			BaseBirdParticle.reset();
+			ClientFlockSync.reset();
+			ChunkSpawnQueue.clear();
+			StressTest.cancel();
+			FlockCalls.reset();
+		});
+
+		// Birds from a server that simulates them
+
+		ClientFlockSync.register();
+		ClientTickEvents.END_WORLD_TICK.register(ClientFlockSync::tick);
+
+		// Bird particle pool, and the camera position bird light goes by
+
+		ClientTickEvents.END_CLIENT_TICK.register(client -> {
+			if (!client.isPaused())
+				BirdParticlePool.tick();
+			BaseBirdParticle.updateCamera(client);
+		});
+
+		// Bird calls, one sound source per flock
+
+		ClientTickEvents.END_WORLD_TICK.register(FlockCalls::tick);
+
+		// Client commands
+
+		ClientCommandRegistrationCallback.EVENT.register(FaunaCommand::register);
+
+		// Population governor
+
+		ClientTickEvents.END_CLIENT_TICK.register(client -> PopulationGovernor.tick(client.getFps()));
+
+		// Live metrics over JMX, published and cleared from the client thread
+
+		ClientTickEvents.END_CLIENT_TICK.register(client -> {
+			ClientFaunaWorld view = client.level != null ? ClientFaunaWorld.find(client.level) : null;
+			// Mirrored birds go when the server clears its own
+			if (FaunaMetrics.takeClear(FaunaMetrics.Side.CLIENT) && view != null
+					&& !ClientFlockSync.isActive(client.level))
+				view.getPopulation().clear();
+			if (view == null) {
+				FaunaMetrics.removeSide(FaunaMetrics.Side.CLIENT);
+				return;
+			}
+			// Game time stands still while paused
+			if (!client.isPaused()) {
+				FaunaMetrics.recordClientTick();
+				FaunaMetrics.publish(FaunaMetrics.Side.CLIENT, client.level, view.getPopulation());
+			}
+		});
+
+		// Stress test, timed from the start to the end of every client tick
+
+		ClientTickEvents.START_CLIENT_TICK.register(StressTest::startTick);
+		ClientTickEvents.END_CLIENT_TICK.register(StressTest::endTick);
+
+		// Flight recording (debug)
+
+		ClientTickEvents.END_WORLD_TICK.register(SessionRecorder::tick);
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+			SessionRecorder.stop();
+			ClientFaunaWorld.saveRoosts();
+		});
+	}
+}
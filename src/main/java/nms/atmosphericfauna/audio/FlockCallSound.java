@@ -0,0 +1,31 @@
+package nms.atmosphericfauna.audio;
+
+import net.minecraft.client.resources.sounds.AbstractSoundInstance;
+import net.minecraft.resources.Identifier;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.RandomSource;
+
+// One call of a flock, at a fixed point. Instances are kept by FlockCalls and
+// moved to the next calling flock once the sound engine is done with them.
+final class FlockCallSound extends AbstractSoundInstance {
+
+    // Linear attenuation fades out at 16 blocks times the volume
+    private static final float BLOCKS_PER_VOLUME = 16.0f;
+
+    FlockCallSound(Identifier sound, RandomSource random) {
+        super(sound, SoundSource.AMBIENT, random);
+        this.attenuation = Attenuation.LINEAR;
+        this.relative = false;
+        this.looping = false;
+        this.delay = 0;
+    }
+
+    void place(double x, double y, double z, float range, float pitch) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        // Gain is capped at 1, a louder volume only carries further
+        this.volume = range / BLOCKS_PER_VOLUME;
+        this.pitch = pitch;
+    }
+}
@@ -0,0 +1,223 @@
+package nms.atmosphericfauna.audio;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdState;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesProfile;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.resources.Identifier;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+
+// Bird calls, with flocks rather than birds as the sound sources. A few times
+// a second the birds in hearing range are grouped by species into 16 block
+// cells, each cell one flock. A flock calls about as often as the square root
+// of its size would have birds calling, so large flocks get busier without
+// getting a channel per bird. Calls that come up compete for the configured
+// number of channels, loudest at the listener first, and play through a
+// small set of reused sound instances. Client thread only.
+public final class FlockCalls {
+
+    // Ticks between scheduling passes
+    private static final int SCHEDULE_TICKS = 5;
+
+    private static final int CELL_SHIFT = 4;
+
+    // Pitch varies this much either way between calls
+    private static final float PITCH_SPREAD = 0.1f;
+
+    // Birds of one species in one cell, reused between passes
+    private static final class Source {
+        Species species;
+        SpeciesProfile.Calls calls;
+        Source next;
+        int count;
+        double x;
+        double y;
+        double z;
+        double priority;
+    }
+
+    private static final Map<Long, Source> CELLS = new HashMap<>();
+    private static final List<Source> SOURCES = new ArrayList<>();
+    private static final List<Source> CALLING = new ArrayList<>();
+    private static int used = 0;
+
+    // Every instance created so far, per sound, playing or idle
+    private static final Map<Identifier, List<FlockCallSound>> INSTANCES = new HashMap<>();
+
+    private static int ticks = 0;
+    private static long calls = 0;
+    private static long skipped = 0;
+
+    private FlockCalls() {
+    }
+
+    // Calls played, and calls that came up while every channel was taken
+    public static long getCalls() {
+        return calls;
+    }
+
+    public static long getSkipped() {
+        return skipped;
+    }
+
+    public static int getPlaying() {
+        SoundManager sounds = Minecraft.getInstance().getSoundManager();
+        int playing = 0;
+        for (List<FlockCallSound> instances : INSTANCES.values()) {
+            for (FlockCallSound instance : instances) {
+                if (sounds.isActive(instance))
+                    playing++;
+            }
+        }
+        return playing;
+    }
+
+    // The sound engine stops everything on a world change, only the instances
+    // need letting go
+    public static void reset() {
+        INSTANCES.clear();
+        CELLS.clear();
+        SOURCES.clear();
+        CALLING.clear();
+        used = 0;
+    }
+
+    // --- SCHEDULING ---
+
+    public static void tick(ClientLevel level) {
+        FaunaConfig config = FaunaConfig.get();
+        if (!config.enableBirdCalls() || config.maxBirdCalls() == 0 || ++ticks % SCHEDULE_TICKS != 0)
+            return;
+        Minecraft minecraft = Minecraft.getInstance();
+        Entity listener = minecraft.getCameraEntity();
+        if (listener == null)
+            return;
+
+        group(ClientFaunaWorld.of(level).getPopulation().getBirds(), listener.getX(), listener.getY(),
+                listener.getZ());
+
+        // Which flocks call this pass
+        RandomSource random = level.getRandom();
+        for (int i = 0; i < used; i++) {
+            Source source = SOURCES.get(i);
+            double chance = SCHEDULE_TICKS * Math.sqrt(source.count) / source.calls.interval();
+            if (random.nextDouble() < chance)
+                CALLING.add(source);
+        }
+        if (CALLING.isEmpty())
+            return;
+
+        SoundManager sounds = minecraft.getSoundManager();
+        int free = config.maxBirdCalls() - getPlaying();
+        if (CALLING.size() > free)
+            CALLING.sort((a, b) -> Double.compare(b.priority, a.priority));
+        for (int i = 0; i < CALLING.size(); i++) {
+            if (i >= free) {
+                skipped += CALLING.size() - i;
+                break;
+            }
+            Source source = CALLING.get(i);
+            FlockCallSound instance = idle(sounds, source.calls.sound(), random);
+            float pitch = source.calls.pitch() * (1.0f + (random.nextFloat() * 2.0f - 1.0f) * PITCH_SPREAD);
+            instance.place(source.x, source.y, source.z, source.calls.range(), pitch);
+            sounds.play(instance);
+            calls++;
+        }
+        CALLING.clear();
+    }
+
+    // Fills the first used entries of SOURCES from the birds that can be heard,
+    // each at the center of its birds and ranked by how loud it is at the
+    // listener. Entries past used are spares from busier passes.
+    private static void group(List<Bird> birds, double listenerX, double listenerY, double listenerZ) {
+        CELLS.clear();
+        used = 0;
+
+        for (Bird bird : birds) {
+            if (bird.getState() == BirdState.DYING)
+                continue;
+            SpeciesProfile.Calls calls = bird.getSpecies().getProfile().calls();
+            if (calls == null)
+                continue;
+            double dx = bird.getX() - listenerX;
+            double dy = bird.getY() - listenerY;
+            double dz = bird.getZ() - listenerZ;
+            if (dx * dx + dy * dy + dz * dz > calls.range() * calls.range())
+                continue;
+
+            long key = cellKey((int) Math.floor(bird.getX()) >> CELL_SHIFT,
+                    (int) Math.floor(bird.getY()) >> CELL_SHIFT, (int) Math.floor(bird.getZ()) >> CELL_SHIFT);
+            Source first = CELLS.get(key);
+            Source source = first;
+            while (source != null && source.species != bird.getSpecies())
+                source = source.next;
+            if (source == null) {
+                source = obtain(bird.getSpecies(), calls, first);
+                CELLS.put(key, source);
+            }
+            source.count++;
+            source.x += bird.getX();
+            source.y += bird.getY();
+            source.z += bird.getZ();
+        }
+
+        for (int i = 0; i < used; i++) {
+            Source source = SOURCES.get(i);
+            source.x /= source.count;
+            source.y /= source.count;
+            source.z /= source.count;
+            double dx = source.x - listenerX;
+            double dy = source.y - listenerY;
+            double dz = source.z - listenerZ;
+            // Linear falloff, bigger flocks sound louder
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            source.priority = Math.sqrt(source.count) * Math.max(0.0, 1.0 - distance / source.calls.range());
+        }
+    }
+
+    private static Source obtain(Species species, SpeciesProfile.Calls calls, Source next) {
+        Source source;
+        if (used < SOURCES.size()) {
+            source = SOURCES.get(used);
+        } else {
+            source = new Source();
+            SOURCES.add(source);
+        }
+        used++;
+        source.species = species;
+        source.calls = calls;
+        source.next = next;
+        source.count = 0;
+        source.x = 0.0;
+        source.y = 0.0;
+        source.z = 0.0;
+        return source;
+    }
+
+    private static long cellKey(int cellX, int cellY, int cellZ) {
+        return ((long) cellX & 0x3FFFFF) | (((long) cellZ & 0x3FFFFF) << 22) | (((long) cellY & 0xFFFFF) << 44);
+    }
+
+    // An instance of the sound the engine is done with, or a new one
+    private static FlockCallSound idle(SoundManager sounds, Identifier sound, RandomSource random) {
+        List<FlockCallSound> instances = INSTANCES.computeIfAbsent(sound, key -> new ArrayList<>());
+        for (FlockCallSound instance : instances) {
+            if (!sounds.isActive(instance))
+                return instance;
+        }
+        FlockCallSound instance = new FlockCallSound(sound, random);
+        instances.add(instance);
+        return instance;
+    }
+}
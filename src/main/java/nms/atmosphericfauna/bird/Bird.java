@@ -0,0 +1,955 @@
+package nms.atmosphericfauna.bird;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.debug.jfr.BirdStateChangeEvent;
+import nms.atmosphericfauna.debug.jfr.NeighborQueryEvent;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesProfile;
+import nms.atmosphericfauna.world.FaunaWorld;
+import nms.atmosphericfauna.world.ObstacleField;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.phys.Vec3;
+
+// Behaviour and state of a single bird. Only talks to the world through
+// FaunaWorld, so it runs the same inside a particle and in a headless simulation.
+// All tuning comes from the species profile.
+public class Bird {
+
+    protected final FaunaWorld world;
+    protected final BirdPopulation population;
+    protected final RandomSource random;
+    protected final Species species;
+    protected SpeciesProfile profile; // refreshed every tick, picks up resource reloads
+
+    int id = -1;
+    int populationIndex = -1;
+    long chunkKey;
+    int chunkIndex = -1;
+    boolean removed = false;
+    // The population pass this bird last ticked in, see expireStale()
+    int lastPass;
+
+    protected double x;
+    protected double y;
+    protected double z;
+    protected double xd;
+    protected double yd;
+    protected double zd;
+
+    // Everything below is (re)set by spawn()
+    protected int age;
+    protected int lifetime;
+
+    protected BirdState state;
+
+    protected double goalX;
+    protected double goalY;
+    protected double goalZ;
+    protected int goalTimer;
+
+    protected int perchTimer;
+    protected int perchedTimer;
+    protected int landingCooldown;
+    protected double landingTargetY;
+    protected long landingBlockPos; // packed with BlockPos.asLong
+    protected double landingOffsetX;
+    protected double landingOffsetZ;
+    protected long perchBlockPos; // stores actual perch while perched
+    protected double takeoffGoalY;
+    protected int takeoffTime;
+
+    // Mirrors a bird simulated by the server, see follow()
+    protected boolean mirrored;
+    protected double errorX;
+    protected double errorY;
+    protected double errorZ;
+
+    // Packed position meaning "none", far outside any world border
+    protected static final long NO_POS = Long.MAX_VALUE;
+
+    // Push away from terrain right next to a bird, in steer strengths
+    private static final double AVOID_STRENGTH = 2.0;
+
+    // While the population roosts birds look for perches this many times as
+    // often and stay perched this many times as long
+    private static final double ROOST_PERCH_FACTOR = 8.0;
+    private static final int ROOST_STAY_FACTOR = 4;
+
+    // Startled flying birds head this far away from the noise
+    private static final double FLEE_DISTANCE = 24.0;
+
+    // Scratch space shared by every bird ticked on the same thread. Nothing in
+    // here survives a call, a population is only ticked from one thread.
+    private static final class Scratch {
+        final List<Bird> neighbors = new ArrayList<>();
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        final FlockingKernel.Batch batch = new FlockingKernel.Batch();
+        final double[] flock = new double[FlockingKernel.OUTPUT_SIZE];
+        final double[] gradient = new double[3];
+        final double[] wind = new double[3];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // --- CONSTRUCTORS ---
+
+    public Bird(Species species, FaunaWorld world, BirdPopulation population, double x, double y, double z,
+            double velocityX, double velocityY, double velocityZ) {
+        this.species = species;
+        this.world = world;
+        this.population = population;
+        this.random = population.createRandom();
+        spawn(x, y, z, velocityX, velocityY, velocityZ);
+    }
+
+    // Brings a removed bird back as a new one, exactly as if it had just been
+    // constructed. Lets pools hand out the same object again.
+    public void respawn(double x, double y, double z, double velocityX, double velocityY, double velocityZ) {
+        if (!removed)
+            throw new IllegalStateException(species + " #" + id + " is still alive");
+        population.reseed(random);
+        spawn(x, y, z, velocityX, velocityY, velocityZ);
+    }
+
+    private void spawn(double x, double y, double z, double velocityX, double velocityY, double velocityZ) {
+        this.profile = species.getProfile();
+        this.removed = false;
+        this.lastPass = population.pass;
+        this.age = 0;
+        this.state = BirdState.FLYING;
+        this.goalX = Double.NaN;
+        this.goalY = Double.NaN;
+        this.goalZ = Double.NaN;
+        this.goalTimer = 0;
+        this.perchTimer = 0;
+        this.perchedTimer = 0;
+        this.landingTargetY = Double.NaN;
+        this.landingBlockPos = NO_POS;
+        this.landingOffsetX = 0.0;
+        this.landingOffsetZ = 0.0;
+        this.perchBlockPos = NO_POS;
+        this.takeoffGoalY = Double.NaN;
+        this.takeoffTime = 0;
+        this.mirrored = false;
+        this.errorX = 0.0;
+        this.errorY = 0.0;
+        this.errorZ = 0.0;
+
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.landingCooldown = random.nextInt(600);
+        population.add(this);
+
+        this.lifetime = profile.lifetime();
+
+        this.xd = velocityX + (this.random.nextFloat() - 0.5f) * 0.1;
+        this.zd = velocityZ + (this.random.nextFloat() - 0.5f) * 0.1;
+        this.yd = velocityY + 0.05;
+    }
+
+    // --- ACCESSORS ---
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    public BirdState getState() {
+        return state;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public double getXd() {
+        return xd;
+    }
+
+    public double getYd() {
+        return yd;
+    }
+
+    public double getZd() {
+        return zd;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public float getSize() {
+        return profile.size();
+    }
+
+    public boolean isMirrored() {
+        return mirrored;
+    }
+
+    // --- TICK ---
+
+    public void tick() {
+        profile = species.getProfile();
+        population.expireStale(world);
+        lastPass = population.pass;
+
+        if (mirrored) {
+            tickMirrored();
+            return;
+        }
+        population.pollEvents(world);
+
+        NeighborQueryEvent neighborEvent = new NeighborQueryEvent();
+        neighborEvent.begin();
+        population.neighborQueries = 0;
+        population.neighborResults = 0;
+        population.neighborRadius = 0.0;
+
+        tickBehavior();
+
+        // Crossed into another chunk, a bird over an unloaded one only sees air
+        if (!removed && population.track(this) && !world.isLoaded(SCRATCH.get().pos.set(x, y, z)))
+            remove();
+
+        if (population.neighborQueries > 0 && neighborEvent.shouldCommit()) {
+            neighborEvent.queries = population.neighborQueries;
+            neighborEvent.results = population.neighborResults;
+            neighborEvent.radius = population.neighborRadius;
+            neighborEvent.commit();
+        }
+    }
+
+    private void tickBehavior() {
+        if (landingCooldown > 0)
+            landingCooldown--;
+
+        if (this.age++ >= this.lifetime && state != BirdState.DYING) {
+            setState(this, BirdState.DYING);
+        }
+
+        switch (state) {
+            case FLYING -> tickFlying();
+            case LANDING -> tickLanding();
+            case PERCHED -> tickPerched();
+            case TAKING_OFF -> tickTakingOff();
+            case DYING -> tickDying();
+        }
+
+        // debug stuff
+        if (FaunaConfig.get().debugBirds()) {
+            if (this.age % 10 == 0) {
+                AtmosphericFauna.LOGGER.info(this.species + " #" + this.id + " | State: " + this.state +
+                        " | Height: "
+                        + String.format("%.2f", this.y));
+                AtmosphericFauna.LOGGER.info(this.species + " #" + this.id + " | xd: " +
+                        String.format("%.3f", this.xd) + " | yd: "
+                        + String.format("%.3f", this.yd) + " | zd: " + String.format("%.3f",
+                                this.zd));
+            }
+        }
+
+        this.x += this.xd;
+        this.y += this.yd;
+        this.z += this.zd;
+    }
+
+    // --- MIRRORING ---
+
+    // Share of the remaining position error corrected per tick
+    private static final double CORRECTION = 0.5;
+
+    // Turns this bird into a copy of one the server simulates. The first call
+    // snaps to the server's state, later ones keep the velocity and let the
+    // bird ease out the position error over the next few ticks.
+    public void follow(BirdState state, double x, double y, double z, double velocityX, double velocityY,
+            double velocityZ) {
+        if (!mirrored) {
+            mirrored = true;
+            setPos(x, y, z);
+            population.track(this);
+        }
+        this.errorX = x - this.x;
+        this.errorY = y - this.y;
+        this.errorZ = z - this.z;
+        this.state = state;
+        this.xd = velocityX;
+        this.yd = velocityY;
+        this.zd = velocityZ;
+    }
+
+    // Mirrored birds don't decide anything, they coast on the last velocity
+    // the server sent until the next update
+    private void tickMirrored() {
+        age++;
+        double cx = errorX * CORRECTION;
+        double cy = errorY * CORRECTION;
+        double cz = errorZ * CORRECTION;
+        errorX -= cx;
+        errorY -= cy;
+        errorZ -= cz;
+        this.x += this.xd + cx;
+        this.y += this.yd + cy;
+        this.z += this.zd + cz;
+        population.track(this);
+    }
+
+    // --- HELPER METHODS ---
+
+    public void remove() {
+        if (removed)
+            return;
+        removed = true;
+        population.remove(this);
+    }
+
+    protected void setPos(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    private static void setState(Bird bird, BirdState newState) {
+        BirdState oldState = bird.state;
+        bird.state = newState;
+
+        BirdStateChangeEvent event = new BirdStateChangeEvent();
+        if (event.shouldCommit()) {
+            event.species = bird.species.getName();
+            event.birdId = bird.id;
+            event.fromState = oldState.name();
+            event.toState = newState.name();
+            event.age = bird.age;
+            event.commit();
+        }
+    }
+
+    // Returns other birds within radius (in the same population). The list is
+    // shared scratch space, it is overwritten by the next call on this thread.
+    List<Bird> getNeighbors(double radius) {
+        List<Bird> neighbors = SCRATCH.get().neighbors;
+        population.collectNeighbors(this, radius, neighbors);
+        return neighbors;
+    }
+
+    // Scratch BlockPos for a packed position, valid until the next call
+    private static BlockPos unpack(long packed) {
+        return SCRATCH.get().pos.set(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+    }
+
+    // Ask nearby flockmates to go land on the given perch (same BlockPos)
+    private void groupPerch(BlockPos target) {
+        if (target == null)
+            return;
+        for (Bird nb : getNeighbors(profile.flockRadius())) {
+            if (nb == this)
+                continue;
+            if (nb.state == BirdState.FLYING) {
+                BlockPos actualTarget = target;
+
+                // Try to find a slightly different spot nearby
+                if (random.nextFloat() < 0.9) {
+                    int dx = random.nextInt(7) - 3;
+                    int dz = random.nextInt(7) - 3;
+
+                    // Scan vertical range to find ground at this offset
+                    for (int dy = 3; dy >= -3; dy--) {
+                        BlockPos p = target.offset(dx, dy, dz);
+                        if (!world.isEmptyBlock(p) &&
+                                world.isEmptyBlock(p.above()) &&
+                                world.isSturdyTop(p)) {
+                            actualTarget = p;
+                            break;
+                        }
+                    }
+                }
+
+                setState(nb, BirdState.LANDING);
+                nb.landingBlockPos = actualTarget.asLong();
+                nb.landingTargetY = actualTarget.getY() + 1.0 + nb.profile.size();
+                nb.landingOffsetX = (this.random.nextFloat() - 0.5f) * 0.8;
+                nb.landingOffsetZ = (this.random.nextFloat() - 0.5f) * 0.8;
+            }
+        }
+    }
+
+    // Ask nearby perched flockmates to take off with this bird
+    private void groupTakeoff() {
+        for (Bird nb : getNeighbors(profile.flockRadius())) {
+            if (nb == this)
+                continue;
+            if (nb.state == BirdState.PERCHED) {
+                setState(nb, BirdState.TAKING_OFF);
+                nb.perchTimer = 5;
+                nb.landingCooldown = 100 + nb.perchedTimer;
+                nb.perchBlockPos = NO_POS;
+            }
+        }
+    }
+
+    // Takeoff logic
+    private void performTakeoff(Vec3 source) {
+        if (source != null) {
+            double dx = this.x - source.x;
+            double dz = this.z - source.z;
+            double mag = Math.sqrt(dx * dx + dz * dz);
+            if (mag < 0.001) {
+                dx = (this.random.nextFloat() - 0.5f);
+                dz = (this.random.nextFloat() - 0.5f);
+                mag = Math.sqrt(dx * dx + dz * dz);
+            }
+            this.xd = (dx / mag) * profile.scareTakeoffSpeed() + (this.random.nextFloat() - 0.5f) * 0.05;
+            this.zd = (dz / mag) * profile.scareTakeoffSpeed() + (this.random.nextFloat() - 0.5f) * 0.05;
+        } else {
+            this.xd = (this.random.nextFloat() - 0.5f) * 0.08;
+            this.zd = (this.random.nextFloat() - 0.5f) * 0.08;
+        }
+
+        this.yd += 0.06 + this.random.nextFloat() * 0.06;
+        this.perchTimer = 8 + this.random.nextInt(8);
+        this.landingCooldown = 100 + this.perchedTimer;
+
+        double base = this.perchBlockPos != NO_POS ? BlockPos.getY(this.perchBlockPos) + 1.0 : this.y;
+        this.perchBlockPos = NO_POS;
+        this.takeoffGoalY = base + Math.max(0.8, profile.takeoffClimb() * (0.5 + this.random.nextDouble() * 0.8))
+                + this.random.nextDouble() * 1.2;
+        this.takeoffTime = 0;
+
+        setState(this, BirdState.TAKING_OFF);
+        groupTakeoff();
+    }
+
+    // Pick a new wandering goal near the bird, biased slightly upward and slightly
+    // in current motion direction
+    private void chooseNewGoal() {
+        double forwardBiasX = this.xd;
+        double forwardBiasY = this.yd;
+        double forwardBiasZ = this.zd;
+
+        double randRadius = 2.5 + this.random.nextFloat() * (profile.goalRadius() - 2.5);
+        double angle = this.random.nextFloat() * Math.PI * 2;
+        double nx = Math.cos(angle) * randRadius + forwardBiasX * 5.0 * (this.random.nextFloat() - 0.5f);
+        double nz = Math.sin(angle) * randRadius + forwardBiasZ * 5.0 * (this.random.nextFloat() - 0.5f);
+
+        // Ensure we pick a goal above ground and bias upwards when low or just took off
+        double ground = sampleGroundHeight(this.x, this.z);
+        double ny;
+        if (this.y <= ground + profile.minFlightHeight() + 0.5 || landingCooldown > 0) {
+            ny = this.y + 2.5 + this.random.nextFloat() * 2.5;
+        } else if (this.y >= ground + profile.maxFlightHeight() - 1.0) {
+            ny = Math.max(ground + profile.minFlightHeight(),
+                    ground + profile.maxFlightHeight() - 2.0 - this.random.nextFloat() * 3.0);
+        } else {
+            ny = this.y + (this.random.nextFloat() - 0.5f) * 2.0 + forwardBiasY * 1.5;
+            ny = Math.max(ny, ground + profile.minFlightHeight());
+        }
+
+        // If there's a flock nearby, bias the goal toward the flock center so they move
+        // together
+        List<Bird> neighbors = getNeighbors(profile.flockRadius());
+        if (!neighbors.isEmpty()) {
+            double cx = 0, cy = 0, cz = 0;
+            for (Bird nb : neighbors) {
+                cx += nb.x;
+                cy += nb.y;
+                cz += nb.z;
+            }
+            cx /= neighbors.size();
+            cy /= neighbors.size();
+            cz /= neighbors.size();
+            double baseX = this.x + nx;
+            double baseY = ny;
+            double baseZ = this.z + nz;
+
+            this.goalX = baseX * (1.0 - profile.flockGoalBias()) + cx * profile.flockGoalBias();
+            this.goalY = baseY * (1.0 - profile.flockGoalBias()) + cy * profile.flockGoalBias();
+            this.goalZ = baseZ * (1.0 - profile.flockGoalBias()) + cz * profile.flockGoalBias();
+
+            this.goalTimer = Math.min(this.goalTimer, (profile.goalDurationMin() + profile.goalDurationMax()) / 4);
+            return;
+        }
+
+        this.goalX = this.x + nx;
+        this.goalY = Math.max(world.getMinY() + 1.0, Math.min((world.getHeight() - 1.0), ny));
+        this.goalZ = this.z + nz;
+
+        this.goalTimer = profile.goalDurationMin()
+                + (int) (this.random.nextFloat() * (profile.goalDurationMax() - profile.goalDurationMin()));
+    }
+
+    // Checks if there's a solid/occupied collision at the given point (coarse
+    // check)
+    private boolean isBlocked(double px, double py, double pz) {
+        BlockPos.MutableBlockPos pos = SCRATCH.get().pos.set(px, py, pz);
+        if (world.isEmptyBlock(pos))
+            return false;
+        return world.hasCollision(pos);
+    }
+
+    // Find top-most solid block near the given x,z by scanning downward
+    private double sampleGroundHeight(double px, double pz) {
+        int startY = (int) Math.ceil(this.y);
+        for (int y = startY; y >= Math.max(0, startY - 20); y--) {
+            BlockPos pos = BlockPos.containing(px, y, pz);
+            if (!world.isEmptyBlock(pos)) {
+                return pos.getY() + 1.0;
+            }
+        }
+        return 0.0;
+    }
+
+    // --- BEHAVIORS ---
+
+    private void tickFlying() {
+        double groundY = sampleGroundHeight(this.x, this.z);
+
+        double dxToGoal = Double.isNaN(goalX) ? Double.POSITIVE_INFINITY : (goalX - this.x);
+        double dyToGoal = Double.isNaN(goalY) ? Double.POSITIVE_INFINITY : (goalY - this.y);
+        double dzToGoal = Double.isNaN(goalZ) ? Double.POSITIVE_INFINITY : (goalZ - this.z);
+        double distSqToGoal = dxToGoal * dxToGoal + dyToGoal * dyToGoal + dzToGoal * dzToGoal;
+
+        if (Double.isNaN(goalX) || goalTimer-- <= 0 || distSqToGoal < 0.5 * 0.5) {
+            chooseNewGoal();
+        }
+
+        // Flocking behavior
+        Scratch scratch = SCRATCH.get();
+        FlockingKernel.Batch batch = scratch.batch;
+        batch.clear();
+        for (Bird nb : getNeighbors(profile.flockRadius())) {
+            if (nb.state == BirdState.FLYING)
+                batch.add(nb.x, nb.y, nb.z, nb.xd, nb.yd, nb.zd);
+        }
+
+        if (batch.count > 0) {
+            double[] flock = scratch.flock;
+            FlockingKernel.steer(this.x, this.y, this.z, this.xd, this.yd, this.zd, batch,
+                    profile.cohesionStrength(), profile.alignmentStrength(), profile.separationDistance(),
+                    profile.separationStrength(), flock);
+
+            // apply steering contributions
+            this.xd += flock[FlockingKernel.STEER_X];
+            this.yd += flock[FlockingKernel.STEER_Y];
+            this.zd += flock[FlockingKernel.STEER_Z];
+
+            double cx = flock[FlockingKernel.CENTER_X];
+            double cy = flock[FlockingKernel.CENTER_Y];
+            double cz = flock[FlockingKernel.CENTER_Z];
+            double avx = flock[FlockingKernel.AVG_XD];
+            double avy = flock[FlockingKernel.AVG_YD];
+            double avz = flock[FlockingKernel.AVG_ZD];
+
+            // Quick group synchronization: adopt a short-lived goal toward
+            // the flock's averaged heading/center so joined flocks pick a
+            // direction together faster instead of stalling.
+            double aheadFactor = 4.0; // how far ahead of current position to aim
+            this.goalX = this.x + (avx * aheadFactor) + (cx - this.x) * 0.18;
+            this.goalY = this.y + (avy * Math.max(1.0, aheadFactor * 0.5)) + (cy - this.y) * 0.12;
+            this.goalZ = this.z + (avz * aheadFactor) + (cz - this.z) * 0.18;
+            // shorten the goal timer so birds commit quickly
+            this.goalTimer = Math.min(this.goalTimer,
+                    Math.max(8, (profile.goalDurationMin() + profile.goalDurationMax()) / 6));
+        }
+
+        if (this.y <= groundY + profile.minFlightHeight() + 0.3) {
+            this.goalY = Math.max(this.goalY, this.y + profile.takeoffClimb() + this.random.nextFloat() * 1.5);
+            this.goalTimer = Math.max(this.goalTimer, 20);
+        }
+
+        double ceiling = groundY + profile.maxFlightHeight();
+        if (this.y >= ceiling - 0.5) {
+            this.goalY = Math.min(this.goalY, ceiling - 2.0 - this.random.nextFloat() * 2.0);
+            this.goalTimer = Math.min(this.goalTimer, 40);
+        }
+
+        // Desired vector towards the goal
+        double desiredX = goalX - this.x;
+        double desiredY = goalY - this.y;
+        double desiredZ = goalZ - this.z;
+        double desiredDist = Math.sqrt(desiredX * desiredX + desiredY * desiredY + desiredZ * desiredZ);
+        if (desiredDist > 0.0001) {
+            desiredX = (desiredX / desiredDist) * profile.flySpeed();
+            desiredY = (desiredY / desiredDist) * profile.flySpeed();
+            desiredZ = (desiredZ / desiredDist) * profile.flySpeed();
+
+            double steerX = desiredX - this.xd;
+            double steerY = (desiredY - this.yd) * profile.verticalSteerFactor();
+            double steerZ = desiredZ - this.zd;
+
+            if (this.y >= ceiling - 0.5) {
+                steerY -= 0.02 * profile.verticalSteerFactor();
+            }
+
+            double steerMag = Math.sqrt(steerX * steerX + steerY * steerY + steerZ * steerZ);
+            if (steerMag > profile.steerStrength()) {
+                steerX = (steerX / steerMag) * profile.steerStrength();
+                steerY = (steerY / steerMag) * profile.steerStrength();
+                steerZ = (steerZ / steerMag) * profile.steerStrength();
+            }
+
+            this.xd += steerX;
+            this.yd += steerY;
+            this.zd += steerZ;
+        }
+
+        // Wind carries every flock of the world the same way
+        double[] wind = scratch.wind;
+        world.getWind().sample(this.x, this.y, this.z, wind);
+        this.xd += wind[0];
+        this.zd += wind[2];
+
+        // Steer away from terrain before reaching it: heading towards the
+        // nearest solid cell pushes back, harder the closer it is
+        double[] gradient = scratch.gradient;
+        int clearance = world.getObstacles().sample(this.x, this.y, this.z, gradient);
+        if (clearance >= 0 && clearance < ObstacleField.MAX_DISTANCE) {
+            double approach = this.xd * gradient[0] + this.yd * gradient[1] + this.zd * gradient[2];
+            double length = Math.sqrt(gradient[0] * gradient[0] + gradient[1] * gradient[1]
+                    + gradient[2] * gradient[2]);
+            if (approach < 0 && length > 0) {
+                double push = profile.steerStrength() * AVOID_STRENGTH
+                        * (ObstacleField.MAX_DISTANCE - clearance) / ObstacleField.MAX_DISTANCE / length;
+                this.xd += gradient[0] * push;
+                this.yd += gradient[1] * push;
+                this.zd += gradient[2] * push;
+            }
+        }
+
+        // Clamp overall horizontal speed as before, and cap vertical speed to a
+        // sensible climb/descent
+        double horizontalSpeed = Math.sqrt(xd * xd + zd * zd);
+        if (horizontalSpeed > profile.flySpeed()) {
+            double scale = profile.flySpeed() / horizontalSpeed;
+            this.xd *= scale;
+            this.zd *= scale;
+        }
+        if (this.yd > profile.maxVerticalSpeed())
+            this.yd = profile.maxVerticalSpeed();
+        if (this.yd < -profile.maxVerticalSpeed())
+            this.yd = -profile.maxVerticalSpeed();
+
+        // Last resort: look ahead and if blocked pick an evasive goal. Only
+        // cells the field marks solid, or areas it can't see yet, are probed.
+        double lookX = this.x + this.xd * profile.lookAheadMultiplier();
+        double lookY = this.y + this.yd * profile.lookAheadMultiplier();
+        double lookZ = this.z + this.zd * profile.lookAheadMultiplier();
+        if (world.getObstacles().distance(lookX, lookY, lookZ) <= 0 && isBlocked(lookX, lookY, lookZ)) {
+            if (!isBlocked(this.x, this.y + 2.0, this.z)) {
+                this.yd = Math.max(this.yd, 0.12);
+            } else {
+                double angle = Math.atan2(this.zd, this.xd)
+                        + (this.random.nextFloat() < 0.5f ? Math.PI / 2 : -Math.PI / 2);
+                this.goalX = this.x + Math.cos(angle) * (2 + this.random.nextFloat() * 3);
+                this.goalY = Math.max(this.y + 0.5, this.y + this.random.nextFloat() * 2);
+                this.goalZ = this.z + Math.sin(angle) * (2 + this.random.nextFloat() * 3);
+                this.goalTimer = 20 + (int) (this.random.nextFloat() * 40);
+            }
+        }
+
+        // Check for landing-scan behavior (rarer and only if cooldown expired)
+        double perchingChance = profile.perchingChance() * (population.roosting ? ROOST_PERCH_FACTOR : 1.0);
+        if (landingCooldown == 0 && this.random.nextFloat() < perchingChance) {
+            for (Bird nb : getNeighbors(12.0)) {
+                if (nb.state == BirdState.PERCHED && nb.perchBlockPos != NO_POS) {
+                    BlockPos target = BlockPos.of(nb.perchBlockPos);
+                    if (!world.isEmptyBlock(target) && world.isEmptyBlock(target.above())) {
+                        setState(nb, BirdState.LANDING);
+                        this.landingBlockPos = nb.perchBlockPos;
+                        this.landingTargetY = target.getY() + 2.0 + profile.size();
+                        groupPerch(target);
+                        return;
+                    }
+                }
+            }
+
+            for (int i = 1; i <= profile.perchingDistance(); i++) {
+                BlockPos below = BlockPos.containing(this.x, this.y - i, this.z);
+                BlockPos above = below.above();
+
+                // Basic checks: below must be solid, above must be air
+                if (world.isEmptyBlock(below))
+                    continue;
+                if (!world.isEmptyBlock(above))
+                    continue;
+
+                // Ensure the top face is sturdy enough to land on (avoid tiny/wire blocks)
+                if (!world.isSturdyTop(below))
+                    continue;
+
+                // Ensure there's some collision shape to stand on
+                if (!world.hasCollision(below))
+                    continue;
+
+                // Require a neighboring block (branch/cover) to avoid landing on open tree tops
+                // / flat ground
+                boolean hasNeighbor = !world.isEmptyBlock(below.north()) || !world.isEmptyBlock(below.south())
+                        || !world.isEmptyBlock(below.east()) || !world.isEmptyBlock(below.west());
+                if (!hasNeighbor)
+                    continue;
+
+                // Success: choose this block as perch. Use a corrected landing Y so the bird
+                // sits at
+                // block top (subtract quadSize rather than add to avoid floating too high)
+                setState(this, BirdState.LANDING);
+                this.landingBlockPos = below.asLong();
+                this.landingOffsetX = (this.random.nextFloat() - 0.5f) * 0.8;
+                this.landingOffsetZ = (this.random.nextFloat() - 0.5f) * 0.8;
+                this.landingTargetY = below.getY() + 1.0 + profile.size();
+                break;
+            }
+
+            if (this.state == BirdState.LANDING && this.landingBlockPos != NO_POS) {
+                groupPerch(BlockPos.of(this.landingBlockPos));
+            }
+        }
+    }
+
+    private void tickLanding() {
+        this.perchedTimer = 0;
+
+        // If target missing, abort to flying
+        if (this.landingBlockPos == NO_POS || Double.isNaN(this.landingTargetY)) {
+            setState(this, BirdState.FLYING);
+            this.landingTargetY = Double.NaN;
+            this.landingBlockPos = NO_POS;
+            this.landingOffsetX = 0.0;
+            this.landingOffsetZ = 0.0;
+            return;
+        }
+
+        double targetX = BlockPos.getX(this.landingBlockPos) + 0.5 + this.landingOffsetX;
+        double targetZ = BlockPos.getZ(this.landingBlockPos) + 0.5 + this.landingOffsetZ;
+
+        // Gentle horizontal damping so steering is stable
+        this.xd *= 0.98;
+        this.zd *= 0.98;
+
+        // Estimate time to land
+        double verticalDist = this.y - this.landingTargetY;
+        double timeToLand;
+        if (this.yd < -0.001) {
+            timeToLand = verticalDist / -this.yd;
+            if (timeToLand < 0.1)
+                timeToLand = 0.1;
+        } else {
+            timeToLand = Math.max(0.5, verticalDist / 0.06);
+        }
+
+        double desiredXd = (targetX - this.x) / timeToLand;
+        double desiredZd = (targetZ - this.z) / timeToLand;
+
+        double maxLandingSpeed = 0.07;
+        double desiredHoriz = Math.sqrt(desiredXd * desiredXd + desiredZd * desiredZd);
+        if (desiredHoriz > maxLandingSpeed) {
+            double s = maxLandingSpeed / desiredHoriz;
+            desiredXd *= s;
+            desiredZd *= s;
+        }
+
+        double steerFactor = 0.25;
+        this.xd += (desiredXd - this.xd) * steerFactor;
+        this.zd += (desiredZd - this.zd) * steerFactor;
+
+        // gentle descent proportional to remaining distance
+        double descent = Math.min(0.20, Math.max(0.06, verticalDist * 0.03));
+        this.yd = -descent;
+
+        double dx = targetX - this.x;
+        double dz = targetZ - this.z;
+        double horizDist = Math.sqrt(dx * dx + dz * dz);
+        double horizSpeed = Math.sqrt(this.xd * this.xd + this.zd * this.zd);
+
+        // Snap if close and slow
+        if (horizDist < 0.35 && Math.abs(this.y - this.landingTargetY) < 0.25 && horizSpeed < 0.06) {
+            if (this.landingBlockPos != NO_POS && !world.isEmptyBlock(unpack(this.landingBlockPos))) {
+                this.setPos(targetX, this.landingTargetY, targetZ);
+                this.xd = 0;
+                this.zd = 0;
+                this.yd = 0;
+                setState(this, BirdState.PERCHED);
+                this.perchTimer = perchTime();
+                this.perchBlockPos = this.landingBlockPos;
+                population.perched(this);
+            } else {
+                setState(this, BirdState.FLYING);
+            }
+            this.landingTargetY = Double.NaN;
+            this.landingBlockPos = NO_POS;
+            return;
+        }
+
+        // Finalize if we pass the landing Y and are reasonably close horizontally
+        if (this.y <= this.landingTargetY + 0.2 && horizDist < 0.6) {
+            if (this.landingBlockPos != NO_POS && !world.isEmptyBlock(unpack(this.landingBlockPos))) {
+                this.setPos(targetX, this.landingTargetY, targetZ);
+                this.xd = 0;
+                this.zd = 0;
+                this.yd = 0;
+                setState(this, BirdState.PERCHED);
+                this.perchTimer = perchTime();
+                this.perchBlockPos = this.landingBlockPos;
+                population.perched(this);
+            } else {
+                setState(this, BirdState.FLYING);
+            }
+            this.landingTargetY = Double.NaN;
+            this.landingBlockPos = NO_POS;
+            this.landingOffsetX = 0.0;
+            this.landingOffsetZ = 0.0;
+        }
+    }
+
+    private void tickPerched() {
+        this.perchedTimer++;
+
+        this.xd = 0;
+        this.zd = 0;
+        this.yd = 0;
+
+        // If a player gets too close, scare the bird and make it fly off
+        double scareRadiusSq = profile.scareRadius() * profile.scareRadius();
+        for (Vec3 p : world.players()) {
+            double dx = p.x - this.x;
+            double dz = p.z - this.z;
+            double distSq = dx * dx + dz * dz;
+            double dy = Math.abs(p.y - this.y);
+            if (distSq <= scareRadiusSq && dy < 3.0) {
+                performTakeoff(p);
+                return;
+            }
+        }
+
+        if (perchTimer-- <= 0) {
+            setState(this, BirdState.TAKING_OFF);
+            this.perchTimer = 20;
+            groupTakeoff();
+        }
+    }
+
+    private void tickTakingOff() {
+        this.landingTargetY = Double.NaN;
+        this.landingBlockPos = NO_POS;
+        this.landingOffsetX = 0.0;
+        this.landingOffsetZ = 0.0;
+        this.perchBlockPos = NO_POS;
+
+        if (this.takeoffTime == 0) {
+            this.xd += (this.random.nextFloat() - 0.5f) * 0.08;
+            this.zd += (this.random.nextFloat() - 0.5f) * 0.08;
+        }
+        this.takeoffTime++;
+
+        if (Double.isNaN(this.takeoffGoalY)) {
+            this.takeoffGoalY = this.y + 1.0 + this.random.nextDouble() * 0.8;
+        }
+
+        double remaining = this.takeoffGoalY - this.y;
+        double desiredUp = 0.02 + Math.min(profile.maxVerticalSpeed(), Math.max(0.06, remaining * 0.12));
+        this.yd += (desiredUp - this.yd) * 0.18;
+        this.xd *= 0.995;
+        this.zd *= 0.995;
+
+        if (perchTimer-- <= 0 && (this.y >= this.takeoffGoalY - 0.15 || this.takeoffTime > 50)) {
+            setState(this, BirdState.FLYING);
+            this.landingCooldown = 100;
+            chooseNewGoal();
+            this.goalTimer = 30 + (int) (this.random.nextFloat() * 40);
+            this.takeoffGoalY = Double.NaN;
+            this.takeoffTime = 0;
+        }
+    }
+
+    // How long a bird that just landed stays, longer while roosting
+    private int perchTime() {
+        int time = profile.perchingTime() + (int) (this.random.nextFloat() * profile.perchingTime());
+        return population.roosting ? time * ROOST_STAY_FACTOR : time;
+    }
+
+    private void tickDying() {
+        this.yd -= 0.02;
+
+        // Remove if we hit the void or have fallen far enough
+        if (this.y < -64) {
+            if (FaunaConfig.get().debugBirds()) {
+                AtmosphericFauna.LOGGER.info(
+                        this.species + " #" + this.id + " has died at age " + this.age + " ticks.");
+            }
+            this.remove();
+        }
+
+        // Hard limit to prevent memory leaks if it falls forever
+        if (this.age > this.lifetime + 200) {
+            if (FaunaConfig.get().debugBirds()) {
+                AtmosphericFauna.LOGGER.info(this.species + " #" + this.id
+                        + " forcibly removed after exceeding death time limit.");
+            }
+            this.remove();
+        }
+    }
+
+    // --- EVENTS ---
+
+    // Called by the population for events from the world's FaunaEventBus
+
+    // The block this bird perched on is gone
+    void perchLost() {
+        if (state == BirdState.PERCHED)
+            performTakeoff(null);
+    }
+
+    // Dusk or bad weather, a flying bird starts looking for a perch soon
+    void roost() {
+        if (state == BirdState.FLYING)
+            landingCooldown = Math.min(landingCooldown, this.random.nextInt(60));
+    }
+
+    // Something loud went off, perched birds take off and flying ones head
+    // away from it for a while
+    void startle(double sourceX, double sourceY, double sourceZ) {
+        switch (state) {
+            case PERCHED -> performTakeoff(new Vec3(sourceX, sourceY, sourceZ));
+            case FLYING, LANDING -> {
+                if (state == BirdState.LANDING) {
+                    setState(this, BirdState.FLYING);
+                    this.landingTargetY = Double.NaN;
+                    this.landingBlockPos = NO_POS;
+                }
+                double dx = this.x - sourceX;
+                double dz = this.z - sourceZ;
+                double mag = Math.sqrt(dx * dx + dz * dz);
+                if (mag < 0.001) {
+                    dx = this.random.nextFloat() - 0.5f;
+                    dz = this.random.nextFloat() - 0.5f;
+                    mag = Math.sqrt(dx * dx + dz * dz);
+                }
+                this.goalX = this.x + dx / mag * FLEE_DISTANCE;
+                this.goalY = this.y + 4.0 + this.random.nextFloat() * 4.0;
+                this.goalZ = this.z + dz / mag * FLEE_DISTANCE;
+                this.goalTimer = 60 + this.random.nextInt(40);
+                this.landingCooldown = Math.max(this.landingCooldown, 200);
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package nms.atmosphericfauna.bird;
+
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.world.FaunaEventBus;
+import nms.atmosphericfauna.world.FaunaWorld;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.SingleThreadedRandomSource;
+
+// All live birds of one level. Owns neighbor queries and hands out ids and
+// random seeds, so a population created from a fixed seed replays the same way.
+public class BirdPopulation {
+
+    private final List<Bird> birds = new ArrayList<>();
+
+    // Birds by the chunk column they are over, so a chunk unload can drop its
+    // birds in one go
+    private final Map<Long, List<Bird>> byChunk = new HashMap<>();
+    private final RandomSource random;
+    private int nextId = 0;
+
+    // Removed birds kept for reuse, per species. Only filled by tick(), where
+    // the population knows nothing else holds on to its birds.
+    private static final int MAX_POOLED = 256;
+    private final Map<Species, List<Bird>> pool = new IdentityHashMap<>();
+    private long birdsCreated = 0;
+    private long birdsReused = 0;
+
+    // Told about every bird that settles on a perch, null when nobody listens
+    @FunctionalInterface
+    public interface PerchListener {
+        void perched(Bird bird, long perchPos);
+    }
+
+    private PerchListener perchListener = null;
+
+    // The bus this population listens to, whichever world its birds tick in
+    private FaunaEventBus events = null;
+    private final FaunaEventBus.Listener listener = this::onEvent;
+
+    // Night or rain, birds perch more and stay longer
+    boolean roosting = false;
+
+    // Loud sounds startle birds within this many blocks per unit of volume
+    private static final double STARTLE_PER_VOLUME = 8.0;
+    private static final double MAX_STARTLE_RADIUS = 64.0;
+
+    // Game ticks in which birds of this population ticked, and the game time of
+    // the last one. Counted rather than read from the game time, which can
+    // jump when the client catches up with the server.
+    int pass = 0;
+    private long passTime = Long.MIN_VALUE;
+
+    // A bird that missed this many passes has lost its particle, the engine
+    // evicts particles past its cap without removing them
+    static final int STALE_PASSES = 3;
+
+    // Passes between sweeps of the world's obstacle field
+    private static final int OBSTACLE_SWEEP_PASSES = 200;
+
+    // Neighbor queries made during the current bird tick, reported as one JFR batch
+    int neighborQueries = 0;
+    int neighborResults = 0;
+    double neighborRadius = 0.0;
+
+    public BirdPopulation(RandomSource random) {
+        this.random = random;
+    }
+
+    // --- MEMBERSHIP ---
+
+    void add(Bird bird) {
+        bird.id = nextId++;
+        bird.populationIndex = birds.size();
+        birds.add(bird);
+        bird.chunkKey = chunkKeyAt(bird.x, bird.z);
+        addToChunk(bird);
+    }
+
+    // Swap-remove, the last bird takes the removed bird's slot
+    void remove(Bird bird) {
+        int index = bird.populationIndex;
+        if (index < 0 || index >= birds.size() || birds.get(index) != bird)
+            return;
+        Bird last = birds.remove(birds.size() - 1);
+        if (last != bird) {
+            birds.set(index, last);
+            last.populationIndex = index;
+        }
+        bird.populationIndex = -1;
+        removeFromChunk(bird);
+    }
+
+    // Called by every bird tick. The first of a game tick starts a new pass and
+    // drops the birds that stopped ticking, so they don't linger in the caps,
+    // the neighbor queries and the events. A particle may still hold on to a
+    // dropped bird, so it is not pooled.
+    void expireStale(FaunaWorld world) {
+        expireStale(world, false);
+    }
+
+    private void expireStale(FaunaWorld world, boolean pooled) {
+        long now = world.getGameTime();
+        if (now == passTime)
+            return;
+        passTime = now;
+        pass++;
+        if (pass % OBSTACLE_SWEEP_PASSES == 0)
+            world.getObstacles().retainAround(this);
+        for (int i = birds.size() - 1; i >= 0; i--) {
+            Bird bird = birds.get(i);
+            if (pass - bird.lastPass > STALE_PASSES) {
+                bird.remove();
+                if (pooled)
+                    release(bird);
+            }
+        }
+    }
+
+    // Same sequence as RandomSource.create, without the AtomicLong. Birds are
+    // only ever ticked from one thread.
+    RandomSource createRandom() {
+        return new SingleThreadedRandomSource(random.nextLong());
+    }
+
+    // Gives a reused bird the seed a new one would have got
+    void reseed(RandomSource birdRandom) {
+        birdRandom.setSeed(random.nextLong());
+    }
+
+    public void setPerchListener(PerchListener listener) {
+        this.perchListener = listener;
+    }
+
+    void perched(Bird bird) {
+        if (perchListener != null)
+            perchListener.perched(bird, bird.perchBlockPos);
+    }
+
+    // --- POOL ---
+
+    // A new bird, reusing a removed one of the same species when there is one
+    public Bird obtain(Species species, FaunaWorld world, double x, double y, double z, double velocityX,
+            double velocityY, double velocityZ) {
+        List<Bird> free = pool.get(species);
+        if (free != null && !free.isEmpty()) {
+            Bird bird = free.remove(free.size() - 1);
+            bird.respawn(x, y, z, velocityX, velocityY, velocityZ);
+            birdsReused++;
+            return bird;
+        }
+        birdsCreated++;
+        return new Bird(species, world, this, x, y, z, velocityX, velocityY, velocityZ);
+    }
+
+    private void release(Bird bird) {
+        List<Bird> free = pool.computeIfAbsent(bird.species, species -> new ArrayList<>());
+        if (free.size() < MAX_POOLED)
+            free.add(bird);
+    }
+
+    public long getBirdsCreated() {
+        return birdsCreated;
+    }
+
+    public long getBirdsReused() {
+        return birdsReused;
+    }
+
+    public void clear() {
+        pool.clear();
+        for (Bird bird : birds) {
+            bird.removed = true;
+            bird.populationIndex = -1;
+            bird.chunkIndex = -1;
+        }
+        birds.clear();
+        byChunk.clear();
+    }
+
+    // --- CHUNKS ---
+
+    // Same layout as ChunkPos.asLong
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    static long chunkKeyAt(double x, double z) {
+        return chunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+    }
+
+    // Moves the bird to the chunk it is over now, returns true if that is a
+    // different chunk than before
+    boolean track(Bird bird) {
+        long key = chunkKeyAt(bird.x, bird.z);
+        if (key == bird.chunkKey)
+            return false;
+        removeFromChunk(bird);
+        bird.chunkKey = key;
+        addToChunk(bird);
+        return true;
+    }
+
+    // Removes every bird over the given chunk, returns how many there were
+    public int removeChunk(long chunkKey) {
+        List<Bird> inChunk = byChunk.remove(chunkKey);
+        if (inChunk == null)
+            return 0;
+        for (Bird bird : inChunk) {
+            bird.chunkIndex = -1;
+            bird.remove();
+        }
+        return inChunk.size();
+    }
+
+    private void addToChunk(Bird bird) {
+        List<Bird> inChunk = byChunk.computeIfAbsent(bird.chunkKey, key -> new ArrayList<>());
+        bird.chunkIndex = inChunk.size();
+        inChunk.add(bird);
+    }
+
+    // Swap-remove, like remove()
+    private void removeFromChunk(Bird bird) {
+        int index = bird.chunkIndex;
+        if (index < 0)
+            return;
+        List<Bird> inChunk = byChunk.get(bird.chunkKey);
+        Bird last = inChunk.remove(inChunk.size() - 1);
+        if (last != bird) {
+            inChunk.set(index, last);
+            last.chunkIndex = index;
+        }
+        bird.chunkIndex = -1;
+        if (inChunk.isEmpty())
+            byChunk.remove(bird.chunkKey);
+    }
+
+    // --- QUERIES ---
+
+    // Birds over the square of chunks within radius of the given chunk
+    public int countAround(int chunkX, int chunkZ, int radius) {
+        int count = 0;
+        for (int dz = -radius; dz <= radius; dz++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                List<Bird> inChunk = byChunk.get(chunkKey(chunkX + dx, chunkZ + dz));
+                if (inChunk != null)
+                    count += inChunk.size();
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return birds.size();
+    }
+
+    public int count(Species species) {
+        int count = 0;
+        for (Bird bird : birds) {
+            if (bird.species == species)
+                count++;
+        }
+        return count;
+    }
+
+    public List<Bird> getBirds() {
+        return Collections.unmodifiableList(birds);
+    }
+
+    // Fills out with the other birds within radius of the given bird
+    void collectNeighbors(Bird self, double radius, List<Bird> out) {
+        double rsq = radius * radius;
+        out.clear();
+
+        for (int i = 0, n = birds.size(); i < n; i++) {
+            Bird other = birds.get(i);
+            if (other == self)
+                continue;
+
+            if (Math.abs(other.x - self.x) > radius ||
+                    Math.abs(other.y - self.y) > radius ||
+                    Math.abs(other.z - self.z) > radius)
+                continue;
+
+            double dx = other.x - self.x;
+            double dy = other.y - self.y;
+            double dz = other.z - self.z;
+
+            if (dx * dx + dy * dy + dz * dz <= rsq) {
+                out.add(other);
+            }
+        }
+
+        neighborQueries++;
+        neighborResults += out.size();
+        if (radius > neighborRadius)
+            neighborRadius = radius;
+    }
+
+    // --- EVENTS ---
+
+    // Called by every bird tick. Subscribes to the world's bus the first time
+    // and lets it publish, which it does once per game tick.
+    void pollEvents(FaunaWorld world) {
+        FaunaEventBus bus = world.getEvents();
+        if (bus != events) {
+            if (events != null)
+                events.unsubscribe(listener);
+            bus.subscribe(listener);
+            events = bus;
+            roosting = isRoostingTime(world);
+        }
+        bus.update();
+    }
+
+    public boolean isRoosting() {
+        return roosting;
+    }
+
+    private static boolean isRoostingTime(FaunaWorld world) {
+        return FaunaEventBus.isNight(world.getDayTime()) || world.isRaining();
+    }
+
+    private void onEvent(FaunaWorld world, FaunaEventBus.Event event) {
+        switch (event.type()) {
+            case DUSK, RAIN_START, THUNDER_START, DAWN, RAIN_STOP, THUNDER_STOP -> {
+                boolean was = roosting;
+                roosting = isRoostingTime(world);
+                if (roosting && !was) {
+                    for (Bird bird : birds) {
+                        if (!bird.mirrored)
+                            bird.roost();
+                    }
+                }
+            }
+            case BLOCK_CHANGED -> {
+                List<Bird> inChunk = byChunk.get(chunkKeyAt(event.x(), event.z()));
+                if (inChunk == null)
+                    return;
+                long pos = BlockPos.asLong((int) event.x(), (int) event.y(), (int) event.z());
+                boolean gone = false;
+                for (int i = 0; i < inChunk.size(); i++) {
+                    Bird bird = inChunk.get(i);
+                    if (bird.mirrored || bird.state != BirdState.PERCHED || bird.perchBlockPos != pos)
+                        continue;
+                    // Only look at the block once something perches on it
+                    if (!gone && !(gone = world.isEmptyBlock(BlockPos.of(pos))))
+                        return;
+                    bird.perchLost();
+                }
+            }
+            case BLOCKS_CHANGED -> {
+                BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+                for (int i = 0; i < birds.size(); i++) {
+                    Bird bird = birds.get(i);
+                    if (!bird.mirrored && bird.state == BirdState.PERCHED && bird.perchBlockPos != Bird.NO_POS
+                            && world.isEmptyBlock(pos.set(BlockPos.getX(bird.perchBlockPos),
+                                    BlockPos.getY(bird.perchBlockPos), BlockPos.getZ(bird.perchBlockPos))))
+                        bird.perchLost();
+                }
+            }
+            case LOUD_SOUND -> {
+                double radius = Math.min(MAX_STARTLE_RADIUS, event.volume() * STARTLE_PER_VOLUME);
+                double radiusSq = radius * radius;
+                for (int i = 0; i < birds.size(); i++) {
+                    Bird bird = birds.get(i);
+                    double dx = bird.x - event.x();
+                    double dy = bird.y - event.y();
+                    double dz = bird.z - event.z();
+                    if (!bird.mirrored && dx * dx + dy * dy + dz * dz <= radiusSq)
+                        bird.startle(event.x(), event.y(), event.z());
+                }
+            }
+        }
+    }
+
+    // --- TICK ---
+
+    // Ticks every bird, used where no particle engine drives them. Iterates
+    // backwards so birds removing themselves never skip a neighbor.
+    public void tick(FaunaWorld world) {
+        // Before the loop, so the birds it drops can't move others around mid
+        // tick. Nothing else holds on to them here, they go to the pool.
+        expireStale(world, true);
+        for (int i = birds.size() - 1; i >= 0; i--) {
+            if (i < birds.size()) {
+                Bird bird = birds.get(i);
+                bird.tick();
+                if (bird.removed)
+                    release(bird);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package nms.atmosphericfauna.bird;
+
+public enum BirdState {
+    FLYING,
+    LANDING,
+    PERCHED,
+    TAKING_OFF,
+    DYING
+}
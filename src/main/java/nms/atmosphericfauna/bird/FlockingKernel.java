@@ -0,0 +1,192 @@
+package nms.atmosphericfauna.bird;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+
+import java.util.Arrays;
+
+// Cohesion, alignment and separation steering over a packed batch of flying
+// neighbors. Kept free of level state so it can be benchmarked and
+// swapped for other implementations.
+public final class FlockingKernel {
+
+    // Layout of the output array
+    public static final int STEER_X = 0;
+    public static final int STEER_Y = 1;
+    public static final int STEER_Z = 2;
+    public static final int CENTER_X = 3;
+    public static final int CENTER_Y = 4;
+    public static final int CENTER_Z = 5;
+    public static final int AVG_XD = 6;
+    public static final int AVG_YD = 7;
+    public static final int AVG_ZD = 8;
+    public static final int OUTPUT_SIZE = 9;
+
+    // Full vectors of neighbors a batch needs before it goes to the vector kernel
+    private static final int VECTOR_MIN_VECTORS = 4;
+
+    // Lives in the vector source set, the only code built against the
+    // incubating Vector API, so it is only ever reached by name
+    private static final String VECTOR_KERNEL = "nms.atmosphericfauna.bird.VectorFlockingKernel";
+
+    // Same contract as steer()
+    interface Kernel {
+        // Neighbors processed per instruction
+        int lanes();
+
+        void steer(double x, double y, double z, double xd, double yd, double zd, Batch batch,
+                double cohesionStrength, double alignmentStrength, double separationDistance,
+                double separationStrength, double[] out);
+    }
+
+    // Vector kernel when the JVM runs with --add-modules jdk.incubator.vector,
+    // otherwise null and scalar only. FlockingKernelTest holds it to the
+    // scalar results.
+    private static final Kernel VECTOR = probeVector();
+
+    private FlockingKernel() {
+    }
+
+    public static boolean isVectorized() {
+        return VECTOR != null;
+    }
+
+    // Neighbors processed per vector instruction, 1 when scalar
+    public static int getLanes() {
+        return VECTOR != null ? VECTOR.lanes() : 1;
+    }
+
+    // Neighbor coordinates and velocities in structure-of-arrays form
+    public static final class Batch {
+        public double[] x = new double[16];
+        public double[] y = new double[16];
+        public double[] z = new double[16];
+        public double[] xd = new double[16];
+        public double[] yd = new double[16];
+        public double[] zd = new double[16];
+        public int count = 0;
+
+        public void clear() {
+            count = 0;
+        }
+
+        public void add(double px, double py, double pz, double vx, double vy, double vz) {
+            if (count == x.length) {
+                int size = count * 2;
+                x = Arrays.copyOf(x, size);
+                y = Arrays.copyOf(y, size);
+                z = Arrays.copyOf(z, size);
+                xd = Arrays.copyOf(xd, size);
+                yd = Arrays.copyOf(yd, size);
+                zd = Arrays.copyOf(zd, size);
+            }
+            x[count] = px;
+            y[count] = py;
+            z[count] = pz;
+            xd[count] = vx;
+            yd[count] = vy;
+            zd[count] = vz;
+            count++;
+        }
+    }
+
+    // Writes the summed steering impulse plus the flock center and average
+    // velocity into out. The batch must not be empty.
+    public static void steer(double x, double y, double z, double xd, double yd, double zd, Batch batch,
+            double cohesionStrength, double alignmentStrength, double separationDistance,
+            double separationStrength, double[] out) {
+        // Vectors only pay off once a few of them are filled, small flocks stay scalar
+        if (VECTOR != null && batch.count >= VECTOR_MIN_VECTORS * VECTOR.lanes())
+            VECTOR.steer(x, y, z, xd, yd, zd, batch, cohesionStrength, alignmentStrength,
+                    separationDistance, separationStrength, out);
+        else
+            steerScalar(x, y, z, xd, yd, zd, batch, cohesionStrength, alignmentStrength, separationDistance,
+                    separationStrength, out);
+    }
+
+    // The reference kernel, bit for bit what every bird ran before vectors
+    public static void steerScalar(double x, double y, double z, double xd, double yd, double zd, Batch batch,
+            double cohesionStrength, double alignmentStrength, double separationDistance,
+            double separationStrength, double[] out) {
+        int count = batch.count;
+        double[] bx = batch.x, by = batch.y, bz = batch.z;
+        double[] bxd = batch.xd, byd = batch.yd, bzd = batch.zd;
+
+        double cx = 0, cy = 0, cz = 0;
+        double avx = 0, avy = 0, avz = 0;
+        for (int i = 0; i < count; i++) {
+            cx += bx[i];
+            cy += by[i];
+            cz += bz[i];
+            avx += bxd[i];
+            avy += byd[i];
+            avz += bzd[i];
+        }
+        cx /= count;
+        cy /= count;
+        cz /= count;
+        avx /= count;
+        avy /= count;
+        avz /= count;
+
+        // Reduce cohesion (avoids ball shape), strengthen alignment and
+        // separation so flock spreads and points in the same direction
+        double cohX = (cx - x) * (cohesionStrength * 0.45);
+        double cohY = (cy - y) * (cohesionStrength * 0.45);
+        double cohZ = (cz - z) * (cohesionStrength * 0.45);
+
+        double aliX = (avx - xd) * (alignmentStrength * 1.6);
+        double aliY = (avy - yd) * (alignmentStrength * 1.2);
+        double aliZ = (avz - zd) * (alignmentStrength * 1.6);
+
+        double sepX = 0, sepY = 0, sepZ = 0;
+        double sepDistSq = separationDistance * separationDistance;
+        for (int i = 0; i < count; i++) {
+            double dx = x - bx[i];
+            double dy = y - by[i];
+            double dz = z - bz[i];
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 <= sepDistSq && d2 > 0.0001) {
+                double d = Math.sqrt(d2);
+                double factor = (separationDistance - d) / separationDistance;
+                sepX += (dx / d) * factor;
+                sepY += (dy / d) * factor;
+                sepZ += (dz / d) * factor;
+            }
+        }
+        // amplify separation to keep birds more apart
+        sepX *= separationStrength * 1.6;
+        sepY *= separationStrength * 0.9; // less vertical separation
+        sepZ *= separationStrength * 1.6;
+
+        out[STEER_X] = cohX + aliX + sepX;
+        out[STEER_Y] = cohY + aliY + sepY;
+        out[STEER_Z] = cohZ + aliZ + sepZ;
+        out[CENTER_X] = cx;
+        out[CENTER_Y] = cy;
+        out[CENTER_Z] = cz;
+        out[AVG_XD] = avx;
+        out[AVG_YD] = avy;
+        out[AVG_ZD] = avz;
+    }
+
+    // --- VECTOR ---
+
+    private static Kernel probeVector() {
+        Kernel kernel = loadVector();
+        if (kernel != null)
+            AtmosphericFauna.LOGGER.info("Using the vector flocking kernel, {} lanes", kernel.lanes());
+        return kernel;
+    }
+
+    // A new vector kernel, or null without the vector module or the kernel's
+    // classes. Also used by the tests and benchmarks.
+    static Kernel loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            return (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
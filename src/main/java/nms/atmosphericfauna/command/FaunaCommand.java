@@ -0,0 +1,147 @@
+package nms.atmosphericfauna.command;
+
+import nms.atmosphericfauna.audio.FlockCalls;
+import nms.atmosphericfauna.network.ClientFlockSync;
+import nms.atmosphericfauna.network.ServerFlockSync;
+import nms.atmosphericfauna.particle.BirdParticlePool;
+import nms.atmosphericfauna.performance.PopulationGovernor;
+import nms.atmosphericfauna.performance.StressTest;
+import nms.atmosphericfauna.spawning.ChunkSpawnQueue;
+import nms.atmosphericfauna.spawning.SpawnMetrics;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.util.List;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.commands.CommandBuildContext;
+import net.minecraft.network.chat.Component;
+
+// Client side /fauna command for looking at what the mod is doing in game
+//   /fauna               population, governor, particle pool, bird calls and server sync state
+//   /fauna spawns        spawn cycle outcomes and rejection counts per species
+//   /fauna spawns reset  clears the spawn counters
+//   /fauna stress <count> [species] [seconds]
+//                        spawns birds around the player ignoring the caps and
+//                        reports tick time per phase after a fixed time
+//   /fauna stress stop   ends a stress test early
+public final class FaunaCommand {
+
+    private FaunaCommand() {
+    }
+
+    public static void register(CommandDispatcher<FabricClientCommandSource> dispatcher,
+            CommandBuildContext context) {
+        dispatcher.register(ClientCommandManager.literal("fauna")
+                .executes(FaunaCommand::status)
+                .then(ClientCommandManager.literal("spawns")
+                        .executes(FaunaCommand::spawns)
+                        .then(ClientCommandManager.literal("reset")
+                                .executes(FaunaCommand::resetSpawns)))
+                .then(ClientCommandManager.literal("stress")
+                        .then(ClientCommandManager.literal("stop")
+                                .executes(FaunaCommand::stopStress))
+                        .then(ClientCommandManager.argument("count",
+                                        IntegerArgumentType.integer(1, StressTest.MAX_BIRDS))
+                                .executes(context -> stress(context, null, StressTest.DEFAULT_SECONDS))
+                                .then(ClientCommandManager.argument("species", StringArgumentType.word())
+                                        .suggests((context, builder) -> {
+                                            for (Species species : SpeciesRegistry.snapshot().spawnable())
+                                                builder.suggest(species.getName());
+                                            return builder.buildFuture();
+                                        })
+                                        .executes(context -> stress(context,
+                                                StringArgumentType.getString(context, "species"),
+                                                StressTest.DEFAULT_SECONDS))
+                                        .then(ClientCommandManager.argument("seconds",
+                                                        IntegerArgumentType.integer(1, StressTest.MAX_SECONDS))
+                                                .executes(context -> stress(context,
+                                                        StringArgumentType.getString(context, "species"),
+                                                        IntegerArgumentType.getInteger(context, "seconds"))))))));
+    }
+
+    private static int status(CommandContext<FabricClientCommandSource> context) {
+        FabricClientCommandSource source = context.getSource();
+        ClientFaunaWorld view = ClientFaunaWorld.of(source.getWorld());
+        int birds = view.getPopulation().size();
+        source.sendFeedback(Component.literal(String.format("Birds: %d, governor scale %.2f, fauna %.2f%% of "
+                + "frame time", birds, PopulationGovernor.getScale(), PopulationGovernor.getLastShare() * 100)));
+        source.sendFeedback(Component.literal("Bird particles: " + BirdParticlePool.getCreated() + " allocated, "
+                + BirdParticlePool.getReused() + " reused from the pool"));
+        source.sendFeedback(Component.literal("Chunks waiting for spawns: " + ChunkSpawnQueue.size()));
+        source.sendFeedback(Component.literal("Bird calls: " + FlockCalls.getPlaying() + " playing, "
+                + FlockCalls.getCalls() + " played, " + FlockCalls.getSkipped() + " skipped for lack of channels"));
+        source.sendFeedback(Component.literal("Obstacle field: " + view.getObstacles().getColumns() + " chunks, "
+                + view.getObstacles().getBuilds() + " sections built"));
+        if (ClientFlockSync.isActive(source.getWorld()))
+            source.sendFeedback(Component.literal("Server simulation: " + ClientFlockSync.getMirrorCount()
+                    + " birds mirrored"));
+        // Only counts on the integrated server, a remote server keeps its own
+        long frames = ServerFlockSync.getFramesSent();
+        if (frames > 0)
+            source.sendFeedback(Component.literal(String.format("Sent %d flock frames, %.1f bytes on average",
+                    frames, (double) ServerFlockSync.getBytesSent() / frames)));
+        return birds;
+    }
+
+    private static int spawns(CommandContext<FabricClientCommandSource> context) {
+        for (String line : SpawnMetrics.report())
+            context.getSource().sendFeedback(Component.literal(line));
+        return 1;
+    }
+
+    private static int resetSpawns(CommandContext<FabricClientCommandSource> context) {
+        SpawnMetrics.reset();
+        context.getSource().sendFeedback(Component.literal("Spawn counters cleared"));
+        return 1;
+    }
+
+    // Without a species every bird is one of the spawnable species
+    private static int stress(CommandContext<FabricClientCommandSource> context, String name, int seconds) {
+        FabricClientCommandSource source = context.getSource();
+        if (ClientFlockSync.isActive(source.getWorld())) {
+            source.sendError(Component.literal("The server simulates the birds here, stress tests run in "
+                    + "singleplayer or on servers without the mod"));
+            return 0;
+        }
+
+        List<Species> species;
+        if (name != null) {
+            Species found = SpeciesRegistry.find(name);
+            if (found == null) {
+                source.sendError(Component.literal("Unknown species " + name));
+                return 0;
+            }
+            species = List.of(found);
+        } else {
+            species = SpeciesRegistry.snapshot().spawnable();
+            if (species.isEmpty()) {
+                source.sendError(Component.literal("No species can spawn, name one"));
+                return 0;
+            }
+        }
+
+        int count = IntegerArgumentType.getInteger(context, "count");
+        int spawned = StressTest.start(source.getWorld(), source.getPosition(), species, count, seconds);
+        if (spawned == 0) {
+            source.sendError(Component.literal("No loaded chunks around the player to spawn in"));
+            return 0;
+        }
+        source.sendFeedback(Component.literal("Stress test: spawned " + spawned + " birds, measuring for "
+                + seconds + " seconds"));
+        return spawned;
+    }
+
+    private static int stopStress(CommandContext<FabricClientCommandSource> context) {
+        if (!StressTest.stop()) {
+            context.getSource().sendError(Component.literal("No stress test is running"));
+            return 0;
+        }
+        return 1;
+    }
+}
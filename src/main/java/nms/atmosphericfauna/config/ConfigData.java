@@ -0,0 +1,58 @@
+package nms.atmosphericfauna.config;
+
+// Mutable mirror of atmospheric-fauna.json. Only used for (de)serialization and
+// editing, everything else reads the immutable FaunaConfig.
+public class ConfigData {
+
+    // Spawning Category
+    public Spawning spawning = new Spawning();
+
+    public static class Spawning {
+        public Boolean enableChunkLoadSpawning;
+        public Boolean enableAmbientSpawning;
+        public Integer spawnRangeFromPlayer;
+        public Integer spawnTickDelay;
+        public Integer attemptsPerTick;
+        public Integer searchRadius;
+        public Boolean spawnBelowSeaLevel;
+        public Boolean enableRoostCache;
+    }
+
+    // Birds Category
+    public Birds birds = new Birds();
+
+    public static class Birds {
+        public Integer maxActiveBirds;
+        public Integer maxActiveCrows;
+        public Boolean enableBirdCalls;
+        public Integer maxBirdCalls;
+    }
+
+    // Governor Category
+    public Governor governor = new Governor();
+
+    public static class Governor {
+        public Boolean enableGovernor;
+        public Integer budgetPercent;
+        public Integer targetFps;
+        public Integer minPercent;
+    }
+
+    // Server Category
+    public Server server = new Server();
+
+    public static class Server {
+        public Boolean enableServerSimulation;
+        public Integer syncRange;
+    }
+
+    // Debug Category
+    public Debug debug = new Debug();
+
+    public static class Debug {
+        public Boolean debugText;
+        public Boolean debugBirds;
+        public Boolean recordFlights;
+    }
+
+}
@@ -1,159 +1,244 @@
 package nms.atmosphericfauna.config;
 
 import nms.atmosphericfauna.AtmosphericFauna;
-import nms.atmosphericfauna.particle.BaseBirdParticle;
-import nms.atmosphericfauna.particle.CrowParticle;
-import nms.atmosphericfauna.spawning.AmbientSpawning;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import net.fabricmc.loader.api.FabricLoader;
 
+// Reads and writes atmospheric-fauna.json. Every change ends up as a new
+// FaunaConfig snapshot; the file is written off-thread and edits made to it
+// while the game runs are picked up and published.
 public class ConfigHandler {
 
-    private static final File CONFIG_FILE = FabricLoader.getInstance().getConfigDir()
-            .resolve(AtmosphericFauna.MOD_ID + ".json").toFile();
+    private static final Path CONFIG_DIR = FabricLoader.getInstance().getConfigDir();
+    private static final Path CONFIG_FILE = CONFIG_DIR.resolve(AtmosphericFauna.MOD_ID + ".json");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
-    public static void load() {
-        if (!CONFIG_FILE.exists()) {
-            save();
-            return;
-        }
+    // Screen saves come in bursts and editors write a file in several steps,
+    // both are collapsed into one write/read
+    private static final long SAVE_DELAY_MS = 500;
+    private static final long RELOAD_DELAY_MS = 250;
 
-        try (FileReader reader = new FileReader(CONFIG_FILE)) {
-            @SuppressWarnings("null")
-            ConfigData data = GSON.fromJson(reader, ConfigData.class);
+    // How long flush() waits for a save that is already being written
+    private static final long FLUSH_TIMEOUT_MS = 5000;
 
-            if (data != null) {
-                // Verify that all variables are there
-                ConfigData defaults = saveData(); // Generates a ConfigData with current default values
-                boolean missing = false;
+    // Saves and reloads share one thread, so they never overlap
+    private static final ScheduledExecutorService IO = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "Atmospheric Fauna Config");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-                try {
-                    // Loop through categories (spawning, birds, debug)
-                    for (Field categoryField : ConfigData.class.getFields()) {
-                        Object loadedCategory = categoryField.get(data);
-                        Object defaultCategory = categoryField.get(defaults);
-
-                        // Loop through variables in each category
-                        for (Field field : loadedCategory.getClass().getFields()) {
-                            // If variable is missing (null), fill it from defaults
-                            if (field.get(loadedCategory) == null) {
-                                field.set(loadedCategory, field.get(defaultCategory));
-                                missing = true;
-                            }
-                        }
-                    }
-                } catch (IllegalAccessException e) {
-                    AtmosphericFauna.LOGGER.error("Failed to verify config integrity", e);
-                }
+    // Swapped without a lock, the render thread never waits for a write
+    private static final AtomicReference<ScheduledFuture<?>> PENDING_SAVE = new AtomicReference<>();
+    private static ScheduledFuture<?> pendingReload;
 
-                loadData(data);
+    // Held only while writing, so two writes never race for the file
+    private static final Object WRITE_LOCK = new Object();
 
-                if (missing) {
-                    save();
-                }
-            }
-        } catch (IOException e) {
-            AtmosphericFauna.LOGGER.error("Failed to load config", e);
-        }
-    }
+    // Last content written by us, the watcher ignores it when it sees it again
+    private static volatile String lastWritten;
 
-    public static void save() {
-        ConfigData data = saveData();
+    private static Thread watcher;
 
-        try (FileWriter writer = new FileWriter(CONFIG_FILE)) {
-            GSON.toJson(data, writer);
-        } catch (IOException e) {
-            AtmosphericFauna.LOGGER.error("Failed to save config", e);
+    // --- LOAD ---
+
+    // Blocking, only called once while the client initializes
+    public static void load() {
+        if (!Files.exists(CONFIG_FILE)) {
+            write(FaunaConfig.get());
+        } else {
+            reload();
         }
+        startWatching();
     }
 
-    public static class ConfigData {
-
-        // Spawning Category
-        public Spawning spawning = new Spawning();
-
-        public static class Spawning {
-            public Boolean enableChunkLoadSpawning;
-            public Boolean enableAmbientSpawning;
-            public Integer spawnRangeFromPlayer;
-            public Integer spawnTickDelay;
-            public Integer attemptsPerTick;
-            public Integer searchRadius;
-            public Boolean spawnBelowSeaLevel;
+    private static void reload() {
+        String json;
+        try {
+            json = Files.readString(CONFIG_FILE, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.error("Failed to load config", e);
+            return;
         }
+        if (json.equals(lastWritten))
+            return;
 
-        // Birds Category
-        public Birds birds = new Birds();
-
-        public static class Birds {
-            public Integer maxActiveBirds;
-            public Integer maxActiveCrows;
+        ConfigData data;
+        try {
+            data = GSON.fromJson(json, ConfigData.class);
+        } catch (JsonParseException e) {
+            // Most likely saved halfway through an edit, keep what we have
+            AtmosphericFauna.LOGGER.warn("Ignoring invalid config: {}", e.getMessage());
+            return;
         }
+        if (data == null)
+            return;
 
-        // Debug Category
-        public Debug debug = new Debug();
-
-        public static class Debug {
-            public Boolean debugText;
-            public Boolean debugBirds;
+        boolean missing = fillMissing(data, FaunaConfig.get().toData());
+        FaunaConfig config = FaunaConfig.fromData(data);
+        if (!config.equals(FaunaConfig.get())) {
+            FaunaConfig.publish(config);
+            AtmosphericFauna.LOGGER.info("Config reloaded");
         }
 
+        if (missing) {
+            write(config);
+        }
     }
 
-    private static ConfigData saveData() {
-        ConfigData data = new ConfigData();
-
-        // Spawning Category
+    // Fills variables that are absent from the file, returns true if any were
+    private static boolean fillMissing(ConfigData data, ConfigData defaults) {
+        boolean missing = false;
+
+        try {
+            // Loop through categories (spawning, birds, debug)
+            for (Field categoryField : ConfigData.class.getFields()) {
+                Object loadedCategory = categoryField.get(data);
+                Object defaultCategory = categoryField.get(defaults);
+                if (loadedCategory == null) {
+                    categoryField.set(data, defaultCategory);
+                    missing = true;
+                    continue;
+                }
 
-        data.spawning.enableChunkLoadSpawning = AtmosphericFauna.enableChunkLoadSpawning;
-        data.spawning.enableAmbientSpawning = AmbientSpawning.enableAmbientSpawning;
-        data.spawning.spawnRangeFromPlayer = AmbientSpawning.spawnRangeFromPlayer;
-        data.spawning.spawnTickDelay = AmbientSpawning.spawnTickDelay;
-        data.spawning.attemptsPerTick = AmbientSpawning.attemptsPerTick;
-        data.spawning.searchRadius = AmbientSpawning.searchRadius;
-        data.spawning.spawnBelowSeaLevel = AmbientSpawning.spawnBelowSeaLevel;
+                // Loop through variables in each category
+                for (Field field : loadedCategory.getClass().getFields()) {
+                    // If variable is missing (null), fill it from defaults
+                    if (field.get(loadedCategory) == null) {
+                        field.set(loadedCategory, field.get(defaultCategory));
+                        missing = true;
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            AtmosphericFauna.LOGGER.error("Failed to verify config integrity", e);
+        }
 
-        // Birds Category
+        return missing;
+    }
 
-        data.birds.maxActiveBirds = BaseBirdParticle.maxActiveBirds;
-        data.birds.maxActiveCrows = CrowParticle.maxActiveCrows;
+    // --- SAVE ---
 
-        // Debug Category
+    // Publishes the edited values right away, the file follows shortly after
+    public static void apply(ConfigData data) {
+        FaunaConfig.publish(FaunaConfig.fromData(data));
+        save();
+    }
 
-        data.debug.debugText = AmbientSpawning.debugText;
-        data.debug.debugBirds = BaseBirdParticle.debugText;
+    public static void save() {
+        ScheduledFuture<?> previous = PENDING_SAVE.getAndSet(
+                IO.schedule(() -> write(FaunaConfig.get()), SAVE_DELAY_MS, TimeUnit.MILLISECONDS));
+        if (previous != null)
+            previous.cancel(false);
+    }
 
-        return data;
+    // Writes a pending save before the game exits, or waits for the one the
+    // IO thread is writing
+    public static void flush() {
+        ScheduledFuture<?> save = PENDING_SAVE.getAndSet(null);
+        if (save == null)
+            return;
+        if (save.cancel(false)) {
+            write(FaunaConfig.get());
+            return;
+        }
+        try {
+            save.get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            AtmosphericFauna.LOGGER.warn("Config may not have been saved: {}", e.toString());
+        }
     }
 
-    private static void loadData(ConfigData data) {
+    // Written next to the real file and moved over it, so neither a crash nor
+    // the watcher ever sees a half written config
+    private static void write(FaunaConfig config) {
+        String json = GSON.toJson(config.toData());
+        synchronized (WRITE_LOCK) {
+            writeLocked(json);
+        }
+    }
 
-        // Spawning Category
+    private static void writeLocked(String json) {
+        Path temp = null;
+        try {
+            Files.createDirectories(CONFIG_DIR);
+            temp = Files.createTempFile(CONFIG_DIR, AtmosphericFauna.MOD_ID, ".tmp");
+            Files.writeString(temp, json, StandardCharsets.UTF_8);
+            lastWritten = json;
+            try {
+                Files.move(temp, CONFIG_FILE, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, CONFIG_FILE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.error("Failed to save config", e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
 
-        AtmosphericFauna.enableChunkLoadSpawning = data.spawning.enableChunkLoadSpawning;
-        AmbientSpawning.enableAmbientSpawning = data.spawning.enableAmbientSpawning;
-        AmbientSpawning.spawnRangeFromPlayer = data.spawning.spawnRangeFromPlayer;
-        AmbientSpawning.spawnTickDelay = data.spawning.spawnTickDelay;
-        AmbientSpawning.attemptsPerTick = data.spawning.attemptsPerTick;
-        AmbientSpawning.searchRadius = data.spawning.searchRadius;
-        AmbientSpawning.spawnBelowSeaLevel = data.spawning.spawnBelowSeaLevel;
+    // --- WATCHER ---
 
-        // Birds Category
+    private static synchronized void startWatching() {
+        if (watcher != null)
+            return;
+        watcher = new Thread(ConfigHandler::watch, "Atmospheric Fauna Config Watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
 
-        BaseBirdParticle.maxActiveBirds = data.birds.maxActiveBirds;
-        CrowParticle.maxActiveCrows = data.birds.maxActiveCrows;
+    private static void watch() {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            CONFIG_DIR.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
 
-        // Debug Category
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (CONFIG_FILE.getFileName().equals(event.context()))
+                        scheduleReload();
+                }
+                if (!key.reset())
+                    break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.warn("Config file watching unavailable: {}", e.getMessage());
+        }
+    }
 
-        AmbientSpawning.debugText = data.debug.debugText;
-        BaseBirdParticle.debugText = data.debug.debugBirds;
+    private static synchronized void scheduleReload() {
+        if (pendingReload != null)
+            pendingReload.cancel(false);
+        pendingReload = IO.schedule(ConfigHandler::reload, RELOAD_DELAY_MS, TimeUnit.MILLISECONDS);
     }
 }
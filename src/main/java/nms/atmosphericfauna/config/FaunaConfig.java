@@ -0,0 +1,140 @@
+package nms.atmosphericfauna.config;
+
+import java.util.function.Consumer;
+
+// Immutable snapshot of every setting. The current snapshot is swapped as a
+// whole, so any thread can read it and always sees a consistent set of values.
+// Read it once per operation rather than once per value.
+public record FaunaConfig(
+        // Spawning
+        boolean enableChunkLoadSpawning,
+        boolean enableAmbientSpawning,
+        int spawnRangeFromPlayer,
+        int spawnTickDelay,
+        int attemptsPerTick,
+        int searchRadius,
+        boolean spawnBelowSeaLevel,
+        boolean enableRoostCache,
+
+        // Birds
+        int maxActiveBirds,
+        int maxActiveCrows,
+        boolean enableBirdCalls,
+        int maxBirdCalls,
+
+        // Governor
+        boolean enableGovernor,
+        int governorBudgetPercent,
+        int governorTargetFps,
+        int governorMinPercent,
+
+        // Server
+        boolean enableServerSimulation,
+        int syncRange,
+
+        // Debug
+        boolean debugSpawning,
+        boolean debugBirds,
+        boolean recordFlights) {
+
+    public static final FaunaConfig DEFAULT = new FaunaConfig(
+            true, true, 96, 200, 15, 12, false, true,
+            100, 50, true, 4,
+            false, 5, 60, 25,
+            false, 128,
+            false, false, false);
+
+    private static volatile FaunaConfig current = DEFAULT;
+
+    public static FaunaConfig get() {
+        return current;
+    }
+
+    public static void publish(FaunaConfig config) {
+        current = config;
+    }
+
+    // Copy-on-write edit of the current snapshot, returns the published result
+    public static synchronized FaunaConfig update(Consumer<ConfigData> edit) {
+        ConfigData data = current.toData();
+        edit.accept(data);
+        FaunaConfig config = fromData(data);
+        current = config;
+        return config;
+    }
+
+    // --- CONVERSION ---
+
+    // Expects every field to be present, out of range values are clamped to
+    // what the config screen allows
+    public static FaunaConfig fromData(ConfigData data) {
+        return new FaunaConfig(
+                data.spawning.enableChunkLoadSpawning,
+                data.spawning.enableAmbientSpawning,
+                Math.max(32, data.spawning.spawnRangeFromPlayer),
+                Math.max(1, data.spawning.spawnTickDelay),
+                Math.max(0, data.spawning.attemptsPerTick),
+                Math.max(1, data.spawning.searchRadius),
+                data.spawning.spawnBelowSeaLevel,
+                data.spawning.enableRoostCache,
+
+                Math.max(0, data.birds.maxActiveBirds),
+                Math.max(0, data.birds.maxActiveCrows),
+                data.birds.enableBirdCalls,
+                Math.min(16, Math.max(0, data.birds.maxBirdCalls)),
+
+                data.governor.enableGovernor,
+                Math.min(50, Math.max(1, data.governor.budgetPercent)),
+                Math.max(10, data.governor.targetFps),
+                Math.min(100, Math.max(0, data.governor.minPercent)),
+
+                data.server.enableServerSimulation,
+                Math.min(512, Math.max(32, data.server.syncRange)),
+
+                data.debug.debugText,
+                data.debug.debugBirds,
+                data.debug.recordFlights);
+    }
+
+    public ConfigData toData() {
+        ConfigData data = new ConfigData();
+
+        // Spawning Category
+
+        data.spawning.enableChunkLoadSpawning = enableChunkLoadSpawning;
+        data.spawning.enableAmbientSpawning = enableAmbientSpawning;
+        data.spawning.spawnRangeFromPlayer = spawnRangeFromPlayer;
+        data.spawning.spawnTickDelay = spawnTickDelay;
+        data.spawning.attemptsPerTick = attemptsPerTick;
+        data.spawning.searchRadius = searchRadius;
+        data.spawning.spawnBelowSeaLevel = spawnBelowSeaLevel;
+        data.spawning.enableRoostCache = enableRoostCache;
+
+        // Birds Category
+
+        data.birds.maxActiveBirds = maxActiveBirds;
+        data.birds.maxActiveCrows = maxActiveCrows;
+        data.birds.enableBirdCalls = enableBirdCalls;
+        data.birds.maxBirdCalls = maxBirdCalls;
+
+        // Governor Category
+
+        data.governor.enableGovernor = enableGovernor;
+        data.governor.budgetPercent = governorBudgetPercent;
+        data.governor.targetFps = governorTargetFps;
+        data.governor.minPercent = governorMinPercent;
+
+        // Server Category
+
+        data.server.enableServerSimulation = enableServerSimulation;
+        data.server.syncRange = syncRange;
+
+        // Debug Category
+
+        data.debug.debugText = debugSpawning;
+        data.debug.debugBirds = debugBirds;
+        data.debug.recordFlights = recordFlights;
+
+        return data;
+    }
+}
@@ -0,0 +1,30 @@
+package nms.atmosphericfauna.debug.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(BirdStateChangeEvent.EVENT_NAME)
+@Label("Fauna Bird State Change")
+@Category({ "Minecraft", "Atmospheric Fauna" })
+@StackTrace(false)
+public class BirdStateChangeEvent extends Event {
+    public static final String EVENT_NAME = "atmosphericfauna.BirdStateChange";
+
+    @Label("Species")
+    public String species;
+
+    @Label("Bird Id")
+    public int birdId;
+
+    @Label("From State")
+    public String fromState;
+
+    @Label("To State")
+    public String toState;
+
+    @Label("Age")
+    public int age;
+}
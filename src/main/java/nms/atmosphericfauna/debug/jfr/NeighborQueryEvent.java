@@ -0,0 +1,25 @@
+package nms.atmosphericfauna.debug.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One event per bird tick, covering every neighbor query the bird made in it
+@Name(NeighborQueryEvent.EVENT_NAME)
+@Label("Fauna Neighbor Query Batch")
+@Category({ "Minecraft", "Atmospheric Fauna" })
+@StackTrace(false)
+public class NeighborQueryEvent extends Event {
+    public static final String EVENT_NAME = "atmosphericfauna.NeighborQuery";
+
+    @Label("Queries")
+    public int queries;
+
+    @Label("Largest Radius")
+    public double radius;
+
+    @Label("Result Count")
+    public int results;
+}
@@ -0,0 +1,30 @@
+package nms.atmosphericfauna.debug.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(SpawnCycleEvent.EVENT_NAME)
+@Label("Fauna Spawn Cycle")
+@Category({ "Minecraft", "Atmospheric Fauna" })
+@StackTrace(false)
+public class SpawnCycleEvent extends Event {
+    public static final String EVENT_NAME = "atmosphericfauna.SpawnCycle";
+
+    @Label("Species")
+    public String species;
+
+    @Label("Candidate Attempts")
+    public int attempts;
+
+    @Label("Rejection Reason")
+    public String rejection;
+
+    @Label("Target Pack Size")
+    public int targetPackSize;
+
+    @Label("Pack Size")
+    public int packSize;
+}
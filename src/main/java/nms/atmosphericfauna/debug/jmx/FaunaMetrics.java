@@ -0,0 +1,346 @@
+package nms.atmosphericfauna.debug.jmx;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.bird.BirdState;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.performance.FaunaTimings;
+import nms.atmosphericfauna.performance.PopulationGovernor;
+import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.spawning.LocationRejection;
+import nms.atmosphericfauna.spawning.SpawnMetrics;
+import nms.atmosphericfauna.spawning.SpawnRejection;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import net.minecraft.world.level.Level;
+
+// The FaunaMetricsMXBean, for watching long runs from outside the game. The
+// threads ticking birds publish per level counts once a second and add every
+// tick's phase times to fixed histograms, JMX reads only what was published
+// and never touches a population. Operations are requests the owning threads
+// pick up on their next tick.
+//
+// Spawn counters are read straight from SpawnMetrics, whose counters are
+// atomic. A read may land in the middle of a cycle.
+public final class FaunaMetrics implements FaunaMetricsMXBean {
+
+    public static final String OBJECT_NAME = "nms.atmosphericfauna:type=FaunaMetrics";
+
+    public enum Side {
+        CLIENT,
+        SERVER
+    }
+
+    // Game ticks between published counts of a level
+    private static final int PUBLISH_TICKS = 20;
+
+    // Upper bounds of the histogram buckets, the last bucket is open
+    private static final long[] BOUNDS_MICROS = {50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000};
+
+    private static final BirdState[] STATES = BirdState.values();
+
+    // Birds of one level per species, a count per state. Never changed once
+    // published.
+    private record LevelCounts(int birds, Map<String, int[]> species, long publishedMillis) {
+    }
+
+    private static final Map<String, LevelCounts> LEVELS = new ConcurrentHashMap<>();
+
+    // Client phases are per client tick, server phases per level tick
+    private static final Map<String, AtomicLongArray> HISTOGRAMS = new LinkedHashMap<>();
+    private static final AtomicLongArray CLIENT_BIRDS = histogram("client_birds");
+    private static final AtomicLongArray CLIENT_SPAWNING = histogram("client_spawning");
+    private static final AtomicLongArray SERVER_BIRDS = histogram("server_birds");
+    private static final AtomicLongArray SERVER_SPAWNING = histogram("server_spawning");
+
+    // Client thread only, the FaunaTimings totals at the last client tick
+    private static long lastBirdNanos = 0;
+    private static long lastSpawnNanos = 0;
+
+    // Clears requested, and per side the requests already carried out
+    private static final AtomicLong CLEARS = new AtomicLong();
+    private static final long[] CLEARED = new long[Side.values().length];
+
+    private FaunaMetrics() {
+    }
+
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new FaunaMetrics(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            AtmosphericFauna.LOGGER.warn("Failed to register the fauna metrics MBean", e);
+        }
+    }
+
+    private static AtomicLongArray histogram(String phase) {
+        AtomicLongArray histogram = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+        HISTOGRAMS.put(phase, histogram);
+        return histogram;
+    }
+
+    // --- PUBLISHING ---
+
+    // Called every tick of a level by the thread ticking its birds
+    public static void publish(Side side, Level level, BirdPopulation population) {
+        if (level.getGameTime() % PUBLISH_TICKS != 0)
+            return;
+        String key = levelKey(side, level);
+
+        Map<String, int[]> species = new HashMap<>();
+        for (Bird bird : population.getBirds()) {
+            species.computeIfAbsent(bird.getSpecies().getName(), name -> new int[STATES.length])[bird.getState()
+                    .ordinal()]++;
+        }
+        LEVELS.put(key, new LevelCounts(population.size(), species, System.currentTimeMillis()));
+
+        // The client has one level at a time
+        if (side == Side.CLIENT)
+            LEVELS.keySet().removeIf(other -> other.startsWith(prefix(side)) && !other.equals(key));
+    }
+
+    public static void remove(Side side, Level level) {
+        LEVELS.remove(levelKey(side, level));
+    }
+
+    public static void removeSide(Side side) {
+        String prefix = prefix(side);
+        LEVELS.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    // Once per unpaused client tick, the time FaunaTimings counted since the
+    // last one
+    public static void recordClientTick() {
+        long birdNanos = FaunaTimings.getTotalBirdNanos();
+        long spawnNanos = FaunaTimings.getTotalSpawnNanos();
+        record(CLIENT_BIRDS, birdNanos - lastBirdNanos);
+        record(CLIENT_SPAWNING, spawnNanos - lastSpawnNanos);
+        lastBirdNanos = birdNanos;
+        lastSpawnNanos = spawnNanos;
+    }
+
+    public static void recordServerTick(long birdNanos, long spawnNanos) {
+        record(SERVER_BIRDS, birdNanos);
+        record(SERVER_SPAWNING, spawnNanos);
+    }
+
+    private static void record(AtomicLongArray histogram, long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && micros >= BOUNDS_MICROS[bucket])
+            bucket++;
+        histogram.incrementAndGet(bucket);
+    }
+
+    // True once for every clearBirds() since the side last asked, from the
+    // thread ticking that side's birds
+    public static boolean takeClear(Side side) {
+        long requested = CLEARS.get();
+        if (CLEARED[side.ordinal()] == requested)
+            return false;
+        CLEARED[side.ordinal()] = requested;
+        return true;
+    }
+
+    private static String levelKey(Side side, Level level) {
+        return prefix(side) + level.dimension().identifier();
+    }
+
+    private static String prefix(Side side) {
+        return side.name().toLowerCase(Locale.ROOT) + "/";
+    }
+
+    // --- BIRDS ---
+
+    @Override
+    public int getBirds() {
+        int birds = 0;
+        for (LevelCounts counts : LEVELS.values())
+            birds += counts.birds();
+        return birds;
+    }
+
+    @Override
+    public Map<String, Integer> getBirdsByLevel() {
+        Map<String, Integer> result = new HashMap<>();
+        for (Map.Entry<String, LevelCounts> entry : LEVELS.entrySet())
+            result.put(entry.getKey(), entry.getValue().birds());
+        return result;
+    }
+
+    @Override
+    public Map<String, Integer> getBirdsBySpecies() {
+        Map<String, Integer> result = new HashMap<>();
+        for (LevelCounts counts : LEVELS.values()) {
+            for (Map.Entry<String, int[]> entry : counts.species().entrySet())
+                result.merge(entry.getKey(), sum(entry.getValue()), Integer::sum);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Integer> getBirdsByState() {
+        int[] states = new int[STATES.length];
+        for (LevelCounts counts : LEVELS.values()) {
+            for (int[] species : counts.species().values()) {
+                for (int i = 0; i < states.length; i++)
+                    states[i] += species[i];
+            }
+        }
+        Map<String, Integer> result = new HashMap<>();
+        for (BirdState state : STATES)
+            result.put(name(state), states[state.ordinal()]);
+        return result;
+    }
+
+    @Override
+    public Map<String, Integer> getBirdCounts() {
+        Map<String, Integer> result = new HashMap<>();
+        for (Map.Entry<String, LevelCounts> level : LEVELS.entrySet()) {
+            for (Map.Entry<String, int[]> species : level.getValue().species().entrySet()) {
+                for (BirdState state : STATES) {
+                    int count = species.getValue()[state.ordinal()];
+                    if (count > 0)
+                        result.put(level.getKey() + "/" + species.getKey() + "/" + name(state), count);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getSnapshotAgeMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (LevelCounts counts : LEVELS.values())
+            oldest = Math.min(oldest, counts.publishedMillis());
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts)
+            sum += count;
+        return sum;
+    }
+
+    // --- SPAWNING ---
+
+    @Override
+    public Map<String, Long> getSpawnCycles() {
+        Map<String, Long> result = new HashMap<>();
+        for (SpawnRejection rejection : SpawnRejection.values())
+            result.put(name(rejection), SpawnMetrics.getCycles(rejection));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getChunkSpawns() {
+        Map<String, Long> result = new HashMap<>();
+        for (SpawnRejection rejection : SpawnRejection.values())
+            result.put(name(rejection), SpawnMetrics.getChunks(rejection));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getSpawnAttempts() {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, SpawnMetrics.SpeciesStats> entry : SpawnMetrics.bySpecies().entrySet()) {
+            for (SpawnMetrics.Stage stage : SpawnMetrics.Stage.values()) {
+                for (LocationRejection rejection : LocationRejection.values()) {
+                    result.put(entry.getKey() + "/" + name(stage) + "/"
+                            + (rejection == LocationRejection.NONE ? "ok" : name(rejection)),
+                            entry.getValue().get(stage, rejection));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getBirdsSpawned() {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, SpawnMetrics.SpeciesStats> entry : SpawnMetrics.bySpecies().entrySet())
+            result.put(entry.getKey(), entry.getValue().getSpawned());
+        return result;
+    }
+
+    @Override
+    public boolean isSpawningPaused() {
+        return AmbientSpawning.isPaused();
+    }
+
+    // --- TICK TIME ---
+
+    @Override
+    public Map<String, long[]> getTickHistograms() {
+        Map<String, long[]> result = new HashMap<>();
+        for (Map.Entry<String, AtomicLongArray> entry : HISTOGRAMS.entrySet()) {
+            AtomicLongArray histogram = entry.getValue();
+            long[] buckets = new long[histogram.length()];
+            for (int i = 0; i < buckets.length; i++)
+                buckets[i] = histogram.get(i);
+            result.put(entry.getKey(), buckets);
+        }
+        return result;
+    }
+
+    @Override
+    public long[] getHistogramBoundsMicros() {
+        return BOUNDS_MICROS.clone();
+    }
+
+    // --- CAPS ---
+
+    @Override
+    public double getGovernorScale() {
+        return PopulationGovernor.getScale();
+    }
+
+    @Override
+    public int getGlobalCap() {
+        return PopulationGovernor.cap(FaunaConfig.get().maxActiveBirds());
+    }
+
+    @Override
+    public Map<String, Integer> getSpeciesCaps() {
+        Map<String, Integer> result = new HashMap<>();
+        for (Species species : SpeciesRegistry.snapshot().spawnable())
+            result.put(species.getName(), PopulationGovernor.cap(SpeciesRegistry.maxActive(species)));
+        return result;
+    }
+
+    // --- OPERATIONS ---
+
+    @Override
+    public void clearBirds() {
+        CLEARS.incrementAndGet();
+        AtmosphericFauna.LOGGER.info("Clearing all birds, requested over JMX");
+    }
+
+    @Override
+    public void pauseSpawning() {
+        AmbientSpawning.setPaused(true);
+        AtmosphericFauna.LOGGER.info("Spawning paused over JMX");
+    }
+
+    @Override
+    public void resumeSpawning() {
+        AmbientSpawning.setPaused(false);
+        AtmosphericFauna.LOGGER.info("Spawning resumed over JMX");
+    }
+
+    private static String name(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
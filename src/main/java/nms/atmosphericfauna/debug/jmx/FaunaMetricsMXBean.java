@@ -0,0 +1,66 @@
+package nms.atmosphericfauna.debug.jmx;
+
+import java.util.Map;
+
+// Live fauna metrics for JConsole, VisualVM and the like, registered as
+// nms.atmosphericfauna:type=FaunaMetrics. Levels are keyed as side/dimension,
+// e.g. client/minecraft:overworld or server/minecraft:the_nether.
+public interface FaunaMetricsMXBean {
+
+    // --- BIRDS ---
+
+    int getBirds();
+
+    Map<String, Integer> getBirdsByLevel();
+
+    Map<String, Integer> getBirdsBySpecies();
+
+    Map<String, Integer> getBirdsByState();
+
+    // Keyed level/species/state
+    Map<String, Integer> getBirdCounts();
+
+    // How long ago the oldest level published its counts
+    long getSnapshotAgeMillis();
+
+    // --- SPAWNING ---
+
+    // Spawn cycle and chunk outcomes by rejection, none counts the cycles
+    // that placed birds
+    Map<String, Long> getSpawnCycles();
+
+    Map<String, Long> getChunkSpawns();
+
+    // Spots tried per species/stage/rejection, ok counts the accepted ones
+    Map<String, Long> getSpawnAttempts();
+
+    Map<String, Long> getBirdsSpawned();
+
+    boolean isSpawningPaused();
+
+    // --- TICK TIME ---
+
+    // Ticks per bucket for every phase, bucket i counts ticks under
+    // getHistogramBoundsMicros()[i], the last one everything slower
+    Map<String, long[]> getTickHistograms();
+
+    long[] getHistogramBoundsMicros();
+
+    // --- CAPS ---
+
+    double getGovernorScale();
+
+    int getGlobalCap();
+
+    Map<String, Integer> getSpeciesCaps();
+
+    // --- OPERATIONS ---
+
+    // Removes every bird the next tick of each side, birds mirrored from a
+    // server go with the server's
+    void clearBirds();
+
+    void pauseSpawning();
+
+    void resumeSpawning();
+}
@@ -0,0 +1,28 @@
+package nms.atmosphericfauna.mixin;
+
+import nms.atmosphericfauna.world.LevelFaunaWorld;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Tells the client's birds about loud sounds. Explosions from the server and
+// lightning thunder are both played through playLocalSound, at volumes far
+// above anything ambient.
+@Mixin(ClientLevel.class)
+public abstract class ClientLevelMixin {
+
+    private static final float LOUD_VOLUME = 4.0f;
+
+    @Inject(method = "playLocalSound(DDDLnet/minecraft/sounds/SoundEvent;Lnet/minecraft/sounds/SoundSource;FFZ)V",
+            at = @At("HEAD"))
+    private void atmosphericfauna$loudSound(double x, double y, double z, SoundEvent sound, SoundSource source,
+            float volume, float pitch, boolean distanceDelay, CallbackInfo ci) {
+        if (volume >= LOUD_VOLUME)
+            LevelFaunaWorld.loudSound((ClientLevel) (Object) this, x, y, z, volume);
+    }
+}
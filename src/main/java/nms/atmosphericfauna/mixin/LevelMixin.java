@@ -0,0 +1,25 @@
+package nms.atmosphericfauna.mixin;
+
+import nms.atmosphericfauna.world.LevelFaunaWorld;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+// Tells obstacle fields about block changes. Every block change on both
+// sides, including ones the server sends the client, ends up in setBlock.
+@Mixin(Level.class)
+public abstract class LevelMixin {
+
+    @Inject(method = "setBlock(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;II)Z",
+            at = @At("RETURN"))
+    private void atmosphericfauna$blockChanged(BlockPos pos, BlockState state, int flags, int maxUpdateDepth,
+            CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValueZ())
+            LevelFaunaWorld.blockChanged((Level) (Object) this, pos);
+    }
+}
@@ -1,10 +1,8 @@
 package nms.atmosphericfauna.modmenu;
 
-import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.config.ConfigData;
 import nms.atmosphericfauna.config.ConfigHandler;
-import nms.atmosphericfauna.particle.BaseBirdParticle;
-import nms.atmosphericfauna.particle.CrowParticle;
-import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.config.FaunaConfig;
 
 import me.shedaniel.clothconfig2.api.ConfigBuilder;
 import me.shedaniel.clothconfig2.api.ConfigCategory;
@@ -15,10 +13,14 @@ import net.minecraft.network.chat.Component;
 
 public class ModMenuConfig {
     public static Screen createConfigScreen(Screen parent) {
+        // Entries edit a copy, the whole copy is published at once on save
+        FaunaConfig config = FaunaConfig.get();
+        ConfigData edit = config.toData();
+
         ConfigBuilder builder = ConfigBuilder.create()
                 .setParentScreen(parent)
                 .setTitle(Component.translatable("title.atmosphericfauna.config"))
-                .setSavingRunnable(ConfigHandler::save);
+                .setSavingRunnable(() -> ConfigHandler.apply(edit));
         ConfigEntryBuilder entryBuilder = builder.entryBuilder();
 
         // Spawning Category
@@ -29,69 +31,79 @@ public class ModMenuConfig {
         spawning.addEntry(entryBuilder
                 .startBooleanToggle(Component
                         .translatable("option.atmosphericfauna.chunk_load_spawning"),
-                        AtmosphericFauna.enableChunkLoadSpawning)
+                        config.enableChunkLoadSpawning())
                 .setDefaultValue(true)
                 .setTooltip(Component.translatable(
                         "option.atmosphericfauna.chunk_load_spawning.tooltip"))
-                .setSaveConsumer(newValue -> AtmosphericFauna.enableChunkLoadSpawning = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.enableChunkLoadSpawning = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startBooleanToggle(Component
                         .translatable("option.atmosphericfauna.ambient_spawning"),
-                        AmbientSpawning.enableAmbientSpawning)
+                        config.enableAmbientSpawning())
                 .setDefaultValue(true)
                 .setTooltip(Component.translatable(
                         "option.atmosphericfauna.ambient_spawning.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.enableAmbientSpawning = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.enableAmbientSpawning = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startIntField(Component
                         .translatable("option.atmosphericfauna.spawn_range_from_player"),
-                        AmbientSpawning.spawnRangeFromPlayer)
+                        config.spawnRangeFromPlayer())
                 .setDefaultValue(96)
                 .setMin(32)
                 .setTooltip(Component.translatable(
                         "option.atmosphericfauna.spawn_range_from_player.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.spawnRangeFromPlayer = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.spawnRangeFromPlayer = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startIntField(Component.translatable("option.atmosphericfauna.spawn_tick_delay"),
-                        AmbientSpawning.spawnTickDelay)
+                        config.spawnTickDelay())
                 .setDefaultValue(200)
                 .setMin(1)
                 .setTooltip(Component.translatable("option.atmosphericfauna.spawn_tick_delay.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.spawnTickDelay = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.spawnTickDelay = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startIntField(Component.translatable("option.atmosphericfauna.attempts_per_tick"),
-                        AmbientSpawning.attemptsPerTick)
+                        config.attemptsPerTick())
                 .setDefaultValue(15)
                 .setMin(0)
                 .setTooltip(Component.translatable("option.atmosphericfauna.attempts_per_tick.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.attemptsPerTick = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.attemptsPerTick = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startIntField(Component.translatable("option.atmosphericfauna.search_radius"),
-                        AmbientSpawning.searchRadius)
+                        config.searchRadius())
                 .setDefaultValue(12)
                 .setMin(1)
                 .setTooltip(Component.translatable("option.atmosphericfauna.search_radius.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.searchRadius = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.searchRadius = newValue)
                 .build());
 
         spawning.addEntry(entryBuilder
                 .startBooleanToggle(
                         Component.translatable("option.atmosphericfauna.spawn_below_sea_level"),
-                        AmbientSpawning.spawnBelowSeaLevel)
+                        config.spawnBelowSeaLevel())
                 .setDefaultValue(false)
                 .setTooltip(Component
                         .translatable("option.atmosphericfauna.spawn_below_sea_level.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.spawnBelowSeaLevel = newValue)
+                .setSaveConsumer(newValue -> edit.spawning.spawnBelowSeaLevel = newValue)
+                .build());
+
+        spawning.addEntry(entryBuilder
+                .startBooleanToggle(
+                        Component.translatable("option.atmosphericfauna.roost_cache"),
+                        config.enableRoostCache())
+                .setDefaultValue(true)
+                .setTooltip(Component
+                        .translatable("option.atmosphericfauna.roost_cache.tooltip"))
+                .setSaveConsumer(newValue -> edit.spawning.enableRoostCache = newValue)
                 .build());
 
         // Birds Category
@@ -101,11 +113,29 @@ public class ModMenuConfig {
 
         birds.addEntry(entryBuilder
                 .startIntField(Component.translatable("option.atmosphericfauna.max_active_birds"),
-                        BaseBirdParticle.maxActiveBirds)
+                        config.maxActiveBirds())
                 .setDefaultValue(100)
                 .setMin(0)
                 .setTooltip(Component.translatable("option.atmosphericfauna.max_active_birds.tooltip"))
-                .setSaveConsumer(newValue -> BaseBirdParticle.maxActiveBirds = newValue)
+                .setSaveConsumer(newValue -> edit.birds.maxActiveBirds = newValue)
+                .build());
+
+        birds.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("option.atmosphericfauna.bird_calls"),
+                        config.enableBirdCalls())
+                .setDefaultValue(true)
+                .setTooltip(Component.translatable("option.atmosphericfauna.bird_calls.tooltip"))
+                .setSaveConsumer(newValue -> edit.birds.enableBirdCalls = newValue)
+                .build());
+
+        birds.addEntry(entryBuilder
+                .startIntField(Component.translatable("option.atmosphericfauna.max_bird_calls"),
+                        config.maxBirdCalls())
+                .setDefaultValue(4)
+                .setMin(0)
+                .setMax(16)
+                .setTooltip(Component.translatable("option.atmosphericfauna.max_bird_calls.tooltip"))
+                .setSaveConsumer(newValue -> edit.birds.maxBirdCalls = newValue)
                 .build());
 
         SubCategoryBuilder crows = entryBuilder
@@ -113,15 +143,80 @@ public class ModMenuConfig {
 
         crows.add(entryBuilder
                 .startIntField(Component.translatable("option.atmosphericfauna.max_active_crows"),
-                        CrowParticle.maxActiveCrows)
+                        config.maxActiveCrows())
                 .setDefaultValue(50)
                 .setMin(0)
                 .setTooltip(Component.translatable("option.atmosphericfauna.max_active_crows.tooltip"))
-                .setSaveConsumer(newValue -> CrowParticle.maxActiveCrows = newValue)
+                .setSaveConsumer(newValue -> edit.birds.maxActiveCrows = newValue)
                 .build());
 
         birds.addEntry(crows.build());
 
+        // Governor Category
+
+        ConfigCategory governor = builder
+                .getOrCreateCategory(Component.translatable("category.atmosphericfauna.governor"));
+
+        governor.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("option.atmosphericfauna.enable_governor"),
+                        config.enableGovernor())
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("option.atmosphericfauna.enable_governor.tooltip"))
+                .setSaveConsumer(newValue -> edit.governor.enableGovernor = newValue)
+                .build());
+
+        governor.addEntry(entryBuilder
+                .startIntField(Component.translatable("option.atmosphericfauna.governor_budget"),
+                        config.governorBudgetPercent())
+                .setDefaultValue(5)
+                .setMin(1)
+                .setMax(50)
+                .setTooltip(Component.translatable("option.atmosphericfauna.governor_budget.tooltip"))
+                .setSaveConsumer(newValue -> edit.governor.budgetPercent = newValue)
+                .build());
+
+        governor.addEntry(entryBuilder
+                .startIntField(Component.translatable("option.atmosphericfauna.governor_target_fps"),
+                        config.governorTargetFps())
+                .setDefaultValue(60)
+                .setMin(10)
+                .setTooltip(Component.translatable("option.atmosphericfauna.governor_target_fps.tooltip"))
+                .setSaveConsumer(newValue -> edit.governor.targetFps = newValue)
+                .build());
+
+        governor.addEntry(entryBuilder
+                .startIntField(Component.translatable("option.atmosphericfauna.governor_min"),
+                        config.governorMinPercent())
+                .setDefaultValue(25)
+                .setMin(0)
+                .setMax(100)
+                .setTooltip(Component.translatable("option.atmosphericfauna.governor_min.tooltip"))
+                .setSaveConsumer(newValue -> edit.governor.minPercent = newValue)
+                .build());
+
+        // Server Category
+
+        ConfigCategory server = builder
+                .getOrCreateCategory(Component.translatable("category.atmosphericfauna.server"));
+
+        server.addEntry(entryBuilder
+                .startBooleanToggle(Component.translatable("option.atmosphericfauna.server_simulation"),
+                        config.enableServerSimulation())
+                .setDefaultValue(false)
+                .setTooltip(Component.translatable("option.atmosphericfauna.server_simulation.tooltip"))
+                .setSaveConsumer(newValue -> edit.server.enableServerSimulation = newValue)
+                .build());
+
+        server.addEntry(entryBuilder
+                .startIntField(Component.translatable("option.atmosphericfauna.sync_range"),
+                        config.syncRange())
+                .setDefaultValue(128)
+                .setMin(32)
+                .setMax(512)
+                .setTooltip(Component.translatable("option.atmosphericfauna.sync_range.tooltip"))
+                .setSaveConsumer(newValue -> edit.server.syncRange = newValue)
+                .build());
+
         // Debug Category
 
         ConfigCategory debug = builder
@@ -130,21 +225,31 @@ public class ModMenuConfig {
         debug.addEntry(entryBuilder
                 .startBooleanToggle(
                         Component.translatable("option.atmosphericfauna.debug_text_spawning"),
-                        AmbientSpawning.debugText)
+                        config.debugSpawning())
                 .setDefaultValue(false)
                 .setTooltip(Component
                         .translatable("option.atmosphericfauna.debug_text_spawning.tooltip"))
-                .setSaveConsumer(newValue -> AmbientSpawning.debugText = newValue)
+                .setSaveConsumer(newValue -> edit.debug.debugText = newValue)
                 .build());
 
         debug.addEntry(entryBuilder
                 .startBooleanToggle(
                         Component.translatable("option.atmosphericfauna.debug_text_birds"),
-                        BaseBirdParticle.debugText)
+                        config.debugBirds())
                 .setDefaultValue(false)
                 .setTooltip(Component
                         .translatable("option.atmosphericfauna.debug_text_birds.tooltip"))
-                .setSaveConsumer(newValue -> BaseBirdParticle.debugText = newValue)
+                .setSaveConsumer(newValue -> edit.debug.debugBirds = newValue)
+                .build());
+
+        debug.addEntry(entryBuilder
+                .startBooleanToggle(
+                        Component.translatable("option.atmosphericfauna.record_flights"),
+                        config.recordFlights())
+                .setDefaultValue(false)
+                .setTooltip(Component
+                        .translatable("option.atmosphericfauna.record_flights.tooltip"))
+                .setSaveConsumer(newValue -> edit.debug.recordFlights = newValue)
                 .build());
 
         return builder.build();
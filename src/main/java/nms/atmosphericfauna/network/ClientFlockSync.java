@@ -0,0 +1,157 @@
+package nms.atmosphericfauna.network;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.particle.BirdParticle;
+import nms.atmosphericfauna.recording.FlightRecording;
+import nms.atmosphericfauna.recording.FrameDecoder;
+import nms.atmosphericfauna.recording.FrameEncoder;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+
+// Client side of server simulation. While the server sends flock frames the
+// client spawns and simulates nothing itself, every bird is a mirror of one
+// on the server, created, moved and removed as the frames say. Runs on the
+// client thread.
+public final class ClientFlockSync {
+
+    // Without a frame for this long the server has stopped simulating
+    private static final int TIMEOUT_TICKS = 40;
+
+    private static final FrameDecoder DECODER = new FrameDecoder(FrameEncoder.SCALE);
+    private static final FlightRecording.Frame FRAME = new FlightRecording.Frame();
+
+    // Server bird id to local mirror
+    private static final Map<Integer, Mirror> MIRRORS = new HashMap<>();
+
+    private static ClientFaunaWorld world = null;
+    private static long lastReceived = 0;
+    private static long frames = 0;
+    private static boolean failed = false;
+
+    private static final class Mirror {
+        final Bird bird;
+        long frame;
+
+        Mirror(Bird bird) {
+            this.bird = bird;
+        }
+    }
+
+    private ClientFlockSync() {
+    }
+
+    public static void register() {
+        ClientPlayNetworking.registerGlobalReceiver(FlockSyncPayload.TYPE,
+                (payload, context) -> receive(context.client(), payload));
+    }
+
+    // Whether birds in this level come from the server
+    public static boolean isActive(ClientLevel level) {
+        return world != null && world.getLevel() == level;
+    }
+
+    public static int getMirrorCount() {
+        return MIRRORS.size();
+    }
+
+    public static void reset() {
+        MIRRORS.clear();
+        DECODER.reset();
+        world = null;
+        failed = false;
+    }
+
+    // --- RECEIVING ---
+
+    private static void receive(Minecraft client, FlockSyncPayload payload) {
+        ClientLevel level = client.level;
+        if (level == null)
+            return;
+
+        if (payload.keyframe()) {
+            removeMirrors();
+            DECODER.reset();
+            failed = false;
+        }
+        // A broken stream stays broken until the server starts a new one
+        if (failed)
+            return;
+
+        ClientFaunaWorld view = ClientFaunaWorld.of(level);
+        if (view != world)
+            attach(view);
+
+        try {
+            DECODER.decode(ByteBuffer.wrap(payload.frame()), FRAME);
+        } catch (IOException | BufferUnderflowException e) {
+            AtmosphericFauna.LOGGER.warn("Dropping server flock sync: {}", e.toString());
+            failed = true;
+            removeMirrors();
+            return;
+        }
+        lastReceived = level.getGameTime();
+
+        long frame = ++frames;
+        for (int i = 0, n = FRAME.size(); i < n; i++) {
+            Mirror mirror = MIRRORS.get(FRAME.id(i));
+            if (mirror == null || mirror.bird.isRemoved()) {
+                // Species only the server has are left out
+                Species species = SpeciesRegistry.find(FRAME.species(i));
+                if (species == null)
+                    continue;
+                mirror = new Mirror(BirdParticle.spawnMirror(level, species, FRAME.x(i), FRAME.y(i), FRAME.z(i)));
+                MIRRORS.put(FRAME.id(i), mirror);
+            }
+            mirror.bird.follow(FRAME.state(i), FRAME.x(i), FRAME.y(i), FRAME.z(i), FRAME.xd(i), FRAME.yd(i),
+                    FRAME.zd(i));
+            mirror.frame = frame;
+        }
+
+        // Gone on the server or out of range
+        MIRRORS.values().removeIf(mirror -> {
+            if (mirror.frame == frame)
+                return false;
+            mirror.bird.remove();
+            return true;
+        });
+    }
+
+    // Takes over a level, birds simulated locally until now make way
+    private static void attach(ClientFaunaWorld view) {
+        MIRRORS.clear();
+        world = view;
+        for (Bird bird : new ArrayList<>(view.getPopulation().getBirds()))
+            bird.remove();
+    }
+
+    private static void removeMirrors() {
+        for (Mirror mirror : MIRRORS.values())
+            mirror.bird.remove();
+        MIRRORS.clear();
+    }
+
+    // --- TICK ---
+
+    // Hands the level back to local simulation once the server goes quiet.
+    // The decoder keeps its state, a late frame still decodes.
+    public static void tick(ClientLevel level) {
+        if (world == null)
+            return;
+        if (world.getLevel() != level || level.getGameTime() - lastReceived > TIMEOUT_TICKS) {
+            removeMirrors();
+            world = null;
+        }
+    }
+}
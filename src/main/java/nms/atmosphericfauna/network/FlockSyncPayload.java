@@ -0,0 +1,27 @@
+package nms.atmosphericfauna.network;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+
+// One FrameEncoder frame of the birds around a player. A keyframe starts a new
+// stream: the client forgets every bird it mirrors and decodes from scratch.
+public record FlockSyncPayload(boolean keyframe, byte[] frame) implements CustomPacketPayload {
+
+    public static final CustomPacketPayload.Type<FlockSyncPayload> TYPE = new CustomPacketPayload.Type<>(
+            Identifier.fromNamespaceAndPath(AtmosphericFauna.MOD_ID, "flock_sync"));
+
+    public static final StreamCodec<ByteBuf, FlockSyncPayload> CODEC = StreamCodec.composite(
+            ByteBufCodecs.BOOL, FlockSyncPayload::keyframe,
+            ByteBufCodecs.BYTE_ARRAY, FlockSyncPayload::frame,
+            FlockSyncPayload::new);
+
+    @Override
+    public Type<FlockSyncPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,167 @@
+package nms.atmosphericfauna.network;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.debug.jmx.FaunaMetrics;
+import nms.atmosphericfauna.recording.FrameEncoder;
+import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.world.ServerFaunaWorld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+// Server simulation: every level with players in it runs one population, and
+// each player with the mod is sent the birds around them once per tick, as
+// delta encoded frames. All players see the same flocks and clients only
+// move their copies along. Runs on the server thread.
+public final class ServerFlockSync {
+
+    // Empty frames are only sent this often, they keep the client's mirror alive
+    private static final int HEARTBEAT_TICKS = 10;
+
+    private static final Map<UUID, Viewer> VIEWERS = new HashMap<>();
+
+    private static long framesSent = 0;
+    private static long bytesSent = 0;
+
+    // Sync state of one player, starts over when the player changes level
+    private static final class Viewer {
+        final ServerLevel level;
+        final FrameEncoder encoder = new FrameEncoder();
+        final List<Bird> visible = new ArrayList<>();
+        long lastSent = Long.MIN_VALUE;
+        boolean lastEmpty = false;
+
+        Viewer(ServerLevel level) {
+            this.level = level;
+        }
+    }
+
+    private ServerFlockSync() {
+    }
+
+    public static void register() {
+        ServerTickEvents.END_WORLD_TICK.register(ServerFlockSync::tick);
+        ServerChunkEvents.CHUNK_LOAD.register((level, chunk, generated) -> {
+            ServerFaunaWorld view = ServerFaunaWorld.find(level);
+            if (view != null)
+                view.getObstacles().invalidateChunk(chunk.getPos().toLong());
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            ServerFaunaWorld view = ServerFaunaWorld.find(level);
+            if (view != null) {
+                view.getPopulation().removeChunk(chunk.getPos().toLong());
+                view.getObstacles().invalidateChunk(chunk.getPos().toLong());
+            }
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            VIEWERS.remove(handler.player.getUUID());
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> reset());
+        // Birds cleared over JMX, every level starts over with keyframes
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if (FaunaMetrics.takeClear(FaunaMetrics.Side.SERVER))
+                reset();
+        });
+    }
+
+    public static void reset() {
+        ServerFaunaWorld.reset();
+        VIEWERS.clear();
+        FaunaMetrics.removeSide(FaunaMetrics.Side.SERVER);
+    }
+
+    // --- TICK ---
+
+    private static void tick(ServerLevel level) {
+        FaunaConfig config = FaunaConfig.get();
+        if (!config.enableServerSimulation()) {
+            // Clients time out and go back to their own birds
+            if (!ServerFaunaWorld.isEmpty() || !VIEWERS.isEmpty())
+                reset();
+            return;
+        }
+
+        // Nobody to watch, birds of an empty level are dropped
+        if (level.players().isEmpty()) {
+            if (ServerFaunaWorld.find(level) != null) {
+                ServerFaunaWorld.remove(level);
+                FaunaMetrics.remove(FaunaMetrics.Side.SERVER, level);
+            }
+            return;
+        }
+
+        ServerFaunaWorld world = ServerFaunaWorld.of(level);
+        BirdPopulation population = world.getPopulation();
+        long start = System.nanoTime();
+        population.tick(world);
+        long ticked = System.nanoTime();
+        if (config.enableAmbientSpawning() && !AmbientSpawning.isPaused()
+                && level.getGameTime() % config.spawnTickDelay() == 0)
+            AmbientSpawning.runSpawnAttempt(world, population, level.getRandom(),
+                    AmbientSpawning.directSpawner(world, population));
+        FaunaMetrics.recordServerTick(ticked - start, System.nanoTime() - ticked);
+        FaunaMetrics.publish(FaunaMetrics.Side.SERVER, level, population);
+
+        for (ServerPlayer player : level.players()) {
+            if (ServerPlayNetworking.canSend(player, FlockSyncPayload.TYPE))
+                send(player, level, population.getBirds(), config.syncRange());
+        }
+    }
+
+    private static void send(ServerPlayer player, ServerLevel level, List<Bird> birds, int range) {
+        boolean keyframe = false;
+        Viewer viewer = VIEWERS.get(player.getUUID());
+        if (viewer == null || viewer.level != level) {
+            viewer = new Viewer(level);
+            VIEWERS.put(player.getUUID(), viewer);
+            keyframe = true;
+        }
+
+        // Horizontal range only, birds fly well above and below the player
+        double rangeSq = (double) range * range;
+        List<Bird> visible = viewer.visible;
+        visible.clear();
+        for (int i = 0, n = birds.size(); i < n; i++) {
+            Bird bird = birds.get(i);
+            double dx = bird.getX() - player.getX();
+            double dz = bird.getZ() - player.getZ();
+            if (dx * dx + dz * dz <= rangeSq)
+                visible.add(bird);
+        }
+
+        long time = level.getGameTime();
+        if (visible.isEmpty() && viewer.lastEmpty && time - viewer.lastSent < HEARTBEAT_TICKS)
+            return;
+
+        int length = viewer.encoder.encode(time, visible);
+        ServerPlayNetworking.send(player,
+                new FlockSyncPayload(keyframe, Arrays.copyOf(viewer.encoder.getBuffer(), length)));
+        viewer.lastSent = time;
+        viewer.lastEmpty = visible.isEmpty();
+        framesSent++;
+        bytesSent += length;
+    }
+
+    // --- STATS ---
+
+    public static long getFramesSent() {
+        return framesSent;
+    }
+
+    public static long getBytesSent() {
+        return bytesSent;
+    }
+}
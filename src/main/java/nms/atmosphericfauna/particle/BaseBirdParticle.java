@@ -1,107 +1,86 @@
 package nms.atmosphericfauna.particle;
 
-import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdState;
+import nms.atmosphericfauna.performance.FaunaTimings;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.state.QuadParticleRenderState;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.entity.Entity;
 
+// Renders a Bird. Behaviour lives in the bird itself, the particle only keeps
+// its position in sync on ticks. Facing and wing frames are worked out each
+// frame from the camera, the bird's velocity and its age, so they follow any
+// camera and cost the tick nothing. Light is sampled when the bird enters
+// another block or the level's light may have changed, not every frame.
 public abstract class BaseBirdParticle extends BaseParticle {
 
-    private final StringBuilder sb = new StringBuilder();
+    // Particles only render on the client thread, one builder serves all of them
+    private static final StringBuilder SPRITE_NAME = new StringBuilder();
 
-    private enum State {
-        FLYING,
-        LANDING,
-        PERCHED,
-        TAKING_OFF,
-        DYING
-    }
+    protected static final int WING_FLAP_SPEED = 4;
 
-    protected State state = State.FLYING;
-
-    protected double goalX = Double.NaN;
-    protected double goalY = Double.NaN;
-    protected double goalZ = Double.NaN;
-    protected int goalTimer = 0;
-
-    protected int perchTimer = 0;
-    protected int perchedTimer = 0;
-    protected int landingCooldown = random.nextInt(600);
-    protected Double landingTargetY = Double.NaN;
-    protected BlockPos landingBlockPos = null;
-    protected double landingOffsetX = 0.0;
-    protected double landingOffsetZ = 0.0;
-    protected BlockPos perchBlockPos = null; // stores actual perch while perched
-    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
-    protected Double takeoffGoalY = Double.NaN;
-    protected int takeoffTime = 0;
-
-    protected int wingFlapSpeed = 4;
-    protected int wingFlapOffset = random.nextInt(wingFlapSpeed);
-
-    protected String baseSpriteName = null;
-    protected String spriteName = null;
-    protected static final Map<String, Boolean> MIRROR_SPRITE_CACHE = new ConcurrentHashMap<>();
-    protected boolean facingRight = false;
+    // Sideways speed below which a bird keeps its facing
+    private static final double MOTION_THRESHOLD = 0.01;
+
+    // Perched birds may change pose every 32 ticks
+    private static final int PERCH_WINDOW_SHIFT = 5;
+
+    // Every sprite of a species, see spriteIndex. Client thread only.
+    private static final Map<String, TextureAtlasSprite[]> SPRITES = new HashMap<>();
+    private static SpeciesRegistry.Snapshot spriteSnapshot = null;
+    private static int spriteGeneration = 0;
+
+    protected final Bird bird;
 
-    public static final Set<BaseBirdParticle> ALL_BIRDS = Collections
-            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    protected final byte wingFlapOffset = (byte) random.nextInt(WING_FLAP_SPEED);
+    protected boolean facingRight = false;
 
-    private final List<BaseBirdParticle> reusableNeighborList = new ArrayList<>();
-    protected static Minecraft mc = Minecraft.getInstance();
+    private TextureAtlasSprite[] sprites = null;
+    private int spritesResolved = -1;
 
-    // --- CONFIG STUFF ---
+    // Light is sampled again after this many ticks anyway. The light engine
+    // catches up with a block change a little later, and light sent by the
+    // server for chunks already loaded doesn't bump the epoch.
+    private static final int LIGHT_MAX_AGE = 20;
 
-    public static int maxActiveBirds = 100;
-    public static boolean debugText = false;
+    // Beyond this many blocks from the camera birds share light per cell
+    private static final double SHARED_LIGHT_DISTANCE = 48.0;
 
-    // --- VARIABLES ---
+    // The world SharedLight holds values of
+    private static ClientFaunaWorld sharedLightWorld = null;
 
-    protected float flySpeed;
-    protected double steerStrength;
-    protected double minFlightHeight; // how many blocks above ground
-    protected double maxFlightHeight; // how many blocks from void
-    protected double maxVerticalSpeed;
-    protected double verticalSteerFactor;
-    protected double takeoffClimb;
-    protected double flockRadius;
-    protected double cohesionStrength;
-    protected double alignmentStrength;
-    protected double separationDistance;
-    protected double separationStrength;
-    protected double flockGoalBias;
+    // Camera entity position, taken once per client tick for isFar()
+    private static boolean hasCamera = false;
+    private static double cameraX, cameraY, cameraZ;
 
-    protected double scareRadius; // horizontal distance that startles perched birds
-    protected double scareTakeoffSpeed; // horizontal speed applied when scared
+    // The view of the bird's level, found at spawn and reuse so light lookups
+    // don't search for it every frame. Null if the level had none.
+    private ClientFaunaWorld view;
 
-    protected double perchingChance;
-    protected int perchingTime; // base time spent perched
-    protected int perchingDistance; // how many blocks down to scan for landing spots
+    private long lightPos = Long.MIN_VALUE;
+    private int lightEpoch;
+    private long lightTime;
+    private int light;
 
-    protected double goalRadius;
-    protected int goalDurationMin;
-    protected int goalDurationMax;
-    protected double lookAheadMultiplier;
+    // Pool clock when this particle was released, see BirdParticlePool
+    long releasedAt;
 
     // --- CONSTRUCTORS ---
 
-    protected BaseBirdParticle(ClientLevel level, double x, double y, double z, TextureAtlasSprite sprite) {
-        super(level, x, y, z, sprite);
-        if (this.removed)
-            return;
-        ALL_BIRDS.add(this);
+    protected BaseBirdParticle(ClientLevel level, Bird bird, TextureAtlasSprite sprite) {
+        super(level, bird.getX(), bird.getY(), bird.getZ(), sprite);
+        this.bird = bird;
+        this.quadSize = bird.getSize();
+        this.view = ClientFaunaWorld.find(level);
     }
 
     // --- TICK ---
@@ -112,740 +91,209 @@ public abstract class BaseBirdParticle extends BaseParticle {
         this.yo = this.y;
         this.zo = this.z;
 
-        if (mc.player != null) {
-            double distSq = mc.player.distanceToSqr(this.x, this.y, this.z);
-            int renderDist = mc.options.renderDistance().get();
-            double maxDist = (renderDist + 1) * 16.0;
-            if (distSq > maxDist * maxDist) {
-                this.remove();
-                return;
-            }
-        }
-
-        if (landingCooldown > 0)
-            landingCooldown--;
-
-        if (this.age++ >= this.lifetime && state != State.DYING) {
-            setState(this, State.DYING);
-        }
-
-        switch (state) {
-            case FLYING -> tickFlying();
-            case LANDING -> tickLanding();
-            case PERCHED -> tickPerched();
-            case TAKING_OFF -> tickTakingOff();
-            case DYING -> tickDying();
-        }
-
-        // Update sprite animation
-        if (state != State.DYING && state != State.PERCHED && this.baseSpriteName != null) {
-            int flapAdjustment = (int) (this.yd * 10);
-            int effectiveFlapSpeed = Math.max(1, this.wingFlapSpeed - flapAdjustment);
-            if ((this.age - this.wingFlapOffset) % effectiveFlapSpeed == 0) {
-                int frame = 1;
-                if (this.spriteName != null && !this.spriteName.isEmpty()) {
-                    char lastChar = this.spriteName.charAt(this.spriteName.length() - 1);
-                    if (Character.isDigit(lastChar)) {
-                        frame = Character.getNumericValue(lastChar);
-                    }
-                }
-                if (frame == 1)
-                    frame = 2;
-                else
-                    frame = 1;
-                setSpriteName(frame);
-            }
-            if (this.age % 3 == 0)
-                updateSpriteFacing();
+        // Dropped with its population (world join) or its chunk (unload)
+        if (bird.isRemoved()) {
+            this.remove();
+            return;
         }
 
-        // debug stuff
-        if (debugText) {
-            if (this.age % 10 == 0) {
-                AtmosphericFauna.LOGGER.info(this.baseSpriteName + " #" + this.hashCode() + " | State: " + this.state +
-                        " | Height: "
-                        + String.format("%.2f", this.y));
-                AtmosphericFauna.LOGGER.info(this.baseSpriteName + " #" + this.hashCode() + " | xd: " +
-                        String.format("%.3f", this.xd) + " | yd: "
-                        + String.format("%.3f", this.yd) + " | zd: " + String.format("%.3f",
-                                this.zd));
-            }
-        }
+        long start = System.nanoTime();
+        bird.tick();
+        FaunaTimings.addBirdTick(System.nanoTime() - start);
+        this.setPos(bird.getX(), bird.getY(), bird.getZ());
 
-        this.move(this.xd, this.yd, this.zd);
+        if (bird.isRemoved())
+            this.remove();
     }
 
-    // --- HELPER METHODS ---
-
-    public static void reset() {
-        ALL_BIRDS.clear();
-        MIRROR_SPRITE_CACHE.clear();
-    }
+    // --- RENDERING ---
 
     @Override
-    public void remove() {
-        ALL_BIRDS.remove(this);
-        super.remove();
-    }
-
-    public static Set<BaseBirdParticle> getAllBirds() {
-        return ALL_BIRDS;
-    }
-
-    private static void setState(BaseBirdParticle bird, State newState) {
-        bird.state = newState;
-        bird.setSpriteName(1);
-    }
-
-    // Returns other bird particles within radius (in the same level)
-    private List<BaseBirdParticle> getNeighbors(double radius) {
-        double rsq = radius * radius;
-        reusableNeighborList.clear();
-
-        synchronized (ALL_BIRDS) {
-            for (BaseBirdParticle other : ALL_BIRDS) {
-                if (other == this || other.level != this.level)
-                    continue;
-
-                if (Math.abs(other.x - this.x) > radius ||
-                        Math.abs(other.y - this.y) > radius ||
-                        Math.abs(other.z - this.z) > radius)
-                    continue;
-
-                double dx = other.x - this.x;
-                double dy = other.y - this.y;
-                double dz = other.z - this.z;
-
-                if (dx * dx + dy * dy + dz * dz <= rsq) {
-                    reusableNeighborList.add(other);
-                }
-            }
+    public void extract(QuadParticleRenderState state, Camera camera, float partialTick) {
+        if (SpeciesRegistry.snapshot() != spriteSnapshot) {
+            // Resource reloads rebuild the atlas, resolve every table again
+            spriteSnapshot = SpeciesRegistry.snapshot();
+            SPRITES.clear();
+            spriteGeneration++;
+        }
+        if (sprites == null || spritesResolved != spriteGeneration) {
+            sprites = SPRITES.computeIfAbsent(bird.getSpecies().getProfile().sprite(), BaseBirdParticle::resolve);
+            spritesResolved = spriteGeneration;
+        }
+
+        BirdState birdState = bird.getState();
+        int frame;
+        if (birdState == BirdState.PERCHED) {
+            frame = perchedFrame();
+        } else if (birdState == BirdState.DYING) {
+            frame = 1;
+        } else {
+            updateFacing(camera);
+            // Climbing birds flap faster
+            int flapSpeed = Math.max(1, WING_FLAP_SPEED - (int) (bird.getYd() * 10));
+            frame = Math.floorMod(Math.floorDiv(bird.getAge() - wingFlapOffset, flapSpeed), 2) + 1;
         }
-        return reusableNeighborList;
+        this.setSprite(sprites[spriteIndex(birdState == BirdState.PERCHED, facingRight, frame)]);
+        super.extract(state, camera, partialTick);
     }
 
-    // Ask nearby flockmates to go land on the given perch (same BlockPos)
-    private void groupPerch(BlockPos target) {
-        if (target == null)
+    // Faces the way the bird moves across the view, keeps the last facing
+    // while it hardly moves sideways
+    private void updateFacing(Camera camera) {
+        double xd = bird.getXd();
+        double zd = bird.getZd();
+        if (xd * xd + zd * zd <= MOTION_THRESHOLD * MOTION_THRESHOLD)
             return;
-        for (BaseBirdParticle nb : getNeighbors(flockRadius)) {
-            if (nb == this)
-                continue;
-            if (nb.state == State.FLYING) {
-                BlockPos actualTarget = target;
-
-                // Try to find a slightly different spot nearby
-                if (random.nextFloat() < 0.9) {
-                    int dx = random.nextInt(7) - 3;
-                    int dz = random.nextInt(7) - 3;
-
-                    // Scan vertical range to find ground at this offset
-                    for (int dy = 3; dy >= -3; dy--) {
-                        BlockPos p = target.offset(dx, dy, dz);
-                        BlockState state = level.getBlockState(p);
-                        if (!state.isAir() &&
-                                level.getBlockState(p.above()).isAir() &&
-                                state.isFaceSturdy(level, p, Direction.UP)) {
-                            actualTarget = p;
-                            break;
-                        }
-                    }
-                }
-
-                setState(nb, State.LANDING);
-                nb.landingBlockPos = actualTarget;
-                nb.landingTargetY = actualTarget.getY() + 1.0 + nb.quadSize;
-                nb.landingOffsetX = (this.random.nextFloat() - 0.5f) * 0.8;
-                nb.landingOffsetZ = (this.random.nextFloat() - 0.5f) * 0.8;
-            }
-        }
-    }
 
-    // Ask nearby perched flockmates to take off with this bird
-    private void groupTakeoff() {
-        for (BaseBirdParticle nb : getNeighbors(flockRadius)) {
-            if (nb == this)
-                continue;
-            if (nb.state == State.PERCHED) {
-                setState(nb, State.TAKING_OFF);
-                nb.perchTimer = 5;
-                nb.landingCooldown = 100 + nb.perchedTimer;
-                nb.perchBlockPos = null;
-            }
-        }
+        double yawRad = Math.toRadians(camera.getYRot());
+        double rightX = -Math.cos(yawRad);
+        double rightZ = -Math.sin(yawRad);
+        this.facingRight = xd * rightX + zd * rightZ > 0;
     }
 
-    // Takeoff logic
-    private void performTakeoff(Player source) {
-        if (source != null) {
-            double dx = this.x - source.getX();
-            double dz = this.z - source.getZ();
-            double mag = Math.sqrt(dx * dx + dz * dz);
-            if (mag < 0.001) {
-                dx = (this.random.nextFloat() - 0.5f);
-                dz = (this.random.nextFloat() - 0.5f);
-                mag = Math.sqrt(dx * dx + dz * dz);
-            }
-            this.xd = (dx / mag) * scareTakeoffSpeed + (this.random.nextFloat() - 0.5f) * 0.05;
-            this.zd = (dz / mag) * scareTakeoffSpeed + (this.random.nextFloat() - 0.5f) * 0.05;
-        } else {
-            this.xd = (this.random.nextFloat() - 0.5f) * 0.08;
-            this.zd = (this.random.nextFloat() - 0.5f) * 0.08;
-        }
-
-        this.yd += 0.06 + this.random.nextFloat() * 0.06;
-        this.perchTimer = 8 + this.random.nextInt(8);
-        this.landingCooldown = 100 + this.perchedTimer;
-
-        double base = this.perchBlockPos != null ? this.perchBlockPos.getY() + 1.0 : this.y;
-        this.perchBlockPos = null;
-        this.takeoffGoalY = base + Math.max(0.8, takeoffClimb * (0.5 + this.random.nextDouble() * 0.8))
-                + this.random.nextDouble() * 1.2;
-        this.takeoffTime = 0;
-
-        setState(this, State.TAKING_OFF);
-        groupTakeoff();
+    // Perched birds shift between their two poses now and then, the same way
+    // for every frame of the same window
+    private int perchedFrame() {
+        int h = bird.getId() * 0x9E3779B9 + (bird.getAge() >> PERCH_WINDOW_SHIFT) * 0x85EBCA6B;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        return ((h >>> 16) & 1) + 1;
     }
 
-    // Pick a new wandering goal near the bird, biased slightly upward and slightly
-    // in current motion direction
-    private void chooseNewGoal() {
-        double forwardBiasX = this.xd;
-        double forwardBiasY = this.yd;
-        double forwardBiasZ = this.zd;
-
-        double randRadius = 2.5 + this.random.nextFloat() * (goalRadius - 2.5);
-        double angle = this.random.nextFloat() * Math.PI * 2;
-        double nx = Math.cos(angle) * randRadius + forwardBiasX * 5.0 * (this.random.nextFloat() - 0.5f);
-        double nz = Math.sin(angle) * randRadius + forwardBiasZ * 5.0 * (this.random.nextFloat() - 0.5f);
-
-        // Ensure we pick a goal above ground and bias upwards when low or just took off
-        double ground = sampleGroundHeight(this.x, this.z);
-        double ny;
-        if (this.y <= ground + minFlightHeight + 0.5 || landingCooldown > 0) {
-            ny = this.y + 2.5 + this.random.nextFloat() * 2.5;
-        } else if (this.y >= ground + maxFlightHeight - 1.0) {
-            ny = Math.max(ground + minFlightHeight, ground + maxFlightHeight - 2.0 - this.random.nextFloat() * 3.0);
-        } else {
-            ny = this.y + (this.random.nextFloat() - 0.5f) * 2.0 + forwardBiasY * 1.5;
-            ny = Math.max(ny, ground + minFlightHeight);
-        }
+    // --- LIGHT ---
 
-        // If there's a flock nearby, bias the goal toward the flock center so they move
-        // together
-        List<BaseBirdParticle> neighbors = getNeighbors(flockRadius);
-        if (!neighbors.isEmpty()) {
-            double cx = 0, cy = 0, cz = 0;
-            for (BaseBirdParticle nb : neighbors) {
-                cx += nb.x;
-                cy += nb.y;
-                cz += nb.z;
+    @Override
+    public int getLightColor(float partialTick) {
+        ClientFaunaWorld world = view;
+        if (world == null)
+            return super.getLightColor(partialTick);
+
+        int blockX = (int) Math.floor(this.x);
+        int blockY = (int) Math.floor(this.y);
+        int blockZ = (int) Math.floor(this.z);
+        long pos = BlockPos.asLong(blockX, blockY, blockZ);
+        int epoch = world.getLightEpoch();
+        long time = this.level.getGameTime();
+        if (pos == lightPos && epoch == lightEpoch && time - lightTime < LIGHT_MAX_AGE)
+            return light;
+
+        int sampled = -1;
+        long cell = 0;
+        boolean shared = isFar();
+        if (shared) {
+            if (world != sharedLightWorld) {
+                SharedLight.clear();
+                sharedLightWorld = world;
             }
-            cx /= neighbors.size();
-            cy /= neighbors.size();
-            cz /= neighbors.size();
-            double baseX = this.x + nx;
-            double baseY = ny;
-            double baseZ = this.z + nz;
-
-            this.goalX = baseX * (1.0 - flockGoalBias) + cx * flockGoalBias;
-            this.goalY = baseY * (1.0 - flockGoalBias) + cy * flockGoalBias;
-            this.goalZ = baseZ * (1.0 - flockGoalBias) + cz * flockGoalBias;
-
-            this.goalTimer = Math.min(this.goalTimer, (goalDurationMin + goalDurationMax) / 4);
-            return;
+            cell = BlockPos.asLong(blockX >> SharedLight.CELL_SHIFT, blockY >> SharedLight.CELL_SHIFT,
+                    blockZ >> SharedLight.CELL_SHIFT);
+            sampled = SharedLight.get(cell, epoch, time, LIGHT_MAX_AGE);
+        }
+        if (sampled < 0) {
+            sampled = super.getLightColor(partialTick);
+            if (shared)
+                SharedLight.put(cell, epoch, time, sampled);
         }
 
-        this.goalX = this.x + nx;
-        this.goalY = Math.max(level.getMinY() + 1.0, Math.min((level.getHeight() - 1.0), ny));
-        this.goalZ = this.z + nz;
-
-        this.goalTimer = goalDurationMin + (int) (this.random.nextFloat() * (goalDurationMax - goalDurationMin));
+        lightPos = pos;
+        lightEpoch = epoch;
+        lightTime = time;
+        light = sampled;
+        return sampled;
     }
 
-    // Checks if there's a solid/occupied collision at the given point (coarse
-    // check)
-    private boolean isBlocked(double px, double py, double pz) {
-        mutablePos.set(px, py, pz);
-        if (level.isEmptyBlock(mutablePos))
+    private boolean isFar() {
+        if (!hasCamera)
             return false;
-        return !level.getBlockState(mutablePos).getCollisionShape(level, mutablePos).isEmpty();
+        double dx = this.x - cameraX;
+        double dy = this.y - cameraY;
+        double dz = this.z - cameraZ;
+        return dx * dx + dy * dy + dz * dz > SHARED_LIGHT_DISTANCE * SHARED_LIGHT_DISTANCE;
     }
 
-    // Find top-most solid block near the given x,z by scanning downward
-    private double sampleGroundHeight(double px, double pz) {
-        int startY = (int) Math.ceil(this.y);
-        for (int y = startY; y >= Math.max(0, startY - 20); y--) {
-            BlockPos pos = BlockPos.containing(px, y, pz);
-            if (!level.getBlockState(pos).isAir()) {
-                return pos.getY() + 1.0;
-            }
+    // Once per client tick, birds don't need the camera closer than that
+    public static void updateCamera(Minecraft minecraft) {
+        Entity camera = minecraft.getCameraEntity();
+        hasCamera = camera != null;
+        if (hasCamera) {
+            cameraX = camera.getX();
+            cameraY = camera.getY();
+            cameraZ = camera.getZ();
         }
-        return 0.0;
     }
 
-    // --- BEHAVIORS ---
-
-    private void tickFlying() {
-        double groundY = sampleGroundHeight(this.x, this.z);
-
-        double dxToGoal = Double.isNaN(goalX) ? Double.POSITIVE_INFINITY : (goalX - this.x);
-        double dyToGoal = Double.isNaN(goalY) ? Double.POSITIVE_INFINITY : (goalY - this.y);
-        double dzToGoal = Double.isNaN(goalZ) ? Double.POSITIVE_INFINITY : (goalZ - this.z);
-        double distSqToGoal = dxToGoal * dxToGoal + dyToGoal * dyToGoal + dzToGoal * dzToGoal;
-
-        if (Double.isNaN(goalX) || goalTimer-- <= 0 || distSqToGoal < 0.5 * 0.5) {
-            chooseNewGoal();
-        }
-
-        // Flocking behavior
-        List<BaseBirdParticle> neighbors = getNeighbors(flockRadius);
-        if (!neighbors.isEmpty()) {
-            double cx = 0, cy = 0, cz = 0;
-            double avx = 0, avy = 0, avz = 0;
-            int count = 0;
-            for (BaseBirdParticle nb : neighbors) {
-                if (nb.state != State.FLYING)
-                    continue;
-                cx += nb.x;
-                cy += nb.y;
-                cz += nb.z;
-                avx += nb.xd;
-                avy += nb.yd;
-                avz += nb.zd;
-                count++;
-            }
-
-            if (count > 0) {
-                cx /= count;
-                cy /= count;
-                cz /= count;
-                avx /= count;
-                avy /= count;
-                avz /= count;
-
-                // Reduce cohesion (avoids ball shape), strengthen alignment and
-                // separation so flock spreads and points in the same direction
-                double cohX = (cx - this.x) * (cohesionStrength * 0.45);
-                double cohY = (cy - this.y) * (cohesionStrength * 0.45);
-                double cohZ = (cz - this.z) * (cohesionStrength * 0.45);
-
-                double aliX = (avx - this.xd) * (alignmentStrength * 1.6);
-                double aliY = (avy - this.yd) * (alignmentStrength * 1.2);
-                double aliZ = (avz - this.zd) * (alignmentStrength * 1.6);
-
-                double sepX = 0, sepY = 0, sepZ = 0;
-                for (BaseBirdParticle nb : neighbors) {
-                    if (nb.state != State.FLYING)
-                        continue;
-                    double dx = this.x - nb.x;
-                    double dy = this.y - nb.y;
-                    double dz = this.z - nb.z;
-                    double d2 = dx * dx + dy * dy + dz * dz;
-                    if (d2 <= (separationDistance * separationDistance) && d2 > 0.0001) {
-                        double d = Math.sqrt(d2);
-                        double factor = (separationDistance - d) / separationDistance;
-                        sepX += (dx / d) * factor;
-                        sepY += (dy / d) * factor;
-                        sepZ += (dz / d) * factor;
-                    }
-                }
-                // amplify separation to keep birds more apart
-                sepX *= separationStrength * 1.6;
-                sepY *= separationStrength * 0.9; // less vertical separation
-                sepZ *= separationStrength * 1.6;
-
-                // apply steering contributions
-                this.xd += cohX + aliX + sepX;
-                this.yd += cohY + aliY + sepY;
-                this.zd += cohZ + aliZ + sepZ;
-
-                // Quick group synchronization: adopt a short-lived goal toward
-                // the flock's averaged heading/center so joined flocks pick a
-                // direction together faster instead of stalling.
-                double aheadFactor = 4.0; // how far ahead of current position to aim
-                this.goalX = this.x + (avx * aheadFactor) + (cx - this.x) * 0.18;
-                this.goalY = this.y + (avy * Math.max(1.0, aheadFactor * 0.5)) + (cy - this.y) * 0.12;
-                this.goalZ = this.z + (avz * aheadFactor) + (cz - this.z) * 0.18;
-                // shorten the goal timer so birds commit quickly
-                this.goalTimer = Math.min(this.goalTimer, Math.max(8, (goalDurationMin + goalDurationMax) / 6));
-            }
-        }
-
-        if (this.y <= groundY + minFlightHeight + 0.3) {
-            this.goalY = Math.max(this.goalY, this.y + takeoffClimb + this.random.nextFloat() * 1.5);
-            this.goalTimer = Math.max(this.goalTimer, 20);
-        }
-
-        double ceiling = groundY + maxFlightHeight;
-        if (this.y >= ceiling - 0.5) {
-            this.goalY = Math.min(this.goalY, ceiling - 2.0 - this.random.nextFloat() * 2.0);
-            this.goalTimer = Math.min(this.goalTimer, 40);
-        }
-
-        // Desired vector towards the goal
-        double desiredX = goalX - this.x;
-        double desiredY = goalY - this.y;
-        double desiredZ = goalZ - this.z;
-        double desiredDist = Math.sqrt(desiredX * desiredX + desiredY * desiredY + desiredZ * desiredZ);
-        if (desiredDist > 0.0001) {
-            desiredX = (desiredX / desiredDist) * flySpeed;
-            desiredY = (desiredY / desiredDist) * flySpeed;
-            desiredZ = (desiredZ / desiredDist) * flySpeed;
-
-            double steerX = desiredX - this.xd;
-            double steerY = (desiredY - this.yd) * verticalSteerFactor;
-            double steerZ = desiredZ - this.zd;
-
-            if (this.y >= ceiling - 0.5) {
-                steerY -= 0.02 * verticalSteerFactor;
-            }
-
-            double steerMag = Math.sqrt(steerX * steerX + steerY * steerY + steerZ * steerZ);
-            if (steerMag > steerStrength) {
-                steerX = (steerX / steerMag) * steerStrength;
-                steerY = (steerY / steerMag) * steerStrength;
-                steerZ = (steerZ / steerMag) * steerStrength;
-            }
-
-            this.xd += steerX;
-            this.yd += steerY;
-            this.zd += steerZ;
-        }
-
-        // Clamp overall horizontal speed as before, and cap vertical speed to a
-        // sensible climb/descent
-        double horizontalSpeed = Math.sqrt(xd * xd + zd * zd);
-        if (horizontalSpeed > flySpeed) {
-            double scale = flySpeed / horizontalSpeed;
-            this.xd *= scale;
-            this.zd *= scale;
-        }
-        if (this.yd > maxVerticalSpeed)
-            this.yd = maxVerticalSpeed;
-        if (this.yd < -maxVerticalSpeed)
-            this.yd = -maxVerticalSpeed;
-
-        // Simple obstacle avoidance: look ahead and if blocked pick an evasive goal
-        double lookX = this.x + this.xd * lookAheadMultiplier;
-        double lookY = this.y + this.yd * lookAheadMultiplier;
-        double lookZ = this.z + this.zd * lookAheadMultiplier;
-        if (isBlocked(lookX, lookY, lookZ)) {
-            if (!isBlocked(this.x, this.y + 2.0, this.z)) {
-                this.yd = Math.max(this.yd, 0.12);
-            } else {
-                double angle = Math.atan2(this.zd, this.xd)
-                        + (this.random.nextFloat() < 0.5f ? Math.PI / 2 : -Math.PI / 2);
-                this.goalX = this.x + Math.cos(angle) * (2 + this.random.nextFloat() * 3);
-                this.goalY = Math.max(this.y + 0.5, this.y + this.random.nextFloat() * 2);
-                this.goalZ = this.z + Math.sin(angle) * (2 + this.random.nextFloat() * 3);
-                this.goalTimer = 20 + (int) (this.random.nextFloat() * 40);
-            }
-        }
-
-        // Check for landing-scan behavior (rarer and only if cooldown expired)
-        if (landingCooldown == 0 && this.random.nextFloat() < this.perchingChance) {
-            for (BaseBirdParticle nb : getNeighbors(12.0)) {
-                if (nb.state == State.PERCHED && nb.perchBlockPos != null) {
-                    BlockPos target = nb.perchBlockPos;
-                    if (!level.getBlockState(target).isAir() && level.getBlockState(target.above()).isAir()) {
-                        setState(nb, State.LANDING);
-                        this.landingBlockPos = target;
-                        this.landingTargetY = target.getY() + 2.0 + this.quadSize;
-                        groupPerch(target);
-                        return;
-                    }
-                }
-            }
-
-            for (int i = 1; i <= this.perchingDistance; i++) {
-                BlockPos below = BlockPos.containing(this.x, this.y - i, this.z);
-                BlockPos above = below.above();
-                BlockState belowState = level.getBlockState(below);
-                BlockState aboveState = level.getBlockState(above);
-
-                // Basic checks: below must be solid, above must be air
-                if (belowState.isAir())
-                    continue;
-                if (!aboveState.isAir())
-                    continue;
-
-                // Ensure the top face is sturdy enough to land on (avoid tiny/wire blocks)
-                if (!belowState.isFaceSturdy(level, below, Direction.UP))
-                    continue;
-
-                // Ensure there's some collision shape to stand on
-                if (belowState.getCollisionShape(level, below).isEmpty())
-                    continue;
-
-                // Require a neighboring block (branch/cover) to avoid landing on open tree tops
-                // / flat ground
-                boolean hasNeighbor = !level.isEmptyBlock(below.north()) || !level.isEmptyBlock(below.south())
-                        || !level.isEmptyBlock(below.east()) || !level.isEmptyBlock(below.west());
-                if (!hasNeighbor)
-                    continue;
-
-                // Success: choose this block as perch. Use a corrected landing Y so the bird
-                // sits at
-                // block top (subtract quadSize rather than add to avoid floating too high)
-                setState(this, State.LANDING);
-                this.landingBlockPos = below;
-                this.landingOffsetX = (this.random.nextFloat() - 0.5f) * 0.8;
-                this.landingOffsetZ = (this.random.nextFloat() - 0.5f) * 0.8;
-                this.landingTargetY = below.getY() + 1.0 + this.quadSize;
-                break;
-            }
+    // --- HELPER METHODS ---
 
-            if (this.state == State.LANDING && this.landingBlockPos != null) {
-                groupPerch(this.landingBlockPos);
-            }
-        }
+    public static void reset() {
+        ClientFaunaWorld.reset();
+        BirdParticlePool.clear();
+        SPRITES.clear();
+        spriteGeneration++;
+        sharedLightWorld = null;
+        hasCamera = false;
     }
 
-    private void tickLanding() {
-        this.perchedTimer = 0;
-
-        // If target missing, abort to flying
-        if (this.landingBlockPos == null || Double.isNaN(this.landingTargetY)) {
-            setState(this, State.FLYING);
-            this.landingTargetY = Double.NaN;
-            this.landingBlockPos = null;
-            this.landingOffsetX = 0.0;
-            this.landingOffsetZ = 0.0;
-            return;
-        }
-
-        double targetX = this.landingBlockPos.getX() + 0.5 + this.landingOffsetX;
-        double targetZ = this.landingBlockPos.getZ() + 0.5 + this.landingOffsetZ;
-
-        // Gentle horizontal damping so steering is stable
-        this.xd *= 0.98;
-        this.zd *= 0.98;
-
-        // Estimate time to land
-        double verticalDist = this.y - this.landingTargetY;
-        double timeToLand;
-        if (this.yd < -0.001) {
-            timeToLand = verticalDist / -this.yd;
-            if (timeToLand < 0.1)
-                timeToLand = 0.1;
-        } else {
-            timeToLand = Math.max(0.5, verticalDist / 0.06);
-        }
-
-        double desiredXd = (targetX - this.x) / timeToLand;
-        double desiredZd = (targetZ - this.z) / timeToLand;
-
-        double maxLandingSpeed = 0.07;
-        double desiredHoriz = Math.sqrt(desiredXd * desiredXd + desiredZd * desiredZd);
-        if (desiredHoriz > maxLandingSpeed) {
-            double s = maxLandingSpeed / desiredHoriz;
-            desiredXd *= s;
-            desiredZd *= s;
-        }
-
-        double steerFactor = 0.25;
-        this.xd += (desiredXd - this.xd) * steerFactor;
-        this.zd += (desiredZd - this.zd) * steerFactor;
-
-        // gentle descent proportional to remaining distance
-        double descent = Math.min(0.20, Math.max(0.06, verticalDist * 0.03));
-        this.yd = -descent;
-
-        double dx = targetX - this.x;
-        double dz = targetZ - this.z;
-        double horizDist = Math.sqrt(dx * dx + dz * dz);
-        double horizSpeed = Math.sqrt(this.xd * this.xd + this.zd * this.zd);
-
-        // Snap if close and slow
-        if (horizDist < 0.35 && Math.abs(this.y - this.landingTargetY) < 0.25 && horizSpeed < 0.06) {
-            if (this.landingBlockPos != null && !level.getBlockState(this.landingBlockPos).isAir()) {
-                this.setPos(targetX, this.landingTargetY, targetZ);
-                this.xd = 0;
-                this.zd = 0;
-                this.yd = 0;
-                setState(this, State.PERCHED);
-                this.perchTimer = this.perchingTime + (int) (this.random.nextFloat() * this.perchingTime);
-                this.perchBlockPos = this.landingBlockPos;
-            } else {
-                setState(this, State.FLYING);
-            }
-            this.landingTargetY = Double.NaN;
-            this.landingBlockPos = null;
+    @Override
+    public void remove() {
+        if (!this.isAlive())
             return;
-        }
-
-        // Finalize if we pass the landing Y and are reasonably close horizontally
-        if (this.y <= this.landingTargetY + 0.2 && horizDist < 0.6) {
-            if (this.landingBlockPos != null && !level.getBlockState(this.landingBlockPos).isAir()) {
-                this.setPos(targetX, this.landingTargetY, targetZ);
-                this.xd = 0;
-                this.zd = 0;
-                this.yd = 0;
-                setState(this, State.PERCHED);
-                this.perchTimer = this.perchingTime + (int) (this.random.nextFloat() * this.perchingTime);
-                this.perchBlockPos = this.landingBlockPos;
-            } else {
-                setState(this, State.FLYING);
-            }
-            this.landingTargetY = Double.NaN;
-            this.landingBlockPos = null;
-            this.landingOffsetX = 0.0;
-            this.landingOffsetZ = 0.0;
-        }
+        bird.remove();
+        super.remove();
+        onRemoved();
     }
 
-    private void tickPerched() {
-        this.perchedTimer++;
-
-        this.xd = 0;
-        this.zd = 0;
-        this.yd = 0;
-
-        if (this.random.nextFloat() < 0.05f) {
-            this.setSpriteName((1 + (int) (this.random.nextFloat() * 2)));
-        }
-
-        if (this.perchBlockPos != null && level.getBlockState(this.perchBlockPos).isAir()) {
-            performTakeoff(null);
-            return;
-        }
-
-        // If a player gets too close, scare the bird and make it fly off
-        double scareRadiusSq = scareRadius * scareRadius;
-        for (Player p : this.level.players()) {
-            // Ignore spectator players
-            if (p.isSpectator())
-                continue;
-
-            double dx = p.getX() - this.x;
-            double dz = p.getZ() - this.z;
-            double distSq = dx * dx + dz * dz;
-            double dy = Math.abs(p.getY() - this.y);
-            if (distSq <= scareRadiusSq && dy < 3.0) {
-                performTakeoff(p);
-                return;
-            }
-        }
-
-        if (perchTimer-- <= 0) {
-            setState(this, State.TAKING_OFF);
-            this.perchTimer = 20;
-            groupTakeoff();
-        }
+    protected void onRemoved() {
     }
 
-    private void tickTakingOff() {
-        this.landingTargetY = Double.NaN;
-        this.landingBlockPos = null;
-        this.landingOffsetX = 0.0;
-        this.landingOffsetZ = 0.0;
-        this.perchBlockPos = null;
+    // Sets the particle up again after its bird was respawned somewhere else
+    protected void reuse() {
+        this.removed = false;
+        this.age = 0;
+        this.setPos(bird.getX(), bird.getY(), bird.getZ());
+        this.xo = this.x;
+        this.yo = this.y;
+        this.zo = this.z;
+        this.quadSize = bird.getSize();
+        this.facingRight = false;
+        this.view = ClientFaunaWorld.find(this.level);
+        this.lightPos = Long.MIN_VALUE;
+    }
 
-        if (this.takeoffTime == 0) {
-            this.xd += (this.random.nextFloat() - 0.5f) * 0.08;
-            this.zd += (this.random.nextFloat() - 0.5f) * 0.08;
-        }
-        this.takeoffTime++;
+    public Bird getBird() {
+        return bird;
+    }
 
-        if (Double.isNaN(this.takeoffGoalY)) {
-            this.takeoffGoalY = this.y + 1.0 + this.random.nextDouble() * 0.8;
-        }
+    // --- SPRITE HANDLING ---
 
-        double remaining = this.takeoffGoalY - this.y;
-        double desiredUp = 0.02 + Math.min(maxVerticalSpeed, Math.max(0.06, remaining * 0.12));
-        this.yd += (desiredUp - this.yd) * 0.18;
-        this.xd *= 0.995;
-        this.zd *= 0.995;
-
-        if (perchTimer-- <= 0 && (this.y >= this.takeoffGoalY - 0.15 || this.takeoffTime > 50)) {
-            setState(this, State.FLYING);
-            this.landingCooldown = 100;
-            chooseNewGoal();
-            this.goalTimer = 30 + (int) (this.random.nextFloat() * 40);
-            this.takeoffGoalY = Double.NaN;
-            this.takeoffTime = 0;
-        }
+    private static int spriteIndex(boolean perched, boolean facingRight, int frame) {
+        return (perched ? 4 : 0) + (facingRight ? 2 : 0) + frame - 1;
     }
 
-    private void tickDying() {
-        this.yd -= 0.02;
-
-        // Remove if we hit the void or have fallen far enough
-        if (this.y < -64) {
-            if (debugText) {
-                AtmosphericFauna.LOGGER.info(
-                        this.baseSpriteName + " #" + this.hashCode() + " has died at age " + this.age + " ticks.");
+    private static TextureAtlasSprite[] resolve(String baseName) {
+        TextureAtlasSprite[] sprites = new TextureAtlasSprite[8];
+        for (int perched = 0; perched < 2; perched++) {
+            for (int right = 0; right < 2; right++) {
+                for (int frame = 1; frame <= 2; frame++) {
+                    sprites[spriteIndex(perched == 1, right == 1, frame)] = getSprite(
+                            buildSpriteName(SPRITE_NAME, baseName, perched == 1, right == 1, frame));
+                }
             }
-            this.remove();
-        }
-
-        // Hard limit to prevent memory leaks if it falls forever
-        if (this.age > this.lifetime + 200) {
-            if (debugText) {
-                AtmosphericFauna.LOGGER.info(this.baseSpriteName + " #" + this.hashCode()
-                        + " forcibly removed after exceeding death time limit.");
-            }
-            this.remove();
         }
+        return sprites;
     }
 
-    // --- SPRITE HANDLING ---
-
-    protected void setSpriteName(Integer frame) {
+    // e.g. "crow_flying_r_2"
+    static String buildSpriteName(StringBuilder sb, String baseName, boolean perched, boolean facingRight,
+            int frame) {
         sb.setLength(0);
-        sb.append(this.baseSpriteName);
-
-        if (this.state != State.PERCHED) {
-            sb.append("_flying");
-        } else {
-            sb.append("_").append(this.state.toString().toLowerCase());
-        }
+        sb.append(baseName);
+        sb.append(perched ? "_perched" : "_flying");
 
-        if (this.facingRight) {
+        if (facingRight) {
             sb.append("_r");
         }
 
-        sb.append("_").append(frame == null ? "1" : frame);
-
-        this.spriteName = sb.toString();
-        this.setSprite(getSprite(this.spriteName));
-    }
-
-    // compute desired facing: prefer motion if strong, otherwise face camera/player
-    // Improved facing logic: calculates movement relative to the camera's view
-    // plane
-    private void updateSpriteFacing() {
-        double horizSpeed = Math.sqrt(this.xd * this.xd + this.zd * this.zd);
-        double motionThreshold = 0.01;
-
-        if (horizSpeed > motionThreshold) {
-            Player player = mc.player;
-            if (player != null) {
-                float yaw = player.getYRot();
-
-                double yawRad = Math.toRadians(yaw);
-                double lookX = -Math.sin(yawRad);
-                double lookZ = Math.cos(yawRad);
-
-                double rightX = -lookZ;
-                double rightZ = lookX;
-
-                double dot = (this.xd * rightX) + (this.zd * rightZ);
-
-                this.facingRight = dot > 0;
-            } else {
-                this.facingRight = this.xd > 0;
-            }
-        }
-
-        int frame = 1;
-        if (this.spriteName != null && !this.spriteName.isEmpty()) {
-            char c = this.spriteName.charAt(this.spriteName.length() - 1);
-            if (Character.isDigit(c)) {
-                frame = Character.getNumericValue(c);
-            }
-        }
-        setSpriteName(frame);
+        sb.append("_").append(frame);
+        return sb.toString();
     }
 }
@@ -0,0 +1,76 @@
+package nms.atmosphericfauna.particle;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.particle.Particle;
+import net.minecraft.client.particle.SpriteSet;
+import net.minecraft.core.particles.SimpleParticleType;
+
+// Particle for a bird of any species. Species come from resource packs and
+// can't register particle types, so spawning adds these to the particle engine
+// directly. The registered particle types only exist for /particle.
+public class BirdParticle extends BaseBirdParticle {
+
+    // --- CONSTRUCTOR ---
+
+    protected BirdParticle(ClientLevel level, Bird bird) {
+        super(level, bird, getSprite(bird.getSpecies().getProfile().sprite() + "_flying_1"));
+    }
+
+    // A pooled particle with its bird respawned, or a new pair
+    private static BirdParticle obtain(ClientLevel level, Species species, double x, double y, double z,
+            double velocityX, double velocityY, double velocityZ) {
+        ClientFaunaWorld world = ClientFaunaWorld.of(level);
+        BirdParticle particle = BirdParticlePool.take(world, species);
+        if (particle != null) {
+            particle.bird.respawn(x, y, z, velocityX, velocityY, velocityZ);
+            particle.reuse();
+            return particle;
+        }
+
+        BirdParticlePool.created();
+        Bird bird = world.getPopulation().obtain(species, world, x, y, z, velocityX, velocityY, velocityZ);
+        return new BirdParticle(level, bird);
+    }
+
+    public static Bird spawn(ClientLevel level, Species species, double x, double y, double z) {
+        BirdParticle particle = obtain(level, species, x, y, z, 0, 0, 0);
+        Minecraft.getInstance().particleEngine.add(particle);
+        return particle.bird;
+    }
+
+    // Adds a particle for a bird the server simulates, the caller makes the
+    // bird follow it
+    public static Bird spawnMirror(ClientLevel level, Species species, double x, double y, double z) {
+        return spawn(level, species, x, y, z);
+    }
+
+    @Override
+    protected void onRemoved() {
+        BirdParticlePool.release(ClientFaunaWorld.find(this.level), this);
+    }
+
+    // --- FACTORY ---
+
+    public static final class Factory extends FaunaFactory {
+        private final String species;
+
+        public Factory(SpriteSet spriteSet, String species) {
+            super(spriteSet);
+            this.species = species;
+        }
+
+        public Particle createParticle(SimpleParticleType type, ClientLevel level, double x, double y, double z,
+                double velocityX, double velocityY, double velocityZ) {
+            Species resolved = SpeciesRegistry.find(species);
+            if (resolved == null)
+                return null;
+            return obtain(level, resolved, x, y, z, velocityX, velocityY, velocityZ);
+        }
+    }
+}
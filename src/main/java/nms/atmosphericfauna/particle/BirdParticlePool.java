@@ -0,0 +1,84 @@
+package nms.atmosphericfauna.particle;
+
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Removed bird particles, together with their birds, kept per species for the
+// next spawn. The particle engine only drops a removed particle on its next
+// tick, so a particle waits a couple of ticks before it is handed out again.
+// Everything here runs on the client thread.
+public final class BirdParticlePool {
+
+    private static final int RELEASE_DELAY = 2;
+    private static final int MAX_POOLED = 128;
+
+    private static final Map<Species, ArrayDeque<BirdParticle>> FREE = new IdentityHashMap<>();
+    private static ClientFaunaWorld owner = null;
+    private static long clock = 0;
+
+    private static long created = 0;
+    private static long reused = 0;
+
+    private BirdParticlePool() {
+    }
+
+    // Advanced once per client tick in which the particle engine ticks
+    public static void tick() {
+        clock++;
+    }
+
+    public static void clear() {
+        FREE.clear();
+        owner = null;
+    }
+
+    // --- POOL ---
+
+    // A released particle of this species that the engine is done with, or null
+    static BirdParticle take(ClientFaunaWorld world, Species species) {
+        // Pooled birds belong to the population they were spawned in
+        if (world != owner) {
+            FREE.clear();
+            owner = world;
+        }
+
+        ArrayDeque<BirdParticle> free = FREE.get(species);
+        BirdParticle oldest = free == null ? null : free.peekFirst();
+        if (oldest == null || clock - oldest.releasedAt < RELEASE_DELAY)
+            return null;
+
+        reused++;
+        return free.pollFirst();
+    }
+
+    static void release(ClientFaunaWorld world, BirdParticle particle) {
+        if (world == null || world != owner)
+            return;
+        ArrayDeque<BirdParticle> free = FREE.computeIfAbsent(particle.getBird().getSpecies(),
+                species -> new ArrayDeque<>());
+        if (free.size() < MAX_POOLED) {
+            particle.releasedAt = clock;
+            free.addLast(particle);
+        }
+    }
+
+    static void created() {
+        created++;
+    }
+
+    // --- COUNTERS ---
+
+    // Particles (and birds) allocated by spawning
+    public static long getCreated() {
+        return created;
+    }
+
+    // Spawns served from the pool without allocating
+    public static long getReused() {
+        return reused;
+    }
+}
@@ -0,0 +1,51 @@
+package nms.atmosphericfauna.particle;
+
+import java.util.Arrays;
+
+// Packed light shared by distant bird particles. At range a flock is a few
+// pixels across, so every bird in the same 4x4x4 cell takes the light of
+// whichever bird sampled it first. A small table indexed by a hash of the
+// cell, a colliding cell just takes the slot over. Client thread only.
+final class SharedLight {
+
+    static final int CELL_SHIFT = 2;
+
+    private static final int SLOTS = 512;
+
+    private static final long[] CELLS = new long[SLOTS];
+    private static final int[] LIGHT = new int[SLOTS];
+    private static final int[] EPOCHS = new int[SLOTS];
+    private static final long[] TIMES = new long[SLOTS];
+
+    static {
+        clear();
+    }
+
+    private SharedLight() {
+    }
+
+    static void clear() {
+        Arrays.fill(CELLS, Long.MIN_VALUE);
+    }
+
+    // The cached light of the cell, or -1 if it has to be sampled
+    static int get(long cell, int epoch, long time, int maxAge) {
+        int slot = slot(cell);
+        if (CELLS[slot] != cell || EPOCHS[slot] != epoch || time - TIMES[slot] >= maxAge)
+            return -1;
+        return LIGHT[slot];
+    }
+
+    static void put(long cell, int epoch, long time, int light) {
+        int slot = slot(cell);
+        CELLS[slot] = cell;
+        EPOCHS[slot] = epoch;
+        TIMES[slot] = time;
+        LIGHT[slot] = light;
+    }
+
+    private static int slot(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 55); // top 9 bits, SLOTS = 512
+    }
+}
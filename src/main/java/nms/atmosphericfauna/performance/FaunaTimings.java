@@ -0,0 +1,48 @@
+package nms.atmosphericfauna.performance;
+
+// Time spent in fauna code on the client thread since the last drain. Bird
+// ticks and spawn cycles both add to it, the governor reads and resets it.
+// Running totals per phase are never reset, the stress test diffs them.
+public final class FaunaTimings {
+
+    // Only touched from the client thread
+    private static long nanos = 0;
+    private static long birdTicks = 0;
+    private static long totalBirdNanos = 0;
+    private static long totalSpawnNanos = 0;
+
+    private FaunaTimings() {
+    }
+
+    public static void addBirdTick(long elapsedNanos) {
+        nanos += elapsedNanos;
+        birdTicks++;
+        totalBirdNanos += elapsedNanos;
+    }
+
+    public static void addSpawning(long elapsedNanos) {
+        nanos += elapsedNanos;
+        totalSpawnNanos += elapsedNanos;
+    }
+
+    public static long getNanos() {
+        return nanos;
+    }
+
+    public static long getBirdTicks() {
+        return birdTicks;
+    }
+
+    public static long getTotalBirdNanos() {
+        return totalBirdNanos;
+    }
+
+    public static long getTotalSpawnNanos() {
+        return totalSpawnNanos;
+    }
+
+    public static void reset() {
+        nanos = 0;
+        birdTicks = 0;
+    }
+}
@@ -0,0 +1,123 @@
+package nms.atmosphericfauna.performance;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.config.FaunaConfig;
+
+// Scales the bird caps and the spawn rate so fauna stays under a share of the
+// frame budget. Once a second it measures what a bird tick costs, works out
+// how many birds fit in the budget and eases the scale towards that.
+//
+// Lowering the caps doesn't remove birds, the population shrinks as they
+// reach the end of their lifetime.
+public final class PopulationGovernor {
+
+    // Client ticks per measurement
+    private static final int WINDOW_TICKS = 20;
+
+    // How far the scale moves towards its target each window
+    private static final double SMOOTHING = 0.3;
+
+    // Growth per window while there are no birds to measure
+    private static final double IDLE_STEP = 0.05;
+
+    private static volatile double scale = 1.0;
+    private static volatile double lastShare = 0.0;
+
+    private static long windowStart = 0;
+    private static int windowTicks = 0;
+
+    private PopulationGovernor() {
+    }
+
+    // --- EFFECTIVE LIMITS ---
+
+    public static double getScale() {
+        return scale;
+    }
+
+    // Fauna time as a share of wall time over the last window, 0..1
+    public static double getLastShare() {
+        return lastShare;
+    }
+
+    public static int cap(int configured) {
+        double current = scale;
+        return current >= 1.0 ? configured : (int) Math.round(configured * current);
+    }
+
+    // Fewer spawn cycles while scaled down
+    public static int spawnTickDelay(int configured) {
+        double current = scale;
+        return current >= 1.0 ? configured : (int) Math.ceil(configured / Math.max(current, 0.01));
+    }
+
+    // --- MEASUREMENT ---
+
+    // Called at the end of every client tick with the current frame rate
+    public static void tick(int fps) {
+        FaunaConfig config = FaunaConfig.get();
+        long now = System.nanoTime();
+
+        if (!config.enableGovernor()) {
+            scale = 1.0;
+            windowStart = 0;
+            FaunaTimings.reset();
+            return;
+        }
+
+        if (windowStart == 0) {
+            windowStart = now;
+            windowTicks = 0;
+            FaunaTimings.reset();
+            return;
+        }
+
+        if (++windowTicks < WINDOW_TICKS)
+            return;
+
+        long wallNanos = now - windowStart;
+        long faunaNanos = FaunaTimings.getNanos();
+        long birdTicks = FaunaTimings.getBirdTicks();
+        windowStart = now;
+        windowTicks = 0;
+        FaunaTimings.reset();
+
+        if (wallNanos <= 0)
+            return;
+        lastShare = (double) faunaNanos / wallNanos;
+
+        double previous = scale;
+        scale = adjust(previous, config, faunaNanos, birdTicks, wallNanos, fps);
+
+        if (config.debugSpawning() && Math.abs(scale - previous) >= 0.05) {
+            AtmosphericFauna.LOGGER.info(String.format("Governor: fauna %.2f%% of frame time at %d fps, scale %.2f",
+                    lastShare * 100, fps, scale));
+        }
+    }
+
+    private static double adjust(double current, FaunaConfig config, long faunaNanos, long birdTicks,
+            long wallNanos, int fps) {
+        double min = config.governorMinPercent() / 100.0;
+
+        // Nothing ticked (paused, no birds yet), let the caps recover slowly
+        if (birdTicks == 0 || faunaNanos == 0 || config.maxActiveBirds() == 0)
+            return clamp(current + IDLE_STEP, min);
+
+        // The budget is a share of the frame time, counted against the target
+        // frame rate when the game can't reach it
+        double budget = config.governorBudgetPercent() / 100.0 * wallNanos;
+        if (fps > 0 && fps < config.governorTargetFps())
+            budget *= (double) fps / config.governorTargetFps();
+
+        // Birds that fit in the budget at the cost measured this window
+        double nanosPerBirdTick = (double) faunaNanos / birdTicks;
+        double affordableBirds = budget / (nanosPerBirdTick * WINDOW_TICKS);
+        double target = affordableBirds / config.maxActiveBirds();
+
+        return clamp(current + (target - current) * SMOOTHING, min);
+    }
+
+    private static double clamp(double value, double min) {
+        return Math.max(min, Math.min(1.0, value));
+    }
+}
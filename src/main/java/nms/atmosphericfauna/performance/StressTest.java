@@ -0,0 +1,324 @@
+package nms.atmosphericfauna.performance;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.bird.BirdState;
+import nms.atmosphericfauna.particle.BirdParticle;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import com.sun.management.ThreadMXBean;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+// Behind /fauna stress. Spawns a batch of birds around the player without
+// looking at any cap, then times a fixed number of unpaused client ticks: the
+// whole tick, the bird ticks and spawning. At the end it reports percentiles
+// per phase, how fast the client thread allocated and what the birds were
+// doing, in chat and as a CSV in <game dir>/atmospheric-fauna/stress. The
+// stress birds are removed afterwards. Client thread only.
+public final class StressTest {
+
+    // The particle engine keeps at most 16384 particles per layer and drops
+    // the oldest beyond that, stay well under it
+    public static final int MAX_BIRDS = 10000;
+    public static final int MAX_SECONDS = 600;
+    public static final int DEFAULT_SECONDS = 30;
+
+    // Where stress birds appear, around the player and above the terrain
+    private static final int RADIUS = 48;
+    private static final int MIN_ALTITUDE = 4;
+    private static final int MAX_ALTITUDE = 20;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static StressTest running = null;
+
+    private final ClientLevel level;
+    private final String species;
+    private final int requested;
+    private final List<Bird> birds;
+    private final int[] ids;
+
+    // One entry per measured tick
+    private final long[] tickNanos;
+    private final long[] birdNanos;
+    private final long[] spawnNanos;
+    private final int[] populations;
+    private final long[] stateTicks = new long[BirdState.values().length];
+    private int ticks = 0;
+
+    private final ThreadMXBean threads;
+    private long allocated = 0;
+    private long measuredNanos = 0;
+    private double scaleSum = 0.0;
+
+    // Set by the start of an unpaused tick, read by its end
+    private boolean inTick = false;
+    private long tickStart;
+    private long birdStart;
+    private long spawnStart;
+    private long allocStart;
+
+    private StressTest(ClientLevel level, String species, int requested, List<Bird> birds, int ticks) {
+        this.level = level;
+        this.species = species;
+        this.requested = requested;
+        this.birds = birds;
+        this.ids = new int[birds.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = birds.get(i).getId();
+        this.tickNanos = new long[ticks];
+        this.birdNanos = new long[ticks];
+        this.spawnNanos = new long[ticks];
+        this.populations = new int[ticks];
+        this.threads = allocationCounter();
+    }
+
+    // --- CONTROL ---
+
+    public static boolean isRunning() {
+        return running != null;
+    }
+
+    // Spawns the birds, each of one of the given species, and starts measuring
+    // with the next tick. Returns how many birds were spawned, none if the
+    // area around the player isn't loaded.
+    public static int start(ClientLevel level, Vec3 center, List<Species> species, int count, int seconds) {
+        if (running != null)
+            running.finish();
+
+        ClientFaunaWorld view = ClientFaunaWorld.of(level);
+        RandomSource random = level.getRandom();
+        List<Bird> spawned = new ArrayList<>(count);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < count; i++) {
+            int x = (int) Math.floor(center.x) + random.nextInt(RADIUS * 2 + 1) - RADIUS;
+            int z = (int) Math.floor(center.z) + random.nextInt(RADIUS * 2 + 1) - RADIUS;
+            if (!view.isLoaded(pos.set(x, 0, z)))
+                continue;
+            double y = view.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z) + MIN_ALTITUDE
+                    + random.nextDouble() * (MAX_ALTITUDE - MIN_ALTITUDE);
+            Species picked = species.get(random.nextInt(species.size()));
+            spawned.add(BirdParticle.spawn(level, picked, x + random.nextDouble(), y, z + random.nextDouble()));
+        }
+        if (spawned.isEmpty())
+            return 0;
+
+        String name = species.size() == 1 ? species.get(0).getName() : "mixed";
+        running = new StressTest(level, name, count, spawned, seconds * 20);
+        AtmosphericFauna.LOGGER.info("Stress test: spawned {} {} birds, measuring {} ticks", spawned.size(), name,
+                seconds * 20);
+        return spawned.size();
+    }
+
+    // Ends the running test early, reporting the ticks measured so far
+    public static boolean stop() {
+        if (running == null)
+            return false;
+        running.finish();
+        return true;
+    }
+
+    // Drops the running test without a report, for leaving the world
+    public static void cancel() {
+        if (running == null)
+            return;
+        running.removeBirds();
+        running = null;
+    }
+
+    // --- MEASUREMENT ---
+
+    public static void startTick(Minecraft client) {
+        StressTest test = running;
+        if (test == null)
+            return;
+        if (client.level != test.level) {
+            cancel();
+            return;
+        }
+        test.inTick = !client.isPaused();
+        if (!test.inTick)
+            return;
+        test.birdStart = FaunaTimings.getTotalBirdNanos();
+        test.spawnStart = FaunaTimings.getTotalSpawnNanos();
+        test.allocStart = test.allocatedBytes();
+        test.tickStart = System.nanoTime();
+    }
+
+    public static void endTick(Minecraft client) {
+        StressTest test = running;
+        if (test == null || !test.inTick)
+            return;
+        long nanos = System.nanoTime() - test.tickStart;
+        long allocated = test.allocatedBytes() - test.allocStart;
+        test.inTick = false;
+
+        // Counting states walks every bird, outside the measured time
+        int tick = test.ticks++;
+        test.tickNanos[tick] = nanos;
+        test.birdNanos[tick] = FaunaTimings.getTotalBirdNanos() - test.birdStart;
+        test.spawnNanos[tick] = FaunaTimings.getTotalSpawnNanos() - test.spawnStart;
+        test.measuredNanos += nanos;
+        test.allocated += allocated;
+        test.scaleSum += PopulationGovernor.getScale();
+
+        BirdPopulation population = ClientFaunaWorld.of(test.level).getPopulation();
+        test.populations[tick] = population.size();
+        for (Bird bird : population.getBirds())
+            test.stateTicks[bird.getState().ordinal()]++;
+
+        if (test.ticks == test.tickNanos.length)
+            test.finish();
+    }
+
+    private static ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled())
+            return bean;
+        return null;
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    // --- REPORT ---
+
+    private void finish() {
+        running = null;
+        removeBirds();
+        if (ticks == 0) {
+            message("Stress test stopped before any tick was measured");
+            return;
+        }
+
+        List<String[]> rows = report();
+        message(String.format(Locale.ROOT, "Stress test: %d %s birds (%d requested), %d ticks", birds.size(),
+                species, requested, ticks));
+        for (String[] row : rows) {
+            if (row[0].startsWith("state_") || row[0].startsWith("birds_"))
+                continue;
+            message(row[0] + ": " + row[1]);
+        }
+        message(String.format(Locale.ROOT, "Birds: %s on average, %s at most; %s", value(rows, "birds_mean"),
+                value(rows, "birds_max"), states(rows)));
+
+        Path path = FabricLoader.getInstance().getGameDir().resolve(AtmosphericFauna.MOD_ID).resolve("stress")
+                .resolve("stress_" + LocalDateTime.now().format(FILE_TIME) + ".csv");
+        try {
+            List<String> lines = new ArrayList<>(rows.size() + 1);
+            lines.add("metric,value");
+            for (String[] row : rows)
+                lines.add(row[0] + "," + row[1]);
+            Files.createDirectories(path.getParent());
+            Files.write(path, lines);
+            message("Written to " + path);
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.error("Failed to write stress test results to {}", path, e);
+            message("Failed to write the results, see the log");
+        }
+    }
+
+    private List<String[]> report() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"species", species});
+        rows.add(new String[] {"birds_requested", Integer.toString(requested)});
+        rows.add(new String[] {"birds_spawned", Integer.toString(birds.size())});
+        rows.add(new String[] {"ticks", Integer.toString(ticks)});
+        phase(rows, "tick", tickNanos);
+        phase(rows, "birds", birdNanos);
+        phase(rows, "spawning", spawnNanos);
+
+        double seconds = measuredNanos / 1.0e9;
+        rows.add(new String[] {"alloc_mb_per_s",
+                threads == null ? "n/a" : format(seconds > 0 ? allocated / 1048576.0 / seconds : 0.0)});
+        rows.add(new String[] {"governor_scale_mean", format(scaleSum / ticks)});
+
+        long sum = 0;
+        int max = 0;
+        for (int i = 0; i < ticks; i++) {
+            sum += populations[i];
+            max = Math.max(max, populations[i]);
+        }
+        rows.add(new String[] {"birds_mean", format((double) sum / ticks)});
+        rows.add(new String[] {"birds_max", Integer.toString(max)});
+        for (BirdState state : BirdState.values()) {
+            rows.add(new String[] {"state_" + state.name().toLowerCase(Locale.ROOT) + "_mean",
+                    format((double) stateTicks[state.ordinal()] / ticks)});
+        }
+        return rows;
+    }
+
+    // Mean, percentiles and max of one phase, in milliseconds
+    private void phase(List<String[]> rows, String name, long[] samples) {
+        long[] sorted = Arrays.copyOf(samples, ticks);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted)
+            sum += sample;
+        rows.add(new String[] {name + "_ms_mean", format(sum / 1.0e6 / ticks)});
+        for (double percentile : PERCENTILES) {
+            // Nearest rank
+            int rank = Math.min(ticks - 1, Math.max(0, (int) Math.ceil(percentile * ticks) - 1));
+            rows.add(new String[] {name + "_ms_p" + Math.round(percentile * 100), format(sorted[rank] / 1.0e6)});
+        }
+        rows.add(new String[] {name + "_ms_max", format(sorted[ticks - 1] / 1.0e6)});
+    }
+
+    private static String value(List<String[]> rows, String metric) {
+        for (String[] row : rows) {
+            if (row[0].equals(metric))
+                return row[1];
+        }
+        return "n/a";
+    }
+
+    private static String states(List<String[]> rows) {
+        StringBuilder line = new StringBuilder();
+        for (BirdState state : BirdState.values()) {
+            if (!line.isEmpty())
+                line.append(", ");
+            line.append(state.name().toLowerCase(Locale.ROOT)).append(' ')
+                    .append(value(rows, "state_" + state.name().toLowerCase(Locale.ROOT) + "_mean"));
+        }
+        return line.toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private void removeBirds() {
+        // The particles notice on their next tick. A stress bird that died
+        // may have been handed out again by the pool, with a new id.
+        for (int i = 0; i < ids.length; i++) {
+            Bird bird = birds.get(i);
+            if (bird.getId() == ids[i])
+                bird.remove();
+        }
+    }
+
+    private static void message(String text) {
+        Minecraft.getInstance().gui.getChat().addMessage(Component.literal(text));
+    }
+}
@@ -0,0 +1,73 @@
+package nms.atmosphericfauna.recording;
+
+import java.io.IOException;
+
+// Compares two recordings tick by tick and reports the first place where they
+// disagree. Birds are matched by id, so two runs of the same seed line up even
+// if one of them keeps its population in a different order.
+public final class FlightDiff {
+
+    private static final String[] FIELDS = { "x", "y", "z", "xd", "yd", "zd" };
+
+    private FlightDiff() {
+    }
+
+    public record Divergence(long tick, int birdId, String field, String expected, String actual) {
+        @Override
+        public String toString() {
+            if (birdId < 0)
+                return "tick " + tick + ": " + field + " expected " + expected + " but was " + actual;
+            return "tick " + tick + ", bird " + birdId + ": " + field + " expected " + expected + " but was "
+                    + actual;
+        }
+    }
+
+    // Null when both recordings match. Tolerance is in blocks (or blocks per
+    // tick for velocities), 0 demands bit-identical quantized values.
+    public static Divergence compare(FlightRecording expected, FlightRecording actual, double tolerance)
+            throws IOException {
+        expected.rewind();
+        actual.rewind();
+        FlightRecording.Frame a = new FlightRecording.Frame();
+        FlightRecording.Frame b = new FlightRecording.Frame();
+
+        while (true) {
+            boolean hasA = expected.next(a);
+            boolean hasB = actual.next(b);
+            if (!hasA || !hasB) {
+                if (hasA == hasB)
+                    return null;
+                long tick = hasA ? a.tick() : b.tick();
+                return new Divergence(tick, -1, "frame", hasA ? "present" : "end of recording",
+                        hasB ? "present" : "end of recording");
+            }
+
+            if (a.tick() != b.tick())
+                return new Divergence(a.tick(), -1, "tick", Long.toString(a.tick()), Long.toString(b.tick()));
+            if (a.size() != b.size())
+                return new Divergence(a.tick(), -1, "bird count", Integer.toString(a.size()),
+                        Integer.toString(b.size()));
+
+            for (int i = 0; i < a.size(); i++) {
+                int id = a.id(i);
+                // Same order is the common case, fall back to a search
+                int j = b.id(i) == id ? i : b.indexOf(id);
+                if (j < 0)
+                    return new Divergence(a.tick(), id, "presence", "present", "missing");
+                if (!a.species(i).equals(b.species(j)))
+                    return new Divergence(a.tick(), id, "species", a.species(i), b.species(j));
+                if (a.state(i) != b.state(j))
+                    return new Divergence(a.tick(), id, "state", a.state(i).name(), b.state(j).name());
+
+                for (int field = 0; field < FIELDS.length; field++) {
+                    boolean differs = tolerance <= 0.0
+                            ? a.raw(i, field) != b.raw(j, field)
+                            : Math.abs(a.value(i, field) - b.value(j, field)) > tolerance;
+                    if (differs)
+                        return new Divergence(a.tick(), id, FIELDS[field], Double.toString(a.value(i, field)),
+                                Double.toString(b.value(j, field)));
+                }
+            }
+        }
+    }
+}
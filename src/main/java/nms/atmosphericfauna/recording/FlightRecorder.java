@@ -0,0 +1,79 @@
+package nms.atmosphericfauna.recording;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Writes every bird of a population once per tick to a compact binary file.
+//
+// Layout: a header (magic, version, scale, seed), then one FrameEncoder frame
+// per recorded tick.
+public class FlightRecorder implements Closeable {
+
+    static final int MAGIC = 0x41465243; // "AFRC"
+    static final int VERSION = 1;
+    static final int SCALE = FrameEncoder.SCALE;
+
+    private final DataOutputStream out;
+    private final FrameEncoder encoder = new FrameEncoder();
+
+    private long birdSamples = 0;
+    private long bytesWritten = 0;
+
+    public FlightRecorder(OutputStream stream, long seed) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(SCALE);
+        out.writeLong(seed);
+        bytesWritten = 17;
+    }
+
+    public static FlightRecorder create(Path path, long seed) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        return new FlightRecorder(Files.newOutputStream(path), seed);
+    }
+
+    // --- WRITING ---
+
+    public void writeFrame(long tick, BirdPopulation population) throws IOException {
+        List<Bird> birds = population.getBirds();
+        int length = encoder.encode(tick, birds);
+        out.write(encoder.getBuffer(), 0, length);
+        bytesWritten += length;
+        birdSamples += birds.size();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // --- STATS ---
+
+    public long getFrames() {
+        return encoder.getFrames();
+    }
+
+    public long getBirdSamples() {
+        return birdSamples;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+}
@@ -0,0 +1,183 @@
+package nms.atmosphericfauna.recording;
+
+import nms.atmosphericfauna.bird.BirdState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Reads a file written by FlightRecorder. The file is memory-mapped and decoded
+// frame by frame into a reusable Frame, so scanning or diffing long recordings
+// allocates almost nothing.
+public class FlightRecording implements Closeable {
+
+    private static final BirdState[] STATES = BirdState.values();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int dataStart;
+    private final int scale;
+    private final long seed;
+
+    private final FrameDecoder decoder;
+
+    private FlightRecording(Path path, FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.remaining() < 17 || buffer.getInt() != FlightRecorder.MAGIC)
+            throw new IOException(path + " is not a flight recording");
+        int version = buffer.get();
+        if (version != FlightRecorder.VERSION)
+            throw new IOException(path + " has unsupported version " + version);
+        this.scale = buffer.getInt();
+        this.seed = buffer.getLong();
+        this.dataStart = buffer.position();
+        this.decoder = new FrameDecoder(scale);
+    }
+
+    public static FlightRecording open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException(path + " is too large to map (" + size + " bytes)");
+            return new FlightRecording(path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    public void rewind() {
+        buffer.position(dataStart);
+        decoder.reset();
+    }
+
+    // --- FRAMES ---
+
+    // One decoded tick. Arrays grow as needed and are reused between frames.
+    public static final class Frame {
+        long tick;
+        int size;
+        double scale;
+        int[] ids = new int[64];
+        String[] species = new String[64];
+        byte[] states = new byte[64];
+        long[] values = new long[64 * 6]; // x, y, z, xd, yd, zd per bird
+
+        public long tick() {
+            return tick;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int id(int i) {
+            return ids[i];
+        }
+
+        public String species(int i) {
+            return species[i];
+        }
+
+        public BirdState state(int i) {
+            return STATES[states[i]];
+        }
+
+        // Quantized value, field 0-5 is x, y, z, xd, yd, zd
+        public long raw(int i, int field) {
+            return values[i * 6 + field];
+        }
+
+        public double value(int i, int field) {
+            return values[i * 6 + field] / scale;
+        }
+
+        public double x(int i) {
+            return value(i, 0);
+        }
+
+        public double y(int i) {
+            return value(i, 1);
+        }
+
+        public double z(int i) {
+            return value(i, 2);
+        }
+
+        public double xd(int i) {
+            return value(i, 3);
+        }
+
+        public double yd(int i) {
+            return value(i, 4);
+        }
+
+        public double zd(int i) {
+            return value(i, 5);
+        }
+
+        // Index of the bird with this id, or -1
+        public int indexOf(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id)
+                    return i;
+            }
+            return -1;
+        }
+
+        void ensure(int capacity) {
+            if (capacity <= ids.length)
+                return;
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            species = Arrays.copyOf(species, grown);
+            states = Arrays.copyOf(states, grown);
+            values = Arrays.copyOf(values, grown * 6);
+        }
+    }
+
+    // Decodes the next frame into frame, false at the end of the recording. A
+    // truncated last frame (e.g. the game crashed mid-write) also ends it.
+    public boolean next(Frame frame) throws IOException {
+        if (!buffer.hasRemaining())
+            return false;
+        int start = buffer.position();
+        try {
+            decoder.decode(buffer, frame);
+        } catch (BufferUnderflowException e) {
+            buffer.position(buffer.limit());
+            if (start == dataStart)
+                throw new IOException(path + ": first frame is truncated", e);
+            return false;
+        } catch (IOException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,110 @@
+package nms.atmosphericfauna.recording;
+
+import nms.atmosphericfauna.bird.BirdState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Command line access to flight recordings.
+//
+// ./gradlew flightTool -PflightArgs="summary run.afr"
+// ./gradlew flightTool -PflightArgs="track run.afr 17"        (CSV of one bird)
+// ./gradlew flightTool -PflightArgs="diff before.afr after.afr 0.001"
+public final class FlightTool {
+
+    private FlightTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        switch (args[0]) {
+            case "summary" -> summary(Path.of(args[1]));
+            case "track" -> {
+                if (args.length < 3) {
+                    usage();
+                    return;
+                }
+                track(Path.of(args[1]), Integer.parseInt(args[2]));
+            }
+            case "diff" -> {
+                if (args.length < 3) {
+                    usage();
+                    return;
+                }
+                double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+                if (!diff(Path.of(args[1]), Path.of(args[2]), tolerance))
+                    System.exit(1);
+            }
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: summary <file> | track <file> <birdId> | diff <expected> <actual> [tolerance]");
+        System.exit(2);
+    }
+
+    private static void summary(Path path) throws IOException {
+        try (FlightRecording recording = FlightRecording.open(path)) {
+            FlightRecording.Frame frame = new FlightRecording.Frame();
+            long frames = 0;
+            long samples = 0;
+            long firstTick = -1;
+            long lastTick = -1;
+            int peak = 0;
+            long[] stateCounts = new long[BirdState.values().length];
+
+            long start = System.nanoTime();
+            while (recording.next(frame)) {
+                if (frames++ == 0)
+                    firstTick = frame.tick();
+                lastTick = frame.tick();
+                samples += frame.size();
+                peak = Math.max(peak, frame.size());
+                for (int i = 0; i < frame.size(); i++)
+                    stateCounts[frame.state(i).ordinal()]++;
+            }
+            long nanos = System.nanoTime() - start;
+
+            System.out.printf("%s: seed=%d frames=%d ticks=%d..%d peak birds=%d%n", path, recording.getSeed(),
+                    frames, firstTick, lastTick, peak);
+            System.out.printf("size=%d bytes  %.2f bytes/bird-tick  decoded in %.1f ms%n",
+                    recording.getSizeBytes(), recording.getSizeBytes() / (double) Math.max(1, samples),
+                    nanos / 1.0e6);
+            StringBuilder states = new StringBuilder();
+            for (BirdState state : BirdState.values())
+                states.append(state.name().toLowerCase()).append('=').append(stateCounts[state.ordinal()])
+                        .append(' ');
+            System.out.println("bird-ticks by state: " + states.toString().trim());
+        }
+    }
+
+    private static void track(Path path, int birdId) throws IOException {
+        try (FlightRecording recording = FlightRecording.open(path)) {
+            FlightRecording.Frame frame = new FlightRecording.Frame();
+            System.out.println("tick,state,x,y,z,xd,yd,zd");
+            while (recording.next(frame)) {
+                int i = frame.indexOf(birdId);
+                if (i < 0)
+                    continue;
+                System.out.printf("%d,%s,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f%n", frame.tick(), frame.state(i),
+                        frame.x(i), frame.y(i), frame.z(i), frame.xd(i), frame.yd(i), frame.zd(i));
+            }
+        }
+    }
+
+    private static boolean diff(Path expected, Path actual, double tolerance) throws IOException {
+        try (FlightRecording a = FlightRecording.open(expected); FlightRecording b = FlightRecording.open(actual)) {
+            FlightDiff.Divergence divergence = FlightDiff.compare(a, b, tolerance);
+            if (divergence == null) {
+                System.out.println("Recordings match");
+                return true;
+            }
+            System.out.println("First divergence at " + divergence);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package nms.atmosphericfauna.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Reads frames written by a FrameEncoder, in the order they were encoded. A
+// frame cut short throws BufferUnderflowException and leaves the decoder in
+// an undefined state.
+public final class FrameDecoder {
+
+    private final Map<Integer, FrameEncoder.Track> tracks = new HashMap<>();
+    private final double scale;
+    private long frameIndex = 0;
+    private long tick = 0;
+
+    public FrameDecoder(int scale) {
+        this.scale = scale;
+    }
+
+    public void reset() {
+        tracks.clear();
+        frameIndex = 0;
+        tick = 0;
+    }
+
+    // Decodes the next frame from buffer into frame
+    public void decode(ByteBuffer buffer, FlightRecording.Frame frame) throws IOException {
+        long delta = readVarLong(buffer);
+        tick = frameIndex == 0 ? delta : tick + delta;
+        int size = (int) readVarLong(buffer);
+        frame.ensure(size);
+        frame.tick = tick;
+        frame.size = size;
+        frame.scale = scale;
+
+        int id = 0;
+        for (int i = 0; i < size; i++) {
+            id += (int) unzigzag(readVarLong(buffer));
+            int flags = buffer.get() & 0xFF;
+
+            FrameEncoder.Track track;
+            if ((flags & FrameEncoder.FLAG_NEW) != 0) {
+                track = new FrameEncoder.Track();
+                track.species = readString(buffer);
+                tracks.put(id, track);
+            } else {
+                track = tracks.get(id);
+                if (track == null)
+                    throw new IOException("bird " + id + " continues without a start at tick " + tick);
+            }
+
+            if ((flags & FrameEncoder.FLAG_STILL) == 0) {
+                long rx = unzigzag(readVarLong(buffer));
+                long ry = unzigzag(readVarLong(buffer));
+                long rz = unzigzag(readVarLong(buffer));
+                track.xd += unzigzag(readVarLong(buffer));
+                track.yd += unzigzag(readVarLong(buffer));
+                track.zd += unzigzag(readVarLong(buffer));
+                track.x += track.xd + rx;
+                track.y += track.yd + ry;
+                track.z += track.zd + rz;
+            } else {
+                track.x += track.xd;
+                track.y += track.yd;
+                track.z += track.zd;
+            }
+            track.frame = frameIndex;
+
+            frame.ids[i] = id;
+            frame.species[i] = track.species;
+            frame.states[i] = (byte) (flags & FrameEncoder.STATE_MASK);
+            int base = i * 6;
+            frame.values[base] = track.x;
+            frame.values[base + 1] = track.y;
+            frame.values[base + 2] = track.z;
+            frame.values[base + 3] = track.xd;
+            frame.values[base + 4] = track.yd;
+            frame.values[base + 5] = track.zd;
+        }
+
+        long current = frameIndex;
+        tracks.values().removeIf(t -> t.frame != current);
+        frameIndex++;
+    }
+
+    // --- HELPERS ---
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IOException("malformed varint at offset " + buffer.position());
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = (int) readVarLong(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,156 @@
+package nms.atmosphericfauna.recording;
+
+import nms.atmosphericfauna.bird.Bird;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Encodes one frame per call: varint tick delta, varint bird count, then per
+// bird a zigzag varint id delta, a flags byte and six zigzag varints. Positions
+// and velocities are quantized to 1/SCALE of a block. Velocities are stored as
+// the change since the bird's previous frame, positions as the error of
+// "previous position plus current velocity", which is exactly how birds
+// integrate, so a steady flyer costs about one byte per value and a perched
+// bird only its id and flags.
+//
+// Frames only make sense in order, read by a FrameDecoder that saw every
+// earlier frame of the same encoder. Used for flight recordings and for
+// server flock sync.
+public final class FrameEncoder {
+
+    public static final int SCALE = 4096;
+
+    // Flags byte: low three bits are the BirdState ordinal
+    static final int STATE_MASK = 0x07;
+    static final int FLAG_NEW = 0x08; // first frame of this bird, species follows
+    static final int FLAG_STILL = 0x10; // all six residuals are zero and omitted
+
+    private final Map<Integer, Track> tracks = new HashMap<>();
+    private byte[] buffer = new byte[4096];
+    private int length = 0;
+
+    private long lastTick = 0;
+    private long frames = 0;
+
+    // Last quantized values encoded for one bird
+    static final class Track {
+        String species;
+        long x, y, z, xd, yd, zd;
+        long frame;
+    }
+
+    // --- ENCODING ---
+
+    // Encodes the birds as the next frame, the bytes are in getBuffer() up to
+    // the returned length until the next call
+    public int encode(long tick, List<Bird> birds) {
+        length = 0;
+
+        writeVarLong(frames == 0 ? tick : tick - lastTick);
+        writeVarLong(birds.size());
+
+        int lastId = 0;
+        for (int i = 0, n = birds.size(); i < n; i++) {
+            Bird bird = birds.get(i);
+            writeVarLong(zigzag(bird.getId() - lastId));
+            lastId = bird.getId();
+
+            long x = quantize(bird.getX());
+            long y = quantize(bird.getY());
+            long z = quantize(bird.getZ());
+            long xd = quantize(bird.getXd());
+            long yd = quantize(bird.getYd());
+            long zd = quantize(bird.getZd());
+
+            Track track = tracks.get(bird.getId());
+            int flags = bird.getState().ordinal() & STATE_MASK;
+            if (track == null) {
+                track = new Track();
+                track.species = bird.getSpecies().getName();
+                tracks.put(bird.getId(), track);
+                flags |= FLAG_NEW;
+            }
+
+            long rxd = xd - track.xd;
+            long ryd = yd - track.yd;
+            long rzd = zd - track.zd;
+            long rx = x - (track.x + xd);
+            long ry = y - (track.y + yd);
+            long rz = z - (track.z + zd);
+            if ((flags & FLAG_NEW) == 0 && (rx | ry | rz | rxd | ryd | rzd) == 0)
+                flags |= FLAG_STILL;
+
+            ensure(1);
+            buffer[length++] = (byte) flags;
+            if ((flags & FLAG_NEW) != 0)
+                writeString(track.species);
+            if ((flags & FLAG_STILL) == 0) {
+                writeVarLong(zigzag(rx));
+                writeVarLong(zigzag(ry));
+                writeVarLong(zigzag(rz));
+                writeVarLong(zigzag(rxd));
+                writeVarLong(zigzag(ryd));
+                writeVarLong(zigzag(rzd));
+            }
+
+            track.x = x;
+            track.y = y;
+            track.z = z;
+            track.xd = xd;
+            track.yd = yd;
+            track.zd = zd;
+            track.frame = frames;
+        }
+
+        // Birds missing from this frame start over if they come back
+        long frame = frames;
+        tracks.values().removeIf(t -> t.frame != frame);
+
+        lastTick = tick;
+        frames++;
+        return length;
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    // --- HELPERS ---
+
+    static long quantize(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+
+    private void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+}
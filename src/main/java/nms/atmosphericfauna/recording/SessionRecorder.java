@@ -0,0 +1,69 @@
+package nms.atmosphericfauna.recording;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.multiplayer.ClientLevel;
+
+// Records the client's birds while the debug option is on. Each level (and each
+// population reset) gets its own file in <game dir>/atmospheric-fauna/recordings.
+public final class SessionRecorder {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static FlightRecorder recorder = null;
+    private static BirdPopulation recordedPopulation = null;
+    private static boolean failed = false;
+
+    private SessionRecorder() {
+    }
+
+    public static void tick(ClientLevel level) {
+        if (!FaunaConfig.get().recordFlights()) {
+            stop();
+            failed = false;
+            return;
+        }
+        if (failed)
+            return;
+
+        BirdPopulation population = ClientFaunaWorld.of(level).getPopulation();
+        try {
+            if (recorder == null || recordedPopulation != population) {
+                stop();
+                Path path = FabricLoader.getInstance().getGameDir().resolve(AtmosphericFauna.MOD_ID)
+                        .resolve("recordings").resolve("flight_" + LocalDateTime.now().format(FILE_TIME) + ".afr");
+                recorder = FlightRecorder.create(path, 0L);
+                recordedPopulation = population;
+                AtmosphericFauna.LOGGER.info("Recording bird flights to {}", path);
+            }
+            recorder.writeFrame(level.getGameTime(), population);
+        } catch (IOException e) {
+            // Don't retry every tick, toggling the option starts over
+            AtmosphericFauna.LOGGER.error("Failed to record bird flights", e);
+            failed = true;
+            stop();
+        }
+    }
+
+    public static void stop() {
+        if (recorder == null)
+            return;
+        try {
+            recorder.close();
+            AtmosphericFauna.LOGGER.info("Stopped recording bird flights after {} frames ({} bytes)",
+                    recorder.getFrames(), recorder.getBytesWritten());
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.error("Failed to close flight recording", e);
+        }
+        recorder = null;
+        recordedPopulation = null;
+    }
+}
@@ -0,0 +1,62 @@
+package nms.atmosphericfauna.simulation;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.SyntheticFaunaWorld;
+
+import net.minecraft.util.RandomSource;
+
+// Estimates retained heap per bird: measures used heap after a full GC before
+// and after creating a large population, then ticks it so lazily filled state
+// (perches, landing targets, scratch lists) is included.
+//
+// ./gradlew runHeadless -PsimArgs="--footprint=200000"
+public final class FootprintProbe {
+
+    private FootprintProbe() {
+    }
+
+    public static double bytesPerBird(int birds, int ticks) {
+        SyntheticFaunaWorld world = new SyntheticFaunaWorld(1L);
+        Species crow = SpeciesRegistry.get(SpeciesRegistry.CROW);
+        RandomSource random = RandomSource.create(1L);
+
+        long before = usedHeap();
+        BirdPopulation population = new BirdPopulation(RandomSource.create(2L));
+        // Spread out so neighbor queries stay cheap while ticking
+        double side = Math.sqrt(birds) * 48.0;
+        for (int i = 0; i < birds; i++) {
+            double x = random.nextDouble() * side;
+            double z = random.nextDouble() * side;
+            new Bird(crow, world, population, x, world.getTerrainHeight((int) x, (int) z) + 4.0, z, 0, 0, 0);
+        }
+        for (int t = 0; t < ticks; t++) {
+            world.tick();
+            population.tick(world);
+        }
+        // The obstacle field belongs to the world and is shared by a flock, the
+        // probe spreads birds out so each would pay for a whole neighborhood
+        world.getObstacles().clear();
+        long after = usedHeap();
+
+        double perBird = (after - before) / (double) population.size();
+        if (population.size() == 0)
+            throw new IllegalStateException("No birds survived");
+        return perBird;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
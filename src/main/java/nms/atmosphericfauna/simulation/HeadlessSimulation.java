@@ -0,0 +1,230 @@
+package nms.atmosphericfauna.simulation;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.bird.BirdState;
+import nms.atmosphericfauna.bird.FlockingKernel;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.recording.FlightRecorder;
+import nms.atmosphericfauna.spawning.AmbientSpawning;
+import nms.atmosphericfauna.spawning.SpawnMetrics;
+import nms.atmosphericfauna.world.SyntheticFaunaWorld;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.phys.Vec3;
+
+// Runs birds against a SyntheticFaunaWorld without a client. Everything is
+// derived from one seed, so the same options always produce the same
+// trajectories and the same checksum.
+//
+// ./gradlew runHeadless -PsimArgs="--birds=2000 --ticks=2400 --seed=7"
+//
+// --weather=clear|rain|thunder sets the weather, and with it the wind.
+// --record=<file> writes every tick to a flight recording, see FlightTool.
+// --footprint=<birds> only reports the retained heap per bird.
+public class HeadlessSimulation {
+
+    public enum Weather {
+        CLEAR, RAIN, THUNDER
+    }
+
+    public record Options(long seed, int birds, int ticks, int players, int spawnTickDelay, Weather weather,
+            Path record) {
+        public static Options parse(String[] args) {
+            long seed = 1;
+            int birds = 1000;
+            int ticks = 1200;
+            int players = 1;
+            int spawnTickDelay = FaunaConfig.get().spawnTickDelay();
+            Weather weather = Weather.CLEAR;
+            Path record = null;
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length != 2)
+                    throw new IllegalArgumentException("Expected --key=value, got " + arg);
+                switch (kv[0]) {
+                    case "seed" -> seed = Long.parseLong(kv[1]);
+                    case "birds" -> birds = Integer.parseInt(kv[1]);
+                    case "ticks" -> ticks = Integer.parseInt(kv[1]);
+                    case "players" -> players = Integer.parseInt(kv[1]);
+                    case "spawnTickDelay" -> spawnTickDelay = Integer.parseInt(kv[1]);
+                    case "weather" -> weather = Weather.valueOf(kv[1].toUpperCase(Locale.ROOT));
+                    case "record" -> record = Path.of(kv[1]);
+                    default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                }
+            }
+            return new Options(seed, birds, ticks, players, spawnTickDelay, weather, record);
+        }
+    }
+
+    public record Result(int ticks, long nanos, long birdTicks, int finalBirds, int[] stateCounts, long checksum) {
+        public double birdTicksPerSecond() {
+            return nanos == 0 ? 0.0 : birdTicks * 1.0e9 / nanos;
+        }
+    }
+
+    private final Options options;
+    private final SyntheticFaunaWorld world;
+    private final BirdPopulation population;
+    private final RandomSource random;
+    private final AmbientSpawning.Spawner spawner;
+    private FlightRecorder recorder = null;
+
+    public HeadlessSimulation(Options options) {
+        this.options = options;
+        this.world = new SyntheticFaunaWorld(options.seed());
+        this.random = RandomSource.create(options.seed());
+        this.population = new BirdPopulation(RandomSource.create(options.seed() * 31 + 1));
+        this.spawner = AmbientSpawning.directSpawner(world, population);
+        world.setWeather(options.weather() != Weather.CLEAR, options.weather() == Weather.THUNDER);
+
+        // Players stand on a ring so spawning and scaring both get exercised
+        for (int i = 0; i < options.players(); i++) {
+            double angle = Math.PI * 2 * i / Math.max(1, options.players());
+            int px = (int) (Math.cos(angle) * 64 * i);
+            int pz = (int) (Math.sin(angle) * 64 * i);
+            world.getPlayers().add(new Vec3(px + 0.5, world.getTerrainHeight(px, pz) + 1.0, pz + 0.5));
+        }
+    }
+
+    public SyntheticFaunaWorld getWorld() {
+        return world;
+    }
+
+    public BirdPopulation getPopulation() {
+        return population;
+    }
+
+    // Every following tick is written to the recorder, the caller closes it
+    public void setRecorder(FlightRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Spawns packs until the target count is reached or the terrain runs out of
+    // valid spots
+    public void populate() {
+        int failures = 0;
+        while (population.size() < options.birds() && failures < 1000) {
+            int before = population.size();
+            AmbientSpawning.runSpawnAttempt(world, population, random, spawner);
+            failures = population.size() > before ? 0 : failures + 1;
+        }
+    }
+
+    public void tick() {
+        world.tick();
+        walkPlayers();
+        population.tick(world);
+        if (options.spawnTickDelay() > 0 && world.getGameTime() % options.spawnTickDelay() == 0)
+            AmbientSpawning.runSpawnAttempt(world, population, random, spawner);
+
+        if (recorder != null) {
+            try {
+                recorder.writeFrame(world.getGameTime(), population);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Players walk slow circles, at a pace that regularly reaches perched birds
+    private void walkPlayers() {
+        List<Vec3> players = world.getPlayers();
+        double step = world.getGameTime() * 0.002;
+        for (int i = 0; i < players.size(); i++) {
+            Vec3 p = players.get(i);
+            double x = p.x + Math.cos(step + i) * 0.2;
+            double z = p.z + Math.sin(step + i) * 0.2;
+            int bx = (int) Math.floor(x);
+            int bz = (int) Math.floor(z);
+            players.set(i, new Vec3(x, world.getTerrainHeight(bx, bz) + 1.0, z));
+        }
+    }
+
+    public Result run() {
+        long birdTicks = 0;
+        long start = System.nanoTime();
+        for (int t = 0; t < options.ticks(); t++) {
+            birdTicks += population.size();
+            tick();
+        }
+        long nanos = System.nanoTime() - start;
+
+        int[] stateCounts = new int[BirdState.values().length];
+        for (Bird bird : population.getBirds())
+            stateCounts[bird.getState().ordinal()]++;
+
+        return new Result(options.ticks(), nanos, birdTicks, population.size(), stateCounts, checksum(population));
+    }
+
+    // Order-sensitive hash of every bird's position quantized to 1/1024 of a block
+    public static long checksum(BirdPopulation population) {
+        long hash = 1125899906842597L;
+        for (Bird bird : population.getBirds()) {
+            hash = 31 * hash + bird.getId();
+            hash = 31 * hash + Math.round(bird.getX() * 1024.0);
+            hash = 31 * hash + Math.round(bird.getY() * 1024.0);
+            hash = 31 * hash + Math.round(bird.getZ() * 1024.0);
+            hash = 31 * hash + bird.getState().ordinal();
+        }
+        return hash;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 1 && args[0].startsWith("--footprint=")) {
+            int birds = Integer.parseInt(args[0].substring("--footprint=".length()));
+            System.out.printf("%.1f retained bytes per bird (%d birds)%n", FootprintProbe.bytesPerBird(birds, 20),
+                    birds);
+            return;
+        }
+
+        Options options = Options.parse(args);
+
+        // Headless runs decide their own population size
+        FaunaConfig.update(data -> {
+            data.birds.maxActiveBirds = options.birds();
+            data.birds.maxActiveCrows = options.birds();
+        });
+
+        HeadlessSimulation simulation = new HeadlessSimulation(options);
+        simulation.populate();
+        int spawned = simulation.getPopulation().size();
+
+        FlightRecorder recorder = null;
+        if (options.record() != null) {
+            recorder = FlightRecorder.create(options.record(), options.seed());
+            simulation.setRecorder(recorder);
+        }
+
+        Result result = simulation.run();
+
+        if (recorder != null)
+            recorder.close();
+
+        System.out.printf("seed=%d birds=%d (spawned %d) ticks=%d weather=%s%n", options.seed(), options.birds(),
+                spawned, result.ticks(), options.weather().name().toLowerCase(Locale.ROOT));
+        System.out.printf("time=%.1f ms  %.1f us/tick  %.0f bird-ticks/s%n", result.nanos() / 1.0e6,
+                result.nanos() / 1.0e3 / Math.max(1, result.ticks()), result.birdTicksPerSecond());
+        StringBuilder states = new StringBuilder();
+        for (BirdState state : BirdState.values())
+            states.append(state.name().toLowerCase()).append('=').append(result.stateCounts()[state.ordinal()])
+                    .append(' ');
+        System.out.println("final birds=" + result.finalBirds() + "  " + states.toString().trim());
+        for (String line : SpawnMetrics.report())
+            System.out.println(line);
+        System.out.printf("bird objects: %d created, %d reused%n", simulation.getPopulation().getBirdsCreated(),
+                simulation.getPopulation().getBirdsReused());
+        System.out.println("flocking kernel: " + (FlockingKernel.isVectorized()
+                ? "vector, " + FlockingKernel.getLanes() + " lanes" : "scalar"));
+        System.out.printf("checksum=%016x%n", result.checksum());
+        if (recorder != null)
+            System.out.printf("recorded %d frames to %s: %d bytes, %.2f bytes/bird-tick%n", recorder.getFrames(),
+                    options.record(), recorder.getBytesWritten(),
+                    recorder.getBytesWritten() / (double) Math.max(1, recorder.getBirdSamples()));
+    }
+}
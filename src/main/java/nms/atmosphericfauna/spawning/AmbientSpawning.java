@@ -1,183 +1,198 @@
 package nms.atmosphericfauna.spawning;
 
 import nms.atmosphericfauna.AtmosphericFauna;
-import nms.atmosphericfauna.particle.BaseBirdParticle;
-import nms.atmosphericfauna.particle.CrowParticle;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.debug.jfr.SpawnCycleEvent;
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.network.ClientFlockSync;
+import nms.atmosphericfauna.particle.BirdParticle;
+import nms.atmosphericfauna.performance.FaunaTimings;
+import nms.atmosphericfauna.performance.PopulationGovernor;
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesProfile.SpawnRules;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+import nms.atmosphericfauna.world.FaunaWorld;
 
 import java.util.List;
-import java.util.function.IntSupplier;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.particles.SimpleParticleType;
-import net.minecraft.tags.BiomeTags;
-import net.minecraft.tags.BlockTags;
-import net.minecraft.tags.TagKey;
 // import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.levelgen.Heightmap;
-import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.Block;
+import net.minecraft.world.phys.Vec3;
 
 public class AmbientSpawning {
 
-    // --- CONFIG STUFF ---
-
-    public static boolean debugText = false;
-    public static boolean spawnBelowSeaLevel = false;
-    public static boolean enableAmbientSpawning = true;
-
-    // --- SPAWN DATA CONSTANTS ---
-
-    private record SpawnData(
-            SimpleParticleType particleType,
-            int weight,
-            int minPackSize,
-            int maxPackSize,
-            int minLightLevel,
-            int maxLightLevel,
-            boolean spawnInBadWeather,
-            boolean spawnDuringDay,
-            boolean spawnDuringNight,
-            TagKey<Biome> validBiomeTag,
-            List<TagKey<Block>> validSpawnBlocks,
-            IntSupplier availableSpots) {
+    // Reused by every spawn cycle, cycles never run concurrently
+    private static final RegionDensityGrid GRID = new RegionDensityGrid();
+
+    // Set from outside the game through FaunaMetrics, stops every spawn
+    // source on both sides until cleared
+    private static volatile boolean paused = false;
+
+    // Places a bird of the given species, as a particle in game or directly
+    // into a population when running headless
+    @FunctionalInterface
+    public interface Spawner {
+        void spawn(Species species, double x, double y, double z);
     }
 
-    private static final SpawnData CROW_SPAWN_DATA = new SpawnData(
-            AtmosphericFauna.CROW,
-            30, // weight
-            3, 9, // pack size
-            8, 15, // light level
-            true, // spawn in bad weather
-            true, // spawn during day
-            true, // spawn during night
-            BiomeTags.IS_OVERWORLD, // valid biome
-            List.of(
-                    BlockTags.DIRT,
-                    BlockTags.LEAVES,
-                    BlockTags.LOGS,
-                    BlockTags.SAND,
-                    BlockTags.SNOW,
-                    BlockTags.BASE_STONE_OVERWORLD), // valid spawn blocks
-            () -> Math.max(0, CrowParticle.maxActiveCrows - CrowParticle.getCount())); // max bird count
-
-    private static final List<SpawnData> SPAWN_DATA_LIST = List.of(
-            CROW_SPAWN_DATA
-    // Future bird types can be added here
-    );
-
-    public static int spawnRangeFromPlayer = 96;
-    private static final int TOTAL_SPAWN_WEIGHT = SPAWN_DATA_LIST.stream().mapToInt(SpawnData::weight).sum();
-    public static int spawnTickDelay = 200;
-    public static int attemptsPerTick = 15;
-    public static int searchRadius = 12;
+    public static boolean isPaused() {
+        return paused;
+    }
+
+    public static void setPaused(boolean value) {
+        paused = value;
+    }
 
     // --- SPAWN LOGIC ---
 
     public static void tick(ClientLevel world) {
-        if ((world.getGameTime() % spawnTickDelay != 0) || !enableAmbientSpawning) {
+        FaunaConfig config = FaunaConfig.get();
+        int spawnTickDelay = PopulationGovernor.spawnTickDelay(config.spawnTickDelay());
+        if ((world.getGameTime() % spawnTickDelay != 0) || !config.enableAmbientSpawning() || paused) {
             return;
         }
         runSpawnAttempt(world);
     }
 
     public static void runSpawnAttempt(ClientLevel world) {
-        if (TOTAL_SPAWN_WEIGHT <= 0) {
+        // The server spawns for everyone
+        if (ClientFlockSync.isActive(world))
             return;
-        }
+        long start = System.nanoTime();
+        ClientFaunaWorld view = ClientFaunaWorld.of(world);
+        runSpawnAttempt(view, view.getPopulation(), world.getRandom(),
+                (species, x, y, z) -> BirdParticle.spawn(world, species, x, y, z));
+        FaunaTimings.addSpawning(System.nanoTime() - start);
+    }
 
-        RandomSource random = world.getRandom();
-        int choice = random.nextInt(TOTAL_SPAWN_WEIGHT);
+    // Spawner that creates birds straight into a population, without particles
+    public static Spawner directSpawner(FaunaWorld world, BirdPopulation population) {
+        return (species, x, y, z) -> population.obtain(species, world, x, y, z, 0, 0, 0);
+    }
 
-        SpawnData selectedSpawn = null;
-        int cumulativeWeight = 0;
-        for (SpawnData data : SPAWN_DATA_LIST) {
-            cumulativeWeight += data.weight();
-            if (choice < cumulativeWeight) {
-                selectedSpawn = data;
-                break;
-            }
+    public static void runSpawnAttempt(FaunaWorld world, BirdPopulation population, RandomSource random,
+            Spawner spawner) {
+        SpawnTables tables = SpeciesRegistry.snapshot().tables();
+        if (tables.isEmpty()) {
+            return;
         }
 
-        if (selectedSpawn != null) {
-            trySpawn(world, random, selectedSpawn);
-        }
+        trySpawn(world, population, random, tables, spawner);
     }
 
-    private synchronized static void trySpawn(ClientLevel world, RandomSource random, SpawnData spawnData) {
-        if (debugText)
-            AtmosphericFauna.LOGGER.info("Ambient spawning cycle started...");
+    private synchronized static void trySpawn(FaunaWorld world, BirdPopulation population, RandomSource random,
+            SpawnTables tables, Spawner spawner) {
+        SpawnCycleEvent event = new SpawnCycleEvent();
+        event.begin();
 
-        int availableGlobalSpots = Math.max(0, BaseBirdParticle.maxActiveBirds - BaseBirdParticle.ALL_BIRDS.size());
-        int availableTypedSpots = spawnData.availableSpots().getAsInt();
-        int availableSpots = Math.min(availableGlobalSpots, availableTypedSpots);
+        SpawnRejection rejection = spawnCycle(world, population, random, tables, spawner, event);
+        SpawnMetrics.recordCycle(rejection);
 
-        if (availableSpots < spawnData.minPackSize()) {
-            return;
+        if (event.shouldCommit()) {
+            event.rejection = rejection.name();
+            event.commit();
         }
+    }
 
-        if (!spawnData.spawnInBadWeather() && (world.isRaining() || world.isThundering())) {
-            return;
+    // Runs one spawn cycle and reports why it failed, if it did. Each attempt
+    // samples a spot first and then picks among the species that may spawn
+    // there. Attempt and pack counters are written to the event as they happen.
+    private static SpawnRejection spawnCycle(FaunaWorld world, BirdPopulation population, RandomSource random,
+            SpawnTables tables, Spawner spawner, SpawnCycleEvent event) {
+        FaunaConfig config = FaunaConfig.get();
+        if (config.debugSpawning())
+            AtmosphericFauna.LOGGER.info("Ambient spawning cycle started...");
+
+        // Caps as scaled by the governor, unchanged when it is off
+        int globalCap = PopulationGovernor.cap(config.maxActiveBirds());
+        int availableGlobalSpots = Math.max(0, globalCap - population.size());
+
+        if (availableGlobalSpots < tables.getMinPackSize()) {
+            return SpawnRejection.NO_CAPACITY;
         }
 
-        // Only spawn if time of day is right
+        // Weather and time of day are the same for every attempt
         boolean isDay = world.getDayTime() % 24000 < 12000;
-        if ((!spawnData.spawnDuringDay() && isDay) || (!spawnData.spawnDuringNight() && !isDay)) {
-            return;
+        boolean badWeather = world.isRaining() || world.isThundering();
+        int condition = SpawnTables.condition(isDay, badWeather);
+        if (!tables.allows(condition)) {
+            return tables.allowsTime(isDay) ? SpawnRejection.BAD_WEATHER : SpawnRejection.WRONG_TIME;
         }
 
         // Gather eligible players
-        var players = world.players().stream().filter(p -> !p.isSpectator()).toList();
+        var players = world.players();
         if (players.isEmpty())
-            return;
+            return SpawnRejection.NO_PLAYERS;
+
+        boolean foundAnyCenter = false;
+        boolean foundAnyRegion = false;
+        boolean foundAnySpecies = false;
+        boolean searchedAnyLocation = false;
+        Vec3 gridPlayer = null;
 
         // Try several candidate positions to increase robustness
-        for (int attempt = 0; attempt < attemptsPerTick; attempt++) {
+        for (int attempt = 0; attempt < config.attemptsPerTick(); attempt++) {
+            event.attempts++;
             var player = players.get(random.nextInt(players.size()));
-            BlockPos playerPos = player.blockPosition();
-
-            double angle = random.nextFloat() * Math.PI * 2;
-            double minDist = spawnRangeFromPlayer / 2.0;
-            double distance = minDist + random.nextFloat() * (spawnRangeFromPlayer - minDist);
 
-            int baseX = playerPos.getX() + (int) (Math.cos(angle) * distance);
-            int baseZ = playerPos.getZ() + (int) (Math.sin(angle) * distance);
-
-            BlockPos foundCenter = findValidSpawnNear(world, random, baseX, baseZ, spawnData, searchRadius, 12);
+            // Aim for a region around this player that is short of birds
+            if (player != gridPlayer) {
+                GRID.fill(population.getBirds(), player.x, player.z, config.spawnRangeFromPlayer() / 2.0,
+                        config.spawnRangeFromPlayer(), globalCap);
+                gridPlayer = player;
+            }
+            int region = GRID.pickUnderpopulated(random);
+            if (region < 0)
+                continue;
+            foundAnyRegion = true;
+
+            int baseX = GRID.randomX(region, random);
+            int baseZ = GRID.randomZ(region, random);
+
+            // Only species that may spawn in the biome found here
+            int baseY = world.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, baseX, baseZ);
+            long biome = tables.biomeSignature(world, new BlockPos(baseX, baseY, baseZ));
+            Species species = tables.pick(biome, condition, random);
+            if (species == null)
+                continue;
+            foundAnySpecies = true;
+            event.species = species.getName();
+
+            // One profile for the whole attempt, even if resources reload meanwhile
+            SpawnRules rules = species.getProfile().spawning();
+            SpawnMetrics.SpeciesStats stats = SpawnMetrics.forSpecies(species);
+
+            int availableTypedSpots = Math.max(0,
+                    PopulationGovernor.cap(SpeciesRegistry.maxActive(species)) - population.count(species));
+            int availableSpots = Math.min(availableGlobalSpots, availableTypedSpots);
+            if (availableSpots < rules.minPackSize())
+                continue;
+            searchedAnyLocation = true;
+
+            BlockPos foundCenter = findValidSpawnNear(world, random, baseX, baseZ, rules, config.searchRadius(), 12,
+                    stats);
 
             if (foundCenter != null) {
+                foundAnyCenter = true;
+
                 // Determine pack size
-                int maxPackSize = Math.min(spawnData.maxPackSize(), availableSpots);
-                int targetPackSize = random.nextInt(maxPackSize - spawnData.minPackSize() + 1)
-                        + spawnData.minPackSize();
-
-                int spawnedCount = 0;
-                int failSafe = 0;
-
-                // Try to spawn the whole pack
-                while (spawnedCount < targetPackSize && failSafe < targetPackSize * 8) {
-                    failSafe++;
-
-                    int dx = random.nextInt(9) - 4;
-                    int dz = random.nextInt(9) - 4;
-
-                    BlockPos targetPos = foundCenter.offset(dx, 0, dz);
-                    targetPos = adjustToGround(world, targetPos);
-
-                    if (isValidSpawnLocation(world, targetPos, spawnData)) {
-                        world.addParticle(spawnData.particleType(),
-                                targetPos.getX() + 0.5,
-                                targetPos.getY() + 0.5,
-                                targetPos.getZ() + 0.5,
-                                0, 0, 0); // velocity x, y, z
-                        spawnedCount++;
-                    }
-                }
+                // Don't overfill the region, but always allow the smallest pack
+                int maxPackSize = Math.min(rules.maxPackSize(), availableSpots);
+                maxPackSize = Math.max(rules.minPackSize(), Math.min(maxPackSize, GRID.deficit(region)));
+                int targetPackSize = random.nextInt(maxPackSize - rules.minPackSize() + 1)
+                        + rules.minPackSize();
+                event.targetPackSize = targetPackSize;
+
+                int spawnedCount = spawnPack(world, random, foundCenter, species, rules, targetPackSize, stats,
+                        spawner);
 
-                if (debugText) {
+                if (config.debugSpawning()) {
                     if (spawnedCount >= targetPackSize) {
                         AtmosphericFauna.LOGGER
-                                .info("SUCCESS: Spawned pack of " + spawnedCount + " crows at "
+                                .info("SUCCESS: Spawned pack of " + spawnedCount + " " + species + " at "
                                         + foundCenter.toShortString());
                     } else {
                         AtmosphericFauna.LOGGER.info(
@@ -186,15 +201,225 @@ public class AmbientSpawning {
                     }
                 }
 
+                event.packSize = spawnedCount;
+                stats.recordPack(targetPackSize, spawnedCount);
+
                 if (spawnedCount > 0)
-                    return;
+                    return SpawnRejection.NONE;
             }
         }
+
+        if (!foundAnyRegion)
+            return SpawnRejection.REGIONS_FULL;
+        if (!foundAnySpecies)
+            return SpawnRejection.WRONG_BIOME;
+        if (!searchedAnyLocation)
+            return SpawnRejection.NO_CAPACITY;
+        return foundAnyCenter ? SpawnRejection.NO_PACK_PLACEMENT : SpawnRejection.NO_VALID_LOCATION;
+    }
+
+    // --- CHUNKS ---
+
+    // Columns of a newly loaded chunk sampled for a pack center
+    private static final int CHUNK_SAMPLES = 4;
+
+    // Evaluates one chunk that just loaded: samples a few of its columns and
+    // places a pack at the first that suits a species allowed there. Chunks
+    // close to a player are left to the regular spawn cycle, and a chunk is
+    // skipped when it and its neighbors already hold the share of the cap an
+    // even spread over the spawn range would give them.
+    public synchronized static SpawnRejection spawnInChunk(FaunaWorld world, BirdPopulation population,
+            RandomSource random, int chunkX, int chunkZ, Spawner spawner) {
+        SpawnRejection rejection = chunkCycle(world, population, random, chunkX, chunkZ, spawner);
+        SpawnMetrics.recordChunk(rejection);
+        return rejection;
+    }
+
+    private static SpawnRejection chunkCycle(FaunaWorld world, BirdPopulation population, RandomSource random,
+            int chunkX, int chunkZ, Spawner spawner) {
+        FaunaConfig config = FaunaConfig.get();
+        SpawnTables tables = SpeciesRegistry.snapshot().tables();
+        int globalCap = PopulationGovernor.cap(config.maxActiveBirds());
+        int availableGlobalSpots = Math.max(0, globalCap - population.size());
+        if (tables.isEmpty() || availableGlobalSpots < tables.getMinPackSize())
+            return SpawnRejection.NO_CAPACITY;
+
+        boolean isDay = world.getDayTime() % 24000 < 12000;
+        boolean badWeather = world.isRaining() || world.isThundering();
+        int condition = SpawnTables.condition(isDay, badWeather);
+        if (!tables.allows(condition))
+            return tables.allowsTime(isDay) ? SpawnRejection.BAD_WEATHER : SpawnRejection.WRONG_TIME;
+
+        var players = world.players();
+        if (players.isEmpty())
+            return SpawnRejection.NO_PLAYERS;
+        double centerX = (chunkX << 4) + 8.0;
+        double centerZ = (chunkZ << 4) + 8.0;
+        double minDistance = config.spawnRangeFromPlayer() / 2.0;
+        for (Vec3 player : players) {
+            double dx = player.x - centerX;
+            double dz = player.z - centerZ;
+            if (dx * dx + dz * dz < minDistance * minDistance)
+                return SpawnRejection.NEAR_PLAYER;
+        }
+
+        double range = config.spawnRangeFromPlayer();
+        double chunksInRange = Math.PI * range * range / 256.0;
+        int share = (int) Math.ceil(globalCap * 9 / chunksInRange);
+        if (population.countAround(chunkX, chunkZ, 1) >= share)
+            return SpawnRejection.REGIONS_FULL;
+
+        boolean foundAnySpecies = false;
+        boolean searchedAnyLocation = false;
+        boolean foundAnyCenter = false;
+        for (int sample = 0; sample < CHUNK_SAMPLES; sample++) {
+            int x = (chunkX << 4) + random.nextInt(16);
+            int z = (chunkZ << 4) + random.nextInt(16);
+            BlockPos center = new BlockPos(x, world.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z), z);
+
+            Species species = tables.pick(tables.biomeSignature(world, center), condition, random);
+            if (species == null)
+                continue;
+            foundAnySpecies = true;
+
+            SpawnRules rules = species.getProfile().spawning();
+            SpawnMetrics.SpeciesStats stats = SpawnMetrics.forSpecies(species);
+            int availableTypedSpots = Math.max(0,
+                    PopulationGovernor.cap(SpeciesRegistry.maxActive(species)) - population.count(species));
+            int availableSpots = Math.min(availableGlobalSpots, availableTypedSpots);
+            if (availableSpots < rules.minPackSize())
+                continue;
+            searchedAnyLocation = true;
+
+            LocationRejection result = checkSpawnLocation(world, center, rules);
+            stats.record(SpawnMetrics.Stage.SEARCH, result);
+            if (result != LocationRejection.NONE)
+                continue;
+            foundAnyCenter = true;
+
+            int maxPackSize = Math.min(rules.maxPackSize(), availableSpots);
+            int targetPackSize = random.nextInt(maxPackSize - rules.minPackSize() + 1) + rules.minPackSize();
+            int spawnedCount = spawnPack(world, random, center, species, rules, targetPackSize, stats, spawner);
+            stats.recordPack(targetPackSize, spawnedCount);
+
+            if (config.debugSpawning())
+                AtmosphericFauna.LOGGER.info("CHUNK: Spawned " + spawnedCount + " " + species + " at "
+                        + center.toShortString());
+            if (spawnedCount > 0)
+                return SpawnRejection.NONE;
+        }
+
+        if (!foundAnySpecies)
+            return SpawnRejection.WRONG_BIOME;
+        if (!searchedAnyLocation)
+            return SpawnRejection.NO_CAPACITY;
+        return foundAnyCenter ? SpawnRejection.NO_PACK_PLACEMENT : SpawnRejection.NO_VALID_LOCATION;
+    }
+
+    // Places up to targetPackSize birds on valid spots around center, returns
+    // how many it placed
+    private static int spawnPack(FaunaWorld world, RandomSource random, BlockPos center, Species species,
+            SpawnRules rules, int targetPackSize, SpawnMetrics.SpeciesStats stats, Spawner spawner) {
+        int spawnedCount = 0;
+        int failSafe = 0;
+
+        // Try to spawn the whole pack
+        while (spawnedCount < targetPackSize && failSafe < targetPackSize * 8) {
+            failSafe++;
+
+            int dx = random.nextInt(9) - 4;
+            int dz = random.nextInt(9) - 4;
+
+            BlockPos targetPos = center.offset(dx, 0, dz);
+            targetPos = adjustToGround(world, targetPos);
+
+            LocationRejection result = checkSpawnLocation(world, targetPos, rules);
+            stats.record(SpawnMetrics.Stage.PACK, result);
+            if (result == LocationRejection.NONE) {
+                spawner.spawn(species,
+                        targetPos.getX() + 0.5,
+                        targetPos.getY() + 0.5,
+                        targetPos.getZ() + 0.5);
+                spawnedCount++;
+            }
+        }
+        return spawnedCount;
+    }
+
+    // --- ROOSTS ---
+
+    // Spawns a pack at the most visited roost of a chunk that just loaded,
+    // straight at the remembered spot without searching for one. A roost that
+    // can't take a single bird any more is forgotten. Returns whether a pack
+    // spawned.
+    public synchronized static boolean spawnAtRoost(FaunaWorld world, BirdPopulation population,
+            RandomSource random, RoostCache roosts, int chunkX, int chunkZ, Spawner spawner) {
+        List<RoostCache.Roost> candidates = roosts.get(chunkX, chunkZ);
+        if (candidates.isEmpty())
+            return false;
+
+        FaunaConfig config = FaunaConfig.get();
+        int availableGlobalSpots = Math.max(0, PopulationGovernor.cap(config.maxActiveBirds()) - population.size());
+        boolean isDay = world.getDayTime() % 24000 < 12000;
+        boolean badWeather = world.isRaining() || world.isThundering();
+        double rangeSq = (double) config.spawnRangeFromPlayer() * config.spawnRangeFromPlayer();
+
+        RoostCache.Roost best = null;
+        Species bestSpecies = null;
+        int bestSpots = 0;
+        for (RoostCache.Roost roost : candidates) {
+            if (best != null && roost.getVisits() <= best.getVisits())
+                continue;
+            Species species = SpeciesRegistry.find(roost.getSpecies());
+            if (species == null)
+                continue;
+            SpawnRules rules = species.getProfile().spawning();
+            if (rules.weight() <= 0 || (badWeather && !rules.spawnInBadWeather())
+                    || (isDay ? !rules.spawnDuringDay() : !rules.spawnDuringNight()))
+                continue;
+            int availableTypedSpots = Math.max(0,
+                    PopulationGovernor.cap(SpeciesRegistry.maxActive(species)) - population.count(species));
+            int availableSpots = Math.min(availableGlobalSpots, availableTypedSpots);
+            if (availableSpots < rules.minPackSize() || !nearPlayer(world, roost.getPos(), rangeSq))
+                continue;
+            best = roost;
+            bestSpecies = species;
+            bestSpots = availableSpots;
+        }
+        if (best == null)
+            return false;
+
+        SpawnRules rules = bestSpecies.getProfile().spawning();
+        SpawnMetrics.SpeciesStats stats = SpawnMetrics.forSpecies(bestSpecies);
+        int maxPackSize = Math.min(rules.maxPackSize(), bestSpots);
+        int targetPackSize = random.nextInt(maxPackSize - rules.minPackSize() + 1) + rules.minPackSize();
+
+        int spawnedCount = spawnPack(world, random, BlockPos.of(best.getPos()).above(), bestSpecies, rules,
+                targetPackSize, stats, spawner);
+        stats.recordPack(targetPackSize, spawnedCount);
+        stats.recordRoostPack();
+        if (spawnedCount == 0)
+            roosts.forget(best);
+
+        if (config.debugSpawning())
+            AtmosphericFauna.LOGGER.info("ROOST: Spawned " + spawnedCount + " " + bestSpecies + " at "
+                    + BlockPos.of(best.getPos()).toShortString());
+        return spawnedCount > 0;
+    }
+
+    private static boolean nearPlayer(FaunaWorld world, long pos, double rangeSq) {
+        for (Vec3 player : world.players()) {
+            double dx = BlockPos.getX(pos) + 0.5 - player.x;
+            double dz = BlockPos.getZ(pos) + 0.5 - player.z;
+            if (dx * dx + dz * dz <= rangeSq)
+                return true;
+        }
+        return false;
     }
 
     // Helper to snap a position to the nearest solid ground within 3 blocks
     // vertical
-    private static BlockPos adjustToGround(ClientLevel world, BlockPos pos) {
+    static BlockPos adjustToGround(FaunaWorld world, BlockPos pos) {
         if (!world.isEmptyBlock(pos.below()) && world.isEmptyBlock(pos))
             return pos;
 
@@ -207,8 +432,8 @@ public class AmbientSpawning {
         return pos;
     }
 
-    private static BlockPos findValidSpawnNear(ClientLevel world, RandomSource random, int centerX, int centerZ,
-            SpawnData spawnData, int radius, int samples) {
+    static BlockPos findValidSpawnNear(FaunaWorld world, RandomSource random, int centerX, int centerZ,
+            SpawnRules rules, int radius, int samples, SpawnMetrics.SpeciesStats stats) {
 
         // Sample random spots
         for (int i = 0; i < samples; i++) {
@@ -219,40 +444,49 @@ public class AmbientSpawning {
             int sy = world.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, sx, sz);
             BlockPos candidate = new BlockPos(sx, sy, sz);
 
-            if (isValidSpawnLocation(world, candidate, spawnData))
+            LocationRejection result = checkSpawnLocation(world, candidate, rules);
+            stats.record(SpawnMetrics.Stage.SEARCH, result);
+            if (result == LocationRejection.NONE)
                 return candidate;
         }
         return null;
     }
 
-    private static boolean isValidSpawnLocation(ClientLevel world, BlockPos pos, SpawnData spawnData) {
+    static boolean isValidSpawnLocation(FaunaWorld world, BlockPos pos, SpawnRules rules) {
+        return checkSpawnLocation(world, pos, rules) == LocationRejection.NONE;
+    }
+
+    // First reason the spot can't take a bird, NONE if it can
+    static LocationRejection checkSpawnLocation(FaunaWorld world, BlockPos pos, SpawnRules rules) {
+        // Unloaded columns read as air and report no height
+        if (!world.isLoaded(pos))
+            return LocationRejection.UNLOADED;
+
         // Must have air above and block below
-        if (!world.isEmptyBlock(pos.above()) || world.isEmptyBlock(pos.below()))
-            return false;
+        if (!world.isEmptyBlock(pos.above()))
+            return LocationRejection.NO_AIR;
+        if (world.isEmptyBlock(pos.below()))
+            return LocationRejection.NO_GROUND;
 
         // Check for valid spawn blocks
-        var stateBelow = world.getBlockState(pos.below());
-        boolean isValidBlock = false;
-        for (TagKey<Block> tag : spawnData.validSpawnBlocks()) {
-            if (stateBelow.is(tag)) {
-                isValidBlock = true;
-                break;
-            }
-        }
-        if (!isValidBlock)
-            return false;
+        if (!world.isBlockInAny(pos.below(), rules.validSpawnBlocks()))
+            return LocationRejection.WRONG_BLOCK;
 
         // Biome Check
-        if (!world.getBiome(pos).is(spawnData.validBiomeTag()))
-            return false;
+        if (!world.isBiomeIn(pos, rules.validBiomeTag()))
+            return LocationRejection.WRONG_BIOME;
 
         // Height Check
-        if (!spawnBelowSeaLevel && (pos.getY() < world.getSeaLevel()))
-            return false;
+        if (!FaunaConfig.get().spawnBelowSeaLevel() && (pos.getY() < world.getSeaLevel()))
+            return LocationRejection.BELOW_SEA_LEVEL;
 
         // Light Check
         int lightLevel = world.getMaxLocalRawBrightness(pos);
+        if (lightLevel < rules.minLightLevel())
+            return LocationRejection.TOO_DARK;
+        if (lightLevel > rules.maxLightLevel())
+            return LocationRejection.TOO_BRIGHT;
 
-        return lightLevel >= spawnData.minLightLevel() && lightLevel <= spawnData.maxLightLevel();
+        return LocationRejection.NONE;
     }
 }
@@ -0,0 +1,87 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.network.ClientFlockSync;
+import nms.atmosphericfauna.particle.BirdParticle;
+import nms.atmosphericfauna.performance.FaunaTimings;
+import nms.atmosphericfauna.world.ClientFaunaWorld;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import net.minecraft.client.multiplayer.ClientLevel;
+
+// Chunks that loaded and haven't been looked at for spawns yet, oldest first.
+// Each client tick works through the queue until its time budget runs out,
+// so a burst of loads (joining, teleporting, flying fast) is spread over
+// several ticks. A chunk that unloads before its turn leaves the queue.
+// Client thread only.
+public final class ChunkSpawnQueue {
+
+    // Time per tick spent on queued chunks, at least one chunk always runs
+    private static final long BUDGET_NANOS = 500_000;
+
+    private static final Set<Long> PENDING = new LinkedHashSet<>();
+    private static ClientLevel queuedLevel = null;
+
+    private ChunkSpawnQueue() {
+    }
+
+    public static void add(ClientLevel level, long chunkKey) {
+        FaunaConfig config = FaunaConfig.get();
+        if (!config.enableAmbientSpawning() || !(config.enableChunkLoadSpawning() || config.enableRoostCache()))
+            return;
+        if (level != queuedLevel) {
+            PENDING.clear();
+            queuedLevel = level;
+        }
+        PENDING.add(chunkKey);
+    }
+
+    public static void remove(ClientLevel level, long chunkKey) {
+        if (level == queuedLevel)
+            PENDING.remove(chunkKey);
+    }
+
+    public static void clear() {
+        PENDING.clear();
+        queuedLevel = null;
+    }
+
+    public static int size() {
+        return PENDING.size();
+    }
+
+    // --- TICK ---
+
+    public static void tick(ClientLevel level) {
+        // Paused chunks wait, unloads still take them out
+        if (PENDING.isEmpty() || AmbientSpawning.isPaused())
+            return;
+        // The server spawns for everyone
+        if (level != queuedLevel || ClientFlockSync.isActive(level)) {
+            clear();
+            return;
+        }
+
+        FaunaConfig config = FaunaConfig.get();
+        ClientFaunaWorld view = ClientFaunaWorld.of(level);
+        AmbientSpawning.Spawner spawner = (species, x, y, z) -> BirdParticle.spawn(level, species, x, y, z);
+
+        long start = System.nanoTime();
+        Iterator<Long> iterator = PENDING.iterator();
+        do {
+            long key = iterator.next();
+            iterator.remove();
+            int chunkX = (int) key;
+            int chunkZ = (int) (key >>> 32);
+
+            // Known roosts first, they need no search
+            boolean spawned = config.enableRoostCache() && AmbientSpawning.spawnAtRoost(view, view.getPopulation(),
+                    level.getRandom(), view.getRoosts(), chunkX, chunkZ, spawner);
+            if (!spawned && config.enableChunkLoadSpawning())
+                AmbientSpawning.spawnInChunk(view, view.getPopulation(), level.getRandom(), chunkX, chunkZ, spawner);
+        } while (iterator.hasNext() && System.nanoTime() - start < BUDGET_NANOS);
+        FaunaTimings.addSpawning(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,14 @@
+package nms.atmosphericfauna.spawning;
+
+// Why a single spot was turned down, in the order isValidSpawnLocation checks
+public enum LocationRejection {
+    NONE,
+    UNLOADED,
+    NO_AIR,
+    NO_GROUND,
+    WRONG_BLOCK,
+    WRONG_BIOME,
+    BELOW_SEA_LEVEL,
+    TOO_DARK,
+    TOO_BRIGHT
+}
@@ -0,0 +1,106 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.bird.Bird;
+
+import java.util.List;
+import net.minecraft.util.RandomSource;
+
+// Live bird counts in coarse square regions around a player. Regions are
+// aligned to world coordinates so they don't shift as the player moves. Spawn
+// attempts are sent to regions below the target density, picked by how many
+// birds they are missing.
+final class RegionDensityGrid {
+
+    static final int REGION_SIZE = 32;
+
+    private int minRegionX;
+    private int minRegionZ;
+    private int side;
+    private int[] counts = new int[0];
+    private boolean[] eligible = new boolean[0];
+    private int eligibleCount;
+    private int target;
+
+    // --- BUILD ---
+
+    // Counts every bird in the square around (centerX, centerZ). Only regions
+    // whose center lies between minDistance and range are spawn candidates, and
+    // the cap is spread evenly over them.
+    void fill(List<Bird> birds, double centerX, double centerZ, double minDistance, double range, int cap) {
+        minRegionX = Math.floorDiv((int) Math.floor(centerX - range), REGION_SIZE);
+        minRegionZ = Math.floorDiv((int) Math.floor(centerZ - range), REGION_SIZE);
+        int maxRegionX = Math.floorDiv((int) Math.floor(centerX + range), REGION_SIZE);
+        int maxRegionZ = Math.floorDiv((int) Math.floor(centerZ + range), REGION_SIZE);
+        side = Math.max(maxRegionX - minRegionX, maxRegionZ - minRegionZ) + 1;
+
+        int size = side * side;
+        if (counts.length < size) {
+            counts = new int[size];
+            eligible = new boolean[size];
+        }
+
+        eligibleCount = 0;
+        for (int rz = 0; rz < side; rz++) {
+            for (int rx = 0; rx < side; rx++) {
+                int index = rz * side + rx;
+                double dx = (minRegionX + rx + 0.5) * REGION_SIZE - centerX;
+                double dz = (minRegionZ + rz + 0.5) * REGION_SIZE - centerZ;
+                double distance = Math.sqrt(dx * dx + dz * dz);
+                counts[index] = 0;
+                eligible[index] = distance >= minDistance && distance <= range;
+                if (eligible[index])
+                    eligibleCount++;
+            }
+        }
+
+        for (int i = 0; i < birds.size(); i++) {
+            Bird bird = birds.get(i);
+            int rx = Math.floorDiv((int) Math.floor(bird.getX()), REGION_SIZE) - minRegionX;
+            int rz = Math.floorDiv((int) Math.floor(bird.getZ()), REGION_SIZE) - minRegionZ;
+            if (rx >= 0 && rz >= 0 && rx < side && rz < side)
+                counts[rz * side + rx]++;
+        }
+
+        target = eligibleCount == 0 ? 0 : Math.max(1, (cap + eligibleCount - 1) / eligibleCount);
+    }
+
+    // --- QUERY ---
+
+    int getTarget() {
+        return target;
+    }
+
+    int deficit(int region) {
+        return Math.max(0, target - counts[region]);
+    }
+
+    // A region below the target density, weighted by its deficit, or -1 if
+    // every candidate region is full
+    int pickUnderpopulated(RandomSource random) {
+        int totalDeficit = 0;
+        for (int i = 0; i < side * side; i++) {
+            if (eligible[i])
+                totalDeficit += deficit(i);
+        }
+        if (totalDeficit == 0)
+            return -1;
+
+        int choice = random.nextInt(totalDeficit);
+        for (int i = 0; i < side * side; i++) {
+            if (!eligible[i])
+                continue;
+            choice -= deficit(i);
+            if (choice < 0)
+                return i;
+        }
+        return -1;
+    }
+
+    int randomX(int region, RandomSource random) {
+        return (minRegionX + region % side) * REGION_SIZE + random.nextInt(REGION_SIZE);
+    }
+
+    int randomZ(int region, RandomSource random) {
+        return (minRegionZ + region / side) * REGION_SIZE + random.nextInt(REGION_SIZE);
+    }
+}
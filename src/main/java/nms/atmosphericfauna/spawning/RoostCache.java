@@ -0,0 +1,313 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.bird.BirdPopulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import net.minecraft.core.BlockPos;
+
+// Where birds have perched, remembered across sessions so an area the player
+// comes back to gets its birds back as soon as its chunks load. Roosts are
+// grouped by chunk and stored per region of 32x32 chunks, one small file each,
+// named like vanilla region files. Files are only touched on a background
+// thread: a region is read once one of its chunks loads or asks, and until it
+// arrives it has no roosts and perches in it go unrecorded. save() hands a
+// copy of every changed region to the same thread. Not thread safe otherwise,
+// each level's cache is used from one thread.
+public final class RoostCache {
+
+    static final int MAGIC = 0x41465253; // "AFRS"
+    static final int VERSION = 1;
+
+    private static final int REGION_SHIFT = 5;
+    static final int MAX_PER_CHUNK = 4;
+
+    // A perch this close to a known roost of the same species is that roost
+    private static final int MERGE_DISTANCE = 4;
+
+    public static final class Roost {
+        private final String species;
+        private final long pos;
+        private int visits;
+
+        Roost(String species, long pos, int visits) {
+            this.species = species;
+            this.pos = pos;
+            this.visits = visits;
+        }
+
+        public String getSpecies() {
+            return species;
+        }
+
+        // The block birds perched on, packed with BlockPos.asLong
+        public long getPos() {
+            return pos;
+        }
+
+        // How many times birds landed here
+        public int getVisits() {
+            return visits;
+        }
+    }
+
+    private static final class Region {
+        final Map<Long, List<Roost>> chunks = new HashMap<>();
+        boolean dirty = false;
+    }
+
+    private record Loaded(long key, Region region) {
+    }
+
+    // Reads and writes of every cache share one thread, so a region read
+    // again after a level change always sees its last write
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Atmospheric Fauna Roosts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // How long flush() waits for pending writes when the game closes
+    private static final long FLUSH_TIMEOUT_MS = 5000;
+
+    private final Path directory;
+    // Regions that have been read, and every region asked for so far
+    private final Map<Long, Region> regions = new HashMap<>();
+    private final Set<Long> requested = new HashSet<>();
+    // Filled by the IO thread, emptied by the owning thread
+    private final Queue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+
+    // Null directory keeps roosts in memory only
+    public RoostCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // --- RECORDING ---
+
+    public void record(String species, long perchPos) {
+        int chunkX = BlockPos.getX(perchPos) >> 4;
+        int chunkZ = BlockPos.getZ(perchPos) >> 4;
+        Region region = region(chunkX, chunkZ);
+        if (region == null)
+            return;
+        List<Roost> roosts = region.chunks.computeIfAbsent(BirdPopulation.chunkKey(chunkX, chunkZ),
+                key -> new ArrayList<>(MAX_PER_CHUNK));
+        region.dirty = true;
+
+        for (Roost roost : roosts) {
+            if (roost.species.equals(species) && distance(roost.pos, perchPos) <= MERGE_DISTANCE) {
+                roost.visits++;
+                return;
+            }
+        }
+
+        // A full chunk gives up its least visited roost
+        if (roosts.size() >= MAX_PER_CHUNK) {
+            int weakest = 0;
+            for (int i = 1; i < roosts.size(); i++) {
+                if (roosts.get(i).visits < roosts.get(weakest).visits)
+                    weakest = i;
+            }
+            roosts.set(weakest, new Roost(species, perchPos, 1));
+        } else {
+            roosts.add(new Roost(species, perchPos, 1));
+        }
+    }
+
+    // Drops a roost that no longer takes birds
+    public void forget(Roost roost) {
+        int chunkX = BlockPos.getX(roost.pos) >> 4;
+        int chunkZ = BlockPos.getZ(roost.pos) >> 4;
+        Region region = region(chunkX, chunkZ);
+        if (region == null)
+            return;
+        long key = BirdPopulation.chunkKey(chunkX, chunkZ);
+        List<Roost> roosts = region.chunks.get(key);
+        if (roosts != null && roosts.remove(roost)) {
+            if (roosts.isEmpty())
+                region.chunks.remove(key);
+            region.dirty = true;
+        }
+    }
+
+    private static int distance(long a, long b) {
+        return Math.max(Math.abs(BlockPos.getX(a) - BlockPos.getX(b)),
+                Math.max(Math.abs(BlockPos.getY(a) - BlockPos.getY(b)), Math.abs(BlockPos.getZ(a) - BlockPos.getZ(b))));
+    }
+
+    // --- QUERY ---
+
+    // None while the chunk's region is still being read
+    public List<Roost> get(int chunkX, int chunkZ) {
+        Region region = region(chunkX, chunkZ);
+        List<Roost> roosts = region == null ? null : region.chunks.get(BirdPopulation.chunkKey(chunkX, chunkZ));
+        return roosts == null ? List.of() : roosts;
+    }
+
+    // Starts reading the chunk's region, for chunks that just loaded. Same key
+    // layout as BirdPopulation.chunkKey.
+    public void prefetch(long chunkKey) {
+        region((int) chunkKey, (int) (chunkKey >>> 32));
+    }
+
+    // Roosts in the regions read so far
+    public int size() {
+        drain();
+        int size = 0;
+        for (Region region : regions.values()) {
+            for (List<Roost> roosts : region.chunks.values())
+                size += roosts.size();
+        }
+        return size;
+    }
+
+    // --- FILES ---
+
+    // The chunk's region if it has been read, otherwise null after asking the
+    // IO thread for it
+    private Region region(int chunkX, int chunkZ) {
+        drain();
+        int regionX = chunkX >> REGION_SHIFT;
+        int regionZ = chunkZ >> REGION_SHIFT;
+        long key = BirdPopulation.chunkKey(regionX, regionZ);
+        Region region = regions.get(key);
+        if (region != null || !requested.add(key))
+            return region;
+
+        if (directory == null) {
+            region = new Region();
+            regions.put(key, region);
+            return region;
+        }
+        Path file = file(regionX, regionZ);
+        IO.execute(() -> loaded.add(new Loaded(key, read(file))));
+        return null;
+    }
+
+    private void drain() {
+        Loaded next;
+        while ((next = loaded.poll()) != null)
+            regions.put(next.key(), next.region());
+    }
+
+    private Path file(int regionX, int regionZ) {
+        return directory.resolve("r." + regionX + "." + regionZ + ".roosts");
+    }
+
+    // An unreadable file starts the region over, it is only a cache
+    private static Region read(Path file) {
+        Region region = new Region();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION)
+                throw new IOException("not a roost file");
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String species = in.readUTF();
+                long pos = in.readLong();
+                int visits = in.readInt();
+                long key = BirdPopulation.chunkKey(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+                List<Roost> roosts = region.chunks.computeIfAbsent(key, k -> new ArrayList<>(MAX_PER_CHUNK));
+                if (roosts.size() < MAX_PER_CHUNK)
+                    roosts.add(new Roost(species, pos, visits));
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing perched here yet
+        } catch (IOException e) {
+            AtmosphericFauna.LOGGER.warn("Ignoring roost file {}: {}", file, e.getMessage());
+            region.chunks.clear();
+        }
+        return region;
+    }
+
+    // Hands a copy of every changed region to the IO thread, which writes each
+    // through a temporary file so a crash never leaves half a region behind
+    public void save() {
+        if (directory == null)
+            return;
+        drain();
+        for (Map.Entry<Long, Region> entry : regions.entrySet()) {
+            Region region = entry.getValue();
+            if (!region.dirty)
+                continue;
+            long key = entry.getKey();
+            Path file = file((int) key, (int) (key >>> 32));
+            List<Roost> roosts = new ArrayList<>();
+            for (List<Roost> inChunk : region.chunks.values()) {
+                for (Roost roost : inChunk)
+                    roosts.add(new Roost(roost.species, roost.pos, roost.visits));
+            }
+            region.dirty = false;
+            IO.execute(() -> {
+                try {
+                    write(roosts, file);
+                } catch (IOException e) {
+                    AtmosphericFauna.LOGGER.error("Failed to save roosts to {}", file, e);
+                }
+            });
+        }
+    }
+
+    // Blocks until every save handed over so far is written, for closing the
+    // game while the IO thread still has work
+    public static void flush() {
+        try {
+            IO.submit(() -> {
+            }).get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            AtmosphericFauna.LOGGER.warn("Roosts may not have been saved: {}", e.toString());
+        }
+    }
+
+    private static void write(List<Roost> roosts, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        if (roosts.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(roosts.size());
+                for (Roost roost : roosts) {
+                    out.writeUTF(roost.species);
+                    out.writeLong(roost.pos);
+                    out.writeInt(roost.visits);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
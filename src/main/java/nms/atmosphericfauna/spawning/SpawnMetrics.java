@@ -0,0 +1,160 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.species.Species;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts where spawn cycles spend their attempts: the outcome of every cycle,
+// and per species why spots were turned down while searching for a pack
+// center and while placing the pack, plus how far packs fell short. Client
+// and server spawn cycles record on their own threads and JMX reads from
+// others, so every counter is atomic. A read may see a cycle half counted.
+public final class SpawnMetrics {
+
+    public enum Stage {
+        SEARCH,
+        PACK
+    }
+
+    private static final int REJECTIONS = LocationRejection.values().length;
+
+    public static final class SpeciesStats {
+        // Indexed by stage, then rejection
+        private final AtomicLongArray rejections = new AtomicLongArray(Stage.values().length * REJECTIONS);
+        private final LongAdder packs = new LongAdder();
+        private final LongAdder partialPacks = new LongAdder();
+        private final LongAdder shortfall = new LongAdder();
+        private final LongAdder spawned = new LongAdder();
+        private final LongAdder roostPacks = new LongAdder();
+
+        void record(Stage stage, LocationRejection result) {
+            rejections.incrementAndGet(stage.ordinal() * REJECTIONS + result.ordinal());
+        }
+
+        void recordPack(int target, int placed) {
+            packs.increment();
+            spawned.add(placed);
+            if (placed < target) {
+                partialPacks.increment();
+                shortfall.add(target - placed);
+            }
+        }
+
+        void recordRoostPack() {
+            roostPacks.increment();
+        }
+
+        public long get(Stage stage, LocationRejection result) {
+            return rejections.get(stage.ordinal() * REJECTIONS + result.ordinal());
+        }
+
+        public long getPacks() {
+            return packs.sum();
+        }
+
+        public long getPartialPacks() {
+            return partialPacks.sum();
+        }
+
+        public long getShortfall() {
+            return shortfall.sum();
+        }
+
+        public long getSpawned() {
+            return spawned.sum();
+        }
+
+        // Packs placed at a remembered roost rather than a searched spot
+        public long getRoostPacks() {
+            return roostPacks.sum();
+        }
+    }
+
+    private static final Map<String, SpeciesStats> BY_SPECIES = new ConcurrentHashMap<>();
+    private static final AtomicLongArray CYCLES = new AtomicLongArray(SpawnRejection.values().length);
+    private static final AtomicLongArray CHUNKS = new AtomicLongArray(SpawnRejection.values().length);
+
+    private SpawnMetrics() {
+    }
+
+    // --- RECORDING ---
+
+    public static SpeciesStats forSpecies(Species species) {
+        return BY_SPECIES.computeIfAbsent(species.getName(), name -> new SpeciesStats());
+    }
+
+    static void recordCycle(SpawnRejection result) {
+        CYCLES.incrementAndGet(result.ordinal());
+    }
+
+    static void recordChunk(SpawnRejection result) {
+        CHUNKS.incrementAndGet(result.ordinal());
+    }
+
+    public static void reset() {
+        BY_SPECIES.clear();
+        for (int i = 0; i < CYCLES.length(); i++) {
+            CYCLES.set(i, 0);
+            CHUNKS.set(i, 0);
+        }
+    }
+
+    // --- REPORT ---
+
+    public static long getCycles(SpawnRejection result) {
+        return CYCLES.get(result.ordinal());
+    }
+
+    // Outcomes of newly loaded chunks evaluated for spawns
+    public static long getChunks(SpawnRejection result) {
+        return CHUNKS.get(result.ordinal());
+    }
+
+    // Live stats by species name, for readers on other threads
+    public static Map<String, SpeciesStats> bySpecies() {
+        return Collections.unmodifiableMap(BY_SPECIES);
+    }
+
+    // Human readable summary, one entry per line, zero counts left out
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+
+        lines.add(outcomes("Cycles:", CYCLES));
+        lines.add(outcomes("Chunks:", CHUNKS));
+
+        for (Map.Entry<String, SpeciesStats> entry : new TreeMap<>(BY_SPECIES).entrySet()) {
+            SpeciesStats stats = entry.getValue();
+            lines.add(entry.getKey() + ": " + stats.getSpawned() + " spawned in " + stats.getPacks() + " packs, "
+                    + stats.getPartialPacks() + " partial, " + stats.getShortfall() + " birds short, "
+                    + stats.getRoostPacks() + " packs at roosts");
+            for (Stage stage : Stage.values()) {
+                StringBuilder line = new StringBuilder("  ").append(stage.name().toLowerCase()).append(':');
+                for (LocationRejection result : LocationRejection.values()) {
+                    long count = stats.get(stage, result);
+                    if (count > 0)
+                        line.append(' ').append(result == LocationRejection.NONE ? "ok" : result.name().toLowerCase())
+                                .append('=').append(count);
+                }
+                lines.add(line.toString());
+            }
+        }
+        return lines;
+    }
+
+    private static String outcomes(String label, AtomicLongArray counts) {
+        StringBuilder line = new StringBuilder(label);
+        for (SpawnRejection result : SpawnRejection.values()) {
+            long count = counts.get(result.ordinal());
+            if (count > 0)
+                line.append(' ').append(result.name().toLowerCase()).append('=').append(count);
+        }
+        return line.toString();
+    }
+}
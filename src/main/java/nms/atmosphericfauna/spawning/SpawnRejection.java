@@ -0,0 +1,14 @@
+package nms.atmosphericfauna.spawning;
+
+public enum SpawnRejection {
+    NONE,
+    NO_CAPACITY,
+    BAD_WEATHER,
+    WRONG_TIME,
+    NO_PLAYERS,
+    NO_VALID_LOCATION,
+    NO_PACK_PLACEMENT,
+    REGIONS_FULL,
+    WRONG_BIOME,
+    NEAR_PLAYER
+}
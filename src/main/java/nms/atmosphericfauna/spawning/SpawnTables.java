@@ -0,0 +1,212 @@
+package nms.atmosphericfauna.spawning;
+
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesProfile.SpawnRules;
+import nms.atmosphericfauna.world.FaunaWorld;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.biome.Biome;
+
+// Species that may spawn at a sampled spot, by biome and time of day, each set
+// with an alias table so picking one costs the same however many species there
+// are. Biomes are told apart by which of the species' biome tags they are in;
+// biomes that match the same tags share their tables.
+public final class SpawnTables {
+
+    public static final SpawnTables EMPTY = new SpawnTables(List.of());
+
+    // Condition bits, see condition()
+    private static final int NIGHT = 1;
+    private static final int BAD_WEATHER = 2;
+    private static final int CONDITION_BITS = 2;
+
+    // Signature that matches every biome tag
+    private static final long ANY_BIOME = (1L << (Long.SIZE - CONDITION_BITS)) - 1;
+
+    private final Species[] species;
+    private final SpawnRules[] rules;
+    private final List<TagKey<Biome>> biomeTags;
+    private final int[] biomeTagIndex;
+    private final int minPackSize;
+
+    // Built the first time a biome signature is sampled, a world only has a
+    // handful of them
+    private final Map<Long, AliasTable> tables = new ConcurrentHashMap<>();
+
+    private SpawnTables(List<Species> spawnable) {
+        this.species = spawnable.toArray(new Species[0]);
+        this.rules = new SpawnRules[species.length];
+        this.biomeTagIndex = new int[species.length];
+
+        List<TagKey<Biome>> tags = new ArrayList<>();
+        int minPack = Integer.MAX_VALUE;
+        for (int i = 0; i < species.length; i++) {
+            rules[i] = species[i].getProfile().spawning();
+            int index = tags.indexOf(rules[i].validBiomeTag());
+            if (index < 0) {
+                index = tags.size();
+                tags.add(rules[i].validBiomeTag());
+            }
+            biomeTagIndex[i] = index;
+            minPack = Math.min(minPack, rules[i].minPackSize());
+        }
+        // The low bits of a table key hold the condition
+        if (tags.size() > Long.SIZE - CONDITION_BITS)
+            throw new IllegalArgumentException(
+                    "More than " + (Long.SIZE - CONDITION_BITS) + " distinct spawn biome tags");
+
+        this.biomeTags = List.copyOf(tags);
+        this.minPackSize = species.length == 0 ? 0 : minPack;
+    }
+
+    public static SpawnTables build(List<Species> spawnable) {
+        return spawnable.isEmpty() ? EMPTY : new SpawnTables(spawnable);
+    }
+
+    // --- QUERY ---
+
+    public boolean isEmpty() {
+        return species.length == 0;
+    }
+
+    // Smallest pack any species spawns in
+    public int getMinPackSize() {
+        return minPackSize;
+    }
+
+    public static int condition(boolean day, boolean badWeather) {
+        return (day ? 0 : NIGHT) | (badWeather ? BAD_WEATHER : 0);
+    }
+
+    // Whether any species spawns in this condition, in any biome
+    public boolean allows(int condition) {
+        return !table(ANY_BIOME, condition).isEmpty();
+    }
+
+    // Whether any species spawns at this time of day, in any weather
+    public boolean allowsTime(boolean day) {
+        return allows(condition(day, false)) || allows(condition(day, true));
+    }
+
+    // Which of the species' biome tags the biome at pos is in, one bit per tag
+    public long biomeSignature(FaunaWorld world, BlockPos pos) {
+        return world.biomeTagMask(pos, biomeTags);
+    }
+
+    // Picks a species that may spawn in a biome with this signature and
+    // condition, or null if there is none
+    public Species pick(long biomeSignature, int condition, RandomSource random) {
+        return table(biomeSignature, condition).sample(random);
+    }
+
+    private AliasTable table(long biomeSignature, int condition) {
+        long key = biomeSignature << CONDITION_BITS | condition;
+        AliasTable table = tables.get(key);
+        if (table == null)
+            table = tables.computeIfAbsent(key, k -> buildTable(biomeSignature, condition));
+        return table;
+    }
+
+    private AliasTable buildTable(long biomeSignature, int condition) {
+        boolean night = (condition & NIGHT) != 0;
+        boolean badWeather = (condition & BAD_WEATHER) != 0;
+
+        List<Species> eligible = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < species.length; i++) {
+            SpawnRules spawning = rules[i];
+            if ((biomeSignature & (1L << biomeTagIndex[i])) == 0)
+                continue;
+            if (badWeather && !spawning.spawnInBadWeather())
+                continue;
+            if (night ? !spawning.spawnDuringNight() : !spawning.spawnDuringDay())
+                continue;
+            eligible.add(species[i]);
+            weights.add(spawning.weight());
+        }
+        return AliasTable.of(eligible, weights);
+    }
+
+    // --- ALIAS TABLE ---
+
+    // Vose's alias method: one uniform column pick and one biased coin per sample
+    private static final class AliasTable {
+
+        private static final AliasTable EMPTY = new AliasTable(new Species[0], new double[0], new int[0]);
+
+        private final Species[] entries;
+        private final double[] probability;
+        private final int[] alias;
+
+        private AliasTable(Species[] entries, double[] probability, int[] alias) {
+            this.entries = entries;
+            this.probability = probability;
+            this.alias = alias;
+        }
+
+        static AliasTable of(List<Species> entries, List<Integer> weights) {
+            int n = entries.size();
+            if (n == 0)
+                return EMPTY;
+
+            long total = 0;
+            for (int weight : weights)
+                total += weight;
+
+            double[] scaled = new double[n];
+            double[] probability = new double[n];
+            int[] alias = new int[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+
+            for (int i = 0; i < n; i++) {
+                scaled[i] = (double) weights.get(i) * n / total;
+                if (scaled[i] < 1.0)
+                    small[smallCount++] = i;
+                else
+                    large[largeCount++] = i;
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] = scaled[more] + scaled[less] - 1.0;
+                if (scaled[more] < 1.0)
+                    small[smallCount++] = more;
+                else
+                    large[largeCount++] = more;
+            }
+
+            // Leftovers are 1 up to rounding
+            while (largeCount > 0)
+                probability[large[--largeCount]] = 1.0;
+            while (smallCount > 0)
+                probability[small[--smallCount]] = 1.0;
+
+            return new AliasTable(entries.toArray(new Species[0]), probability, alias);
+        }
+
+        boolean isEmpty() {
+            return entries.length == 0;
+        }
+
+        Species sample(RandomSource random) {
+            if (entries.length == 0)
+                return null;
+            if (entries.length == 1)
+                return entries[0];
+            int column = random.nextInt(entries.length);
+            return random.nextDouble() < probability[column] ? entries[column] : entries[alias[column]];
+        }
+    }
+}
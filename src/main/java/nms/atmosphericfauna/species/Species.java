@@ -0,0 +1,32 @@
+package nms.atmosphericfauna.species;
+
+// A species by name. The object lives for the whole session so birds can keep
+// a reference to it, while its profile is swapped whenever resources reload.
+// Birds read the profile once per tick, so a reload never tears a tick.
+public final class Species {
+
+    private final String name;
+    private volatile SpeciesProfile profile;
+
+    Species(SpeciesProfile profile) {
+        this.name = profile.name();
+        this.profile = profile;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SpeciesProfile getProfile() {
+        return profile;
+    }
+
+    void setProfile(SpeciesProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,193 @@
+package nms.atmosphericfauna.species;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+
+// Immutable tuning of one species, parsed from
+// assets/<namespace>/fauna/species/<name>.json. One instance is shared by every
+// bird of the species until the next resource reload replaces it.
+public record SpeciesProfile(
+        String name,
+        String sprite, // texture prefix, e.g. "crow" for crow_flying_1
+        float size,
+        int lifetime,
+
+        // Flight
+        float flySpeed,
+        double steerStrength,
+        double minFlightHeight, // how many blocks above ground
+        double maxFlightHeight, // how many blocks from void
+        double maxVerticalSpeed,
+        double verticalSteerFactor,
+        double takeoffClimb,
+
+        // Flocking
+        double flockRadius,
+        double cohesionStrength,
+        double alignmentStrength,
+        double separationDistance,
+        double separationStrength,
+        double flockGoalBias,
+
+        // Perching
+        double scareRadius, // horizontal distance that startles perched birds
+        double scareTakeoffSpeed, // horizontal speed applied when scared
+        double perchingChance,
+        int perchingTime, // base time spent perched
+        int perchingDistance, // how many blocks down to scan for landing spots
+
+        // Wandering
+        double goalRadius,
+        int goalDurationMin,
+        int goalDurationMax,
+        double lookAheadMultiplier,
+
+        SpawnRules spawning,
+
+        // Null for species that never call
+        Calls calls) {
+
+    public record SpawnRules(
+            int weight,
+            int minPackSize,
+            int maxPackSize,
+            int minLightLevel,
+            int maxLightLevel,
+            boolean spawnInBadWeather,
+            boolean spawnDuringDay,
+            boolean spawnDuringNight,
+            TagKey<Biome> validBiomeTag,
+            List<TagKey<Block>> validSpawnBlocks,
+            int maxActive) {
+    }
+
+    public record Calls(
+            Identifier sound, // sound event from sounds.json
+            int interval, // average ticks between calls of a single bird
+            float range, // blocks at which a call fades out
+            float pitch) {
+    }
+
+    // --- PARSING ---
+
+    public static SpeciesProfile fromJson(String name, JsonObject json) {
+        JsonObject flight = GsonHelper.getAsJsonObject(json, "flight");
+        JsonObject flocking = GsonHelper.getAsJsonObject(json, "flocking");
+        JsonObject perching = GsonHelper.getAsJsonObject(json, "perching");
+        JsonObject wandering = GsonHelper.getAsJsonObject(json, "wandering");
+
+        SpeciesProfile profile = new SpeciesProfile(
+                name,
+                GsonHelper.getAsString(json, "sprite", name),
+                GsonHelper.getAsFloat(json, "size"),
+                GsonHelper.getAsInt(json, "lifetime"),
+
+                GsonHelper.getAsFloat(flight, "speed"),
+                GsonHelper.getAsDouble(flight, "steer_strength"),
+                GsonHelper.getAsDouble(flight, "min_height"),
+                GsonHelper.getAsDouble(flight, "max_height"),
+                GsonHelper.getAsDouble(flight, "max_vertical_speed"),
+                GsonHelper.getAsDouble(flight, "vertical_steer_factor"),
+                GsonHelper.getAsDouble(flight, "takeoff_climb"),
+
+                GsonHelper.getAsDouble(flocking, "radius"),
+                GsonHelper.getAsDouble(flocking, "cohesion"),
+                GsonHelper.getAsDouble(flocking, "alignment"),
+                GsonHelper.getAsDouble(flocking, "separation_distance"),
+                GsonHelper.getAsDouble(flocking, "separation"),
+                GsonHelper.getAsDouble(flocking, "goal_bias"),
+
+                GsonHelper.getAsDouble(perching, "scare_radius"),
+                GsonHelper.getAsDouble(perching, "scare_takeoff_speed"),
+                GsonHelper.getAsDouble(perching, "chance"),
+                GsonHelper.getAsInt(perching, "time"),
+                GsonHelper.getAsInt(perching, "scan_distance"),
+
+                GsonHelper.getAsDouble(wandering, "goal_radius"),
+                GsonHelper.getAsInt(wandering, "goal_duration_min"),
+                GsonHelper.getAsInt(wandering, "goal_duration_max"),
+                GsonHelper.getAsDouble(wandering, "look_ahead"),
+
+                parseSpawnRules(GsonHelper.getAsJsonObject(json, "spawning")),
+                json.has("calls") ? parseCalls(GsonHelper.getAsJsonObject(json, "calls")) : null);
+
+        profile.validate();
+        return profile;
+    }
+
+    private static SpawnRules parseSpawnRules(JsonObject json) {
+        List<TagKey<Block>> blocks = new ArrayList<>();
+        JsonArray blockArray = GsonHelper.getAsJsonArray(json, "blocks");
+        for (JsonElement element : blockArray)
+            blocks.add(TagKey.create(Registries.BLOCK, parseTag(GsonHelper.convertToString(element, "block tag"))));
+
+        return new SpawnRules(
+                GsonHelper.getAsInt(json, "weight"),
+                GsonHelper.getAsInt(json, "min_pack_size"),
+                GsonHelper.getAsInt(json, "max_pack_size"),
+                GsonHelper.getAsInt(json, "min_light", 0),
+                GsonHelper.getAsInt(json, "max_light", 15),
+                GsonHelper.getAsBoolean(json, "bad_weather", true),
+                GsonHelper.getAsBoolean(json, "day", true),
+                GsonHelper.getAsBoolean(json, "night", true),
+                TagKey.create(Registries.BIOME, parseTag(GsonHelper.getAsString(json, "biome"))),
+                List.copyOf(blocks),
+                GsonHelper.getAsInt(json, "max_active"));
+    }
+
+    private static Calls parseCalls(JsonObject json) {
+        String sound = GsonHelper.getAsString(json, "sound");
+        Identifier id = Identifier.tryParse(sound);
+        if (id == null)
+            throw new JsonParseException("Invalid sound id '" + sound + "'");
+        return new Calls(
+                id,
+                GsonHelper.getAsInt(json, "interval"),
+                GsonHelper.getAsFloat(json, "range", 48.0f),
+                GsonHelper.getAsFloat(json, "pitch", 1.0f));
+    }
+
+    // Accepts "minecraft:dirt" as well as "#minecraft:dirt"
+    private static Identifier parseTag(String value) {
+        Identifier id = Identifier.tryParse(value.startsWith("#") ? value.substring(1) : value);
+        if (id == null)
+            throw new JsonParseException("Invalid tag id '" + value + "'");
+        return id;
+    }
+
+    private void validate() {
+        require(size > 0, "size must be positive");
+        require(lifetime > 0, "lifetime must be positive");
+        require(flySpeed > 0, "flight.speed must be positive");
+        require(minFlightHeight < maxFlightHeight, "flight.min_height must be below flight.max_height");
+        require(flockRadius >= 0 && separationDistance >= 0, "flocking distances must not be negative");
+        require(perchingTime > 0, "perching.time must be positive");
+        require(goalDurationMin > 0 && goalDurationMin <= goalDurationMax,
+                "wandering.goal_duration_min must be positive and at most goal_duration_max");
+        require(goalRadius > 2.5, "wandering.goal_radius must be above 2.5");
+        require(spawning.weight() >= 0, "spawning.weight must not be negative");
+        require(spawning.minPackSize() > 0 && spawning.minPackSize() <= spawning.maxPackSize(),
+                "spawning.min_pack_size must be positive and at most max_pack_size");
+        require(spawning.minLightLevel() <= spawning.maxLightLevel(), "spawning.min_light must be at most max_light");
+        require(!spawning.validSpawnBlocks().isEmpty(), "spawning.blocks must not be empty");
+        if (calls != null) {
+            require(calls.interval() > 0, "calls.interval must be positive");
+            require(calls.range() >= 1 && calls.pitch() > 0, "calls.range must be at least 1 and calls.pitch positive");
+        }
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition)
+            throw new JsonParseException(message);
+    }
+}
@@ -0,0 +1,98 @@
+package nms.atmosphericfauna.species;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.spawning.SpawnTables;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.util.GsonHelper;
+
+// Known species and the subset that can currently spawn. Starts out with the
+// profiles bundled in the jar, so headless runs work without a resource
+// manager, and is replaced wholesale on every resource reload.
+public final class SpeciesRegistry {
+
+    public static final String CROW = "crow";
+    public static final String DIRECTORY = "fauna/species";
+
+    private static final List<String> BUILTIN = List.of(CROW);
+
+    // Every species seen this session. Species dropped by a reload stay here so
+    // birds that are still alive keep their last profile.
+    private static final Map<String, Species> ALL = new ConcurrentHashMap<>();
+
+    public record Snapshot(List<Species> spawnable, SpawnTables tables) {
+    }
+
+    private static volatile Snapshot active = new Snapshot(List.of(), SpawnTables.EMPTY);
+
+    static {
+        Map<String, SpeciesProfile> builtin = new LinkedHashMap<>();
+        for (String name : BUILTIN)
+            builtin.put(name, loadBuiltin(name));
+        apply(builtin);
+    }
+
+    private SpeciesRegistry() {
+    }
+
+    private static SpeciesProfile loadBuiltin(String name) {
+        String path = "/assets/" + AtmosphericFauna.MOD_ID + "/" + DIRECTORY + "/" + name + ".json";
+        try (InputStream stream = SpeciesRegistry.class.getResourceAsStream(path)) {
+            if (stream == null)
+                throw new IllegalStateException("Missing bundled species profile " + path);
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                return SpeciesProfile.fromJson(name, GsonHelper.parse(reader));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read bundled species profile " + path, e);
+        }
+    }
+
+    // --- LOOKUP ---
+
+    public static Species get(String name) {
+        Species species = ALL.get(name);
+        if (species == null)
+            throw new IllegalArgumentException("Unknown species " + name);
+        return species;
+    }
+
+    public static Species find(String name) {
+        return ALL.get(name);
+    }
+
+    // Species that can spawn and their spawn tables, read together
+    public static Snapshot snapshot() {
+        return active;
+    }
+
+    // The crow cap from the config replaces the profile's max_active
+    public static int maxActive(Species species) {
+        return CROW.equals(species.getName()) ? FaunaConfig.get().maxActiveCrows() : species.getProfile().spawning().maxActive();
+    }
+
+    // --- RELOAD ---
+
+    // Publishes a new set of profiles. Existing species objects are reused and
+    // get their profile swapped, spawn selection sees the new set at once.
+    public static synchronized void apply(Map<String, SpeciesProfile> profiles) {
+        List<Species> spawnable = new ArrayList<>();
+        for (SpeciesProfile profile : profiles.values()) {
+            Species species = ALL.computeIfAbsent(profile.name(), name -> new Species(profile));
+            species.setProfile(profile);
+            if (profile.spawning().weight() > 0)
+                spawnable.add(species);
+        }
+        active = new Snapshot(List.copyOf(spawnable), SpawnTables.build(spawnable));
+    }
+}
@@ -0,0 +1,56 @@
+package nms.atmosphericfauna.species;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+
+import java.io.Reader;
+import java.util.Map;
+import java.util.TreeMap;
+import com.google.gson.JsonObject;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.GsonHelper;
+
+// Reads species profiles from resource packs. A profile that fails to parse
+// keeps its previous version, so a typo while tuning doesn't remove a species.
+public class SpeciesReloadListener implements SimpleSynchronousResourceReloadListener {
+
+    @Override
+    public Identifier getFabricId() {
+        return Identifier.fromNamespaceAndPath(AtmosphericFauna.MOD_ID, "species");
+    }
+
+    @Override
+    public void onResourceManagerReload(ResourceManager manager) {
+        // Sorted by name so spawn selection doesn't depend on pack order
+        Map<String, SpeciesProfile> profiles = new TreeMap<>();
+        Map<Identifier, Resource> resources = manager.listResources(SpeciesRegistry.DIRECTORY,
+                id -> id.getPath().endsWith(".json"));
+
+        for (Map.Entry<Identifier, Resource> entry : resources.entrySet()) {
+            Identifier id = entry.getKey();
+            String name = speciesName(id);
+            try (Reader reader = entry.getValue().openAsReader()) {
+                JsonObject json = GsonHelper.parse(reader);
+                profiles.put(name, SpeciesProfile.fromJson(name, json));
+            } catch (Exception e) {
+                AtmosphericFauna.LOGGER.error("Failed to load species profile {}: {}", id, e.getMessage());
+                Species previous = SpeciesRegistry.find(name);
+                if (previous != null)
+                    profiles.put(name, previous.getProfile());
+            }
+        }
+
+        SpeciesRegistry.apply(profiles);
+        AtmosphericFauna.LOGGER.info("Loaded {} bird species", profiles.size());
+    }
+
+    // atmospheric-fauna:fauna/species/crow.json -> "crow", other namespaces keep
+    // theirs, e.g. "mypack:magpie"
+    private static String speciesName(Identifier id) {
+        String path = id.getPath();
+        String name = path.substring(SpeciesRegistry.DIRECTORY.length() + 1, path.length() - ".json".length());
+        return id.getNamespace().equals(AtmosphericFauna.MOD_ID) ? name : id.getNamespace() + ":" + name;
+    }
+}
@@ -0,0 +1,110 @@
+package nms.atmosphericfauna.world;
+
+import nms.atmosphericfauna.AtmosphericFauna;
+import nms.atmosphericfauna.config.FaunaConfig;
+import nms.atmosphericfauna.spawning.RoostCache;
+
+import java.nio.file.Path;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.client.server.IntegratedServer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+
+public class ClientFaunaWorld extends LevelFaunaWorld {
+
+    private static ClientFaunaWorld current = null;
+
+    private final ClientLevel level;
+    private final RoostCache roosts;
+
+    // Bumped whenever light in the level may have changed, see BaseBirdParticle
+    private int lightEpoch = 0;
+
+    private ClientFaunaWorld(ClientLevel level) {
+        super(level);
+        this.level = level;
+        this.roosts = new RoostCache(roostDirectory(level));
+        getPopulation().setPerchListener((bird, perchPos) -> {
+            if (FaunaConfig.get().enableRoostCache())
+                roosts.record(bird.getSpecies().getName(), perchPos);
+        });
+    }
+
+    // Reuses the view while the player stays in the same level, a new level
+    // starts with an empty population
+    public static ClientFaunaWorld of(ClientLevel level) {
+        ClientFaunaWorld view = current;
+        if (view == null || view.level != level) {
+            if (view != null)
+                view.roosts.save();
+            view = new ClientFaunaWorld(level);
+            current = view;
+        }
+        return view;
+    }
+
+    // The view of this level if it is the current one, without creating it
+    public static ClientFaunaWorld find(Level level) {
+        ClientFaunaWorld view = current;
+        return view != null && view.level == level ? view : null;
+    }
+
+    public static void reset() {
+        if (current != null) {
+            current.roosts.save();
+            current.getPopulation().clear();
+        }
+        current = null;
+    }
+
+    public static void saveRoosts() {
+        if (current != null)
+            current.roosts.save();
+    }
+
+    public ClientLevel getLevel() {
+        return level;
+    }
+
+    public RoostCache getRoosts() {
+        return roosts;
+    }
+
+    public int getLightEpoch() {
+        return lightEpoch;
+    }
+
+    // A block changed or a chunk arrived, light anywhere near may differ
+    public void lightChanged() {
+        lightEpoch++;
+    }
+
+    @Override
+    protected void onBlockChanged(BlockPos pos) {
+        lightChanged();
+    }
+
+    // Singleplayer roosts are kept in the save, multiplayer ones in the game
+    // directory by server address. Null keeps them in memory only.
+    private static Path roostDirectory(ClientLevel level) {
+        Minecraft minecraft = Minecraft.getInstance();
+        String dimension = sanitize(level.dimension().identifier().toString());
+        IntegratedServer server = minecraft.getSingleplayerServer();
+        if (server != null)
+            return server.getWorldPath(LevelResource.ROOT).resolve(AtmosphericFauna.MOD_ID).resolve("roosts")
+                    .resolve(dimension);
+        ServerData data = minecraft.getCurrentServer();
+        if (data != null)
+            return FabricLoader.getInstance().getGameDir().resolve(AtmosphericFauna.MOD_ID).resolve("roosts")
+                    .resolve(sanitize(data.ip)).resolve(dimension);
+        return null;
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,137 @@
+package nms.atmosphericfauna.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Changes in a world that birds react to together, published once per tick
+// instead of every bird watching for them. The first update of a game tick
+// compares weather and time of day with the last one and hands listeners what
+// changed, then the block changes and loud sounds the level's hooks queued
+// since. Queued and updated from the thread ticking the birds.
+public final class FaunaEventBus {
+
+    public enum Type {
+        RAIN_START,
+        RAIN_STOP,
+        THUNDER_START,
+        THUNDER_STOP,
+        DUSK,
+        DAWN,
+        // A single block, at x, y, z
+        BLOCK_CHANGED,
+        // Too many blocks changed in one tick to list, anything may have
+        BLOCKS_CHANGED,
+        // An explosion, thunder and the like, at x, y, z with its volume
+        LOUD_SOUND
+    }
+
+    public record Event(Type type, double x, double y, double z, float volume) {
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onEvent(FaunaWorld world, Event event);
+    }
+
+    // Same split as spawning, day until 12000
+    private static final long DUSK_TIME = 12000;
+
+    // Positioned events kept per tick, past this a tick sends BLOCKS_CHANGED
+    private static final int MAX_QUEUED = 256;
+
+    private final FaunaWorld world;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final List<Event> queued = new ArrayList<>();
+    private boolean overflowed = false;
+
+    private long time = Long.MIN_VALUE;
+    private boolean raining;
+    private boolean thundering;
+    private boolean night;
+
+    public FaunaEventBus(FaunaWorld world) {
+        this.world = world;
+    }
+
+    public void subscribe(Listener listener) {
+        if (!listeners.contains(listener))
+            listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public static boolean isNight(long dayTime) {
+        return Math.floorMod(dayTime, 24000L) >= DUSK_TIME;
+    }
+
+    // --- QUEUEING ---
+
+    public void blockChanged(int x, int y, int z) {
+        queue(new Event(Type.BLOCK_CHANGED, x, y, z, 0.0f));
+    }
+
+    public void loudSound(double x, double y, double z, float volume) {
+        queue(new Event(Type.LOUD_SOUND, x, y, z, volume));
+    }
+
+    private void queue(Event event) {
+        // Nobody would hear it
+        if (listeners.isEmpty())
+            return;
+        if (queued.size() < MAX_QUEUED)
+            queued.add(event);
+        else
+            overflowed = true;
+    }
+
+    // --- UPDATE ---
+
+    // Publishes what changed since the last game tick, a no-op for the rest
+    // of this one
+    public void update() {
+        long now = world.getGameTime();
+        if (now == time)
+            return;
+        boolean first = time == Long.MIN_VALUE;
+        time = now;
+
+        boolean wasRaining = raining;
+        boolean wasThundering = thundering;
+        boolean wasNight = night;
+        raining = world.isRaining();
+        thundering = world.isThundering();
+        night = isNight(world.getDayTime());
+        if (listeners.isEmpty() || first) {
+            queued.clear();
+            overflowed = false;
+            return;
+        }
+
+        if (raining != wasRaining)
+            publish(new Event(raining ? Type.RAIN_START : Type.RAIN_STOP, 0, 0, 0, 0.0f));
+        if (thundering != wasThundering)
+            publish(new Event(thundering ? Type.THUNDER_START : Type.THUNDER_STOP, 0, 0, 0, 0.0f));
+        if (night != wasNight)
+            publish(new Event(night ? Type.DUSK : Type.DAWN, 0, 0, 0, 0.0f));
+
+        if (overflowed) {
+            publish(new Event(Type.BLOCKS_CHANGED, 0, 0, 0, 0.0f));
+            overflowed = false;
+            for (Event event : queued) {
+                if (event.type() == Type.LOUD_SOUND)
+                    publish(event);
+            }
+        } else {
+            for (Event event : queued)
+                publish(event);
+        }
+        queued.clear();
+    }
+
+    private void publish(Event event) {
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onEvent(world, event);
+    }
+}
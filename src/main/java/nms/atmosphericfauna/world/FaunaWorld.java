@@ -0,0 +1,86 @@
+package nms.atmosphericfauna.world;
+
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+// The world queries fauna logic is allowed to make. Backed by the client level
+// in game, and by SyntheticFaunaWorld in benchmarks and headless runs.
+public interface FaunaWorld {
+
+    // --- BLOCKS ---
+
+    // Whether the chunk holding pos is loaded
+    boolean isLoaded(BlockPos pos);
+
+    boolean isEmptyBlock(BlockPos pos);
+
+    // Whether the block has a non-empty collision shape
+    boolean hasCollision(BlockPos pos);
+
+    // Whether the top face is sturdy enough to stand on
+    boolean isSturdyTop(BlockPos pos);
+
+    boolean isBlockInAny(BlockPos pos, List<TagKey<Block>> tags);
+
+    // Whether the 16x16x16 section certainly holds nothing but air. Worlds
+    // that know should override this, false only costs a closer look.
+    default boolean isSectionEmpty(int sectionX, int sectionY, int sectionZ) {
+        return false;
+    }
+
+    // Distance to terrain around flying birds, kept with the world
+    ObstacleField getObstacles();
+
+    // --- TERRAIN ---
+
+    int getHeight(Heightmap.Types type, int x, int z);
+
+    int getMinY();
+
+    int getHeight();
+
+    int getSeaLevel();
+
+    boolean isBiomeIn(BlockPos pos, TagKey<Biome> tag);
+
+    // One bit per tag the biome at pos is in. Worlds that can look the biome
+    // up once should override this.
+    default long biomeTagMask(BlockPos pos, List<TagKey<Biome>> tags) {
+        long mask = 0;
+        for (int i = 0; i < tags.size(); i++) {
+            if (isBiomeIn(pos, tags.get(i)))
+                mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    int getMaxLocalRawBrightness(BlockPos pos);
+
+    // --- TIME AND WEATHER ---
+
+    long getGameTime();
+
+    long getDayTime();
+
+    boolean isRaining();
+
+    boolean isThundering();
+
+    // Wind every flying bird of the world is pushed by
+    WindField getWind();
+
+    // --- EVENTS ---
+
+    // Weather, time of day, block and sound changes, once per tick
+    FaunaEventBus getEvents();
+
+    // --- PLAYERS ---
+
+    // Positions of all non-spectator players
+    List<Vec3> players();
+}
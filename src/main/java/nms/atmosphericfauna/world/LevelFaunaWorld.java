@@ -0,0 +1,219 @@
+package nms.atmosphericfauna.world;
+
+import nms.atmosphericfauna.bird.BirdPopulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+// FaunaWorld backed by a live level, with the population of birds living in
+// it. Subclassed for the client level and, in server simulation, server levels.
+public abstract class LevelFaunaWorld implements FaunaWorld {
+
+    private final Level level;
+    private final BirdPopulation population = new BirdPopulation(RandomSource.create());
+    private final ObstacleField obstacles = new ObstacleField(this);
+    private final WindField wind = new WindField(this);
+    private final FaunaEventBus events = new FaunaEventBus(this);
+
+    private final List<Vec3> players = new ArrayList<>();
+    private long playersTime = Long.MIN_VALUE;
+
+    // Finds the view of a client level. Set by the client initializer, so
+    // this class never names client classes a dedicated server lacks.
+    private static Function<Level, LevelFaunaWorld> clientViews = level -> null;
+
+    protected LevelFaunaWorld(Level level) {
+        this.level = level;
+    }
+
+    public BirdPopulation getPopulation() {
+        return population;
+    }
+
+    public static void setClientViews(Function<Level, LevelFaunaWorld> views) {
+        clientViews = views;
+    }
+
+    // The view of a level with birds, without creating it
+    private static LevelFaunaWorld find(Level level) {
+        return level.isClientSide() ? clientViews.apply(level) : ServerFaunaWorld.find((ServerLevel) level);
+    }
+
+    // Routes a block change in a level with birds to its obstacle field and
+    // event bus, then to onBlockChanged()
+    public static void blockChanged(Level level, BlockPos pos) {
+        LevelFaunaWorld view = find(level);
+        if (view == null)
+            return;
+        view.obstacles.blockChanged(pos.getX(), pos.getY(), pos.getZ());
+        view.events.blockChanged(pos.getX(), pos.getY(), pos.getZ());
+        view.onBlockChanged(pos);
+    }
+
+    // For what only one side keeps, after the shared state has seen the change
+    protected void onBlockChanged(BlockPos pos) {
+    }
+
+    // Routes a loud sound, an explosion or thunder, to the event bus of a
+    // level with birds
+    public static void loudSound(Level level, double x, double y, double z, float volume) {
+        LevelFaunaWorld view = find(level);
+        if (view != null)
+            view.events.loudSound(x, y, z, volume);
+    }
+
+    // --- BLOCKS ---
+
+    @Override
+    public boolean isLoaded(BlockPos pos) {
+        return level.hasChunk(SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+
+    @Override
+    public boolean isEmptyBlock(BlockPos pos) {
+        return level.isEmptyBlock(pos);
+    }
+
+    @Override
+    public boolean hasCollision(BlockPos pos) {
+        return !level.getBlockState(pos).getCollisionShape(level, pos).isEmpty();
+    }
+
+    @Override
+    public boolean isSturdyTop(BlockPos pos) {
+        return level.getBlockState(pos).isFaceSturdy(level, pos, Direction.UP);
+    }
+
+    @Override
+    public boolean isBlockInAny(BlockPos pos, List<TagKey<Block>> tags) {
+        BlockState state = level.getBlockState(pos);
+        for (TagKey<Block> tag : tags) {
+            if (state.is(tag))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSectionEmpty(int sectionX, int sectionY, int sectionZ) {
+        int index = level.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= level.getSectionsCount())
+            return true;
+        return level.getChunk(sectionX, sectionZ).getSection(index).hasOnlyAir();
+    }
+
+    @Override
+    public ObstacleField getObstacles() {
+        return obstacles;
+    }
+
+    // --- TERRAIN ---
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        return level.getHeight(type, x, z);
+    }
+
+    @Override
+    public int getMinY() {
+        return level.getMinY();
+    }
+
+    @Override
+    public int getHeight() {
+        return level.getHeight();
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return level.getSeaLevel();
+    }
+
+    @Override
+    public boolean isBiomeIn(BlockPos pos, TagKey<Biome> tag) {
+        return level.getBiome(pos).is(tag);
+    }
+
+    @Override
+    public long biomeTagMask(BlockPos pos, List<TagKey<Biome>> tags) {
+        Holder<Biome> biome = level.getBiome(pos);
+        long mask = 0;
+        for (int i = 0; i < tags.size(); i++) {
+            if (biome.is(tags.get(i)))
+                mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    @Override
+    public int getMaxLocalRawBrightness(BlockPos pos) {
+        return level.getMaxLocalRawBrightness(pos);
+    }
+
+    // --- TIME AND WEATHER ---
+
+    @Override
+    public long getGameTime() {
+        return level.getGameTime();
+    }
+
+    @Override
+    public long getDayTime() {
+        return level.getDayTime();
+    }
+
+    @Override
+    public boolean isRaining() {
+        return level.isRaining();
+    }
+
+    @Override
+    public boolean isThundering() {
+        return level.isThundering();
+    }
+
+    @Override
+    public WindField getWind() {
+        return wind;
+    }
+
+    // --- EVENTS ---
+
+    @Override
+    public FaunaEventBus getEvents() {
+        return events;
+    }
+
+    // --- PLAYERS ---
+
+    // Collected once per game tick, perched birds ask every tick
+    @Override
+    public List<Vec3> players() {
+        long time = level.getGameTime();
+        if (time != playersTime) {
+            players.clear();
+            for (Player p : level.players()) {
+                if (!p.isSpectator())
+                    players.add(p.position());
+            }
+            playersTime = time;
+        }
+        return players;
+    }
+}
@@ -0,0 +1,418 @@
+package nms.atmosphericfauna.world;
+
+import nms.atmosphericfauna.bird.BirdPopulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import net.minecraft.core.BlockPos;
+
+// Coarse distance from any point to the nearest block with collision, so
+// flying birds can feel terrain coming before they are in it. Space is cut
+// into cells of 2x2x2 blocks. Per 16x16x16 section the field keeps which cells
+// hold a solid block, and the Chebyshev distance in cells from each cell to
+// the nearest solid one, capped at MAX_DISTANCE. Both are built the first
+// time a bird asks, from loaded chunks only, and never for sections too far
+// above the terrain to matter. Columns no bird is near any more are dropped.
+// A block change re-checks its one cell and rebuilds distances only if the
+// cell flipped. Used from the thread that ticks the world's birds.
+public final class ObstacleField {
+
+    // Distances at or beyond this read as open air
+    public static final int MAX_DISTANCE = 3;
+
+    private static final int CELL_SHIFT = 1;
+    private static final int CELLS = 16 >> CELL_SHIFT;
+    private static final int CELL_MASK = CELLS - 1;
+
+    // Distances also cover a one cell border around the section, so a
+    // gradient never needs a second section
+    private static final int BORDER = 1;
+    private static final int SIZE = CELLS + 2 * BORDER;
+
+    // Distances for the border need solid cells up to MAX_DISTANCE beyond it
+    private static final int REACH = BORDER + MAX_DISTANCE;
+    private static final int GRID = CELLS + 2 * REACH;
+
+    // Shared by every section without a solid cell
+    private static final long[] EMPTY = new long[CELLS * CELLS * CELLS / 64];
+    private static final byte[] OPEN = new byte[SIZE * SIZE * SIZE];
+
+    static {
+        Arrays.fill(OPEN, (byte) MAX_DISTANCE);
+    }
+
+    private static final class Column {
+        final long[][] solid;
+        // Most columns are only looked into by a neighbor, null until a
+        // section of this one is built
+        byte[][] distances = null;
+
+        // Sections from this one up hold only air, -1 until looked up
+        int top = -1;
+
+        Column(int sections) {
+            solid = new long[sections][];
+        }
+    }
+
+    private final FaunaWorld world;
+    private final Map<Long, Column> columns = new HashMap<>();
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+    // Scratch for building distances
+    private final long[][] neighborhood = new long[27][];
+    private final byte[] grid = new byte[GRID * GRID * GRID];
+    private final byte[] spread = new byte[GRID * GRID * GRID];
+    private final byte[] around = new byte[GRID * GRID * GRID];
+
+    // Last section asked for, birds of a flock mostly share one
+    private int lastX, lastY, lastZ;
+    private byte[] lastDistances = null;
+
+    private long builds = 0;
+
+    public ObstacleField(FaunaWorld world) {
+        this.world = world;
+    }
+
+    // --- QUERY ---
+
+    // Distance in cells from the point to the nearest solid cell, 0 when its
+    // own cell holds a solid block, or -1 while the area isn't loaded
+    public int distance(double x, double y, double z) {
+        int bx = floor(x), by = floor(y), bz = floor(z);
+        byte[] distances = distances(bx >> 4, by >> 4, bz >> 4);
+        if (distances == null)
+            return -1;
+        return distances[index(((bx & 15) >> CELL_SHIFT) + BORDER, ((by & 15) >> CELL_SHIFT) + BORDER,
+                ((bz & 15) >> CELL_SHIFT) + BORDER)];
+    }
+
+    // Same as distance(), and writes the direction in which distance grows
+    // into gradient, unnormalized, zero in open air. One section lookup.
+    public int sample(double x, double y, double z, double[] gradient) {
+        int bx = floor(x), by = floor(y), bz = floor(z);
+        byte[] distances = distances(bx >> 4, by >> 4, bz >> 4);
+        if (distances == null)
+            return -1;
+        int cx = ((bx & 15) >> CELL_SHIFT) + BORDER;
+        int cy = ((by & 15) >> CELL_SHIFT) + BORDER;
+        int cz = ((bz & 15) >> CELL_SHIFT) + BORDER;
+        int i = index(cx, cy, cz);
+        gradient[0] = (distances[i + 1] - distances[i - 1]) * 0.5;
+        gradient[1] = (distances[i + SIZE] - distances[i - SIZE]) * 0.5;
+        gradient[2] = (distances[i + SIZE * SIZE] - distances[i - SIZE * SIZE]) * 0.5;
+        return distances[i];
+    }
+
+    private static int floor(double value) {
+        int i = (int) value;
+        return value < i ? i - 1 : i;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (z * SIZE + y) * SIZE + x;
+    }
+
+    // --- CHANGES ---
+
+    // Re-checks the cell holding the block, distances around it are rebuilt
+    // only when the cell gained its first solid block or lost its last
+    public void blockChanged(int x, int y, int z) {
+        int sectionX = x >> 4, sectionY = y >> 4, sectionZ = z >> 4;
+        Column column = columns.get(BirdPopulation.chunkKey(sectionX, sectionZ));
+        int section = sectionIndex(sectionY);
+        if (column == null || section < 0 || section >= column.solid.length)
+            return;
+        // Sections above the old top answered open air without a look
+        if (column.top >= 0 && section >= column.top) {
+            column.top = section + 1;
+            lastDistances = null;
+        }
+        if (column.solid[section] == null)
+            return;
+
+        long[] solid = column.solid[section];
+        int cell = cellIndex((x & 15) >> CELL_SHIFT, (y & 15) >> CELL_SHIFT, (z & 15) >> CELL_SHIFT);
+        boolean was = (solid[cell >> 6] & (1L << cell)) != 0;
+        boolean is = isCellSolid(x & ~((1 << CELL_SHIFT) - 1), y & ~((1 << CELL_SHIFT) - 1),
+                z & ~((1 << CELL_SHIFT) - 1));
+        if (was == is)
+            return;
+
+        if (solid == EMPTY) {
+            solid = new long[EMPTY.length];
+            column.solid[section] = solid;
+        }
+        solid[cell >> 6] ^= 1L << cell;
+        forgetDistances(sectionX, sectionY, sectionZ);
+    }
+
+    // Forgets a chunk that loaded, unloaded or was resent, and the distances
+    // of its neighbors that looked into it
+    public void invalidateChunk(long chunkKey) {
+        int chunkX = (int) chunkKey;
+        int chunkZ = (int) (chunkKey >>> 32);
+        columns.remove(chunkKey);
+        lastDistances = null;
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                Column column = columns.get(BirdPopulation.chunkKey(chunkX + dx, chunkZ + dz));
+                if (column != null)
+                    column.distances = null;
+            }
+        }
+    }
+
+    public void clear() {
+        columns.clear();
+        lastDistances = null;
+    }
+
+    private void forgetDistances(int sectionX, int sectionY, int sectionZ) {
+        lastDistances = null;
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                Column column = columns.get(BirdPopulation.chunkKey(sectionX + dx, sectionZ + dz));
+                if (column == null || column.distances == null)
+                    continue;
+                for (int dy = -1; dy <= 1; dy++) {
+                    int section = sectionIndex(sectionY + dy);
+                    if (section >= 0 && section < column.distances.length)
+                        column.distances[section] = null;
+                }
+            }
+        }
+    }
+
+    // --- STATS ---
+
+    // Sections whose distances were built so far
+    public long getBuilds() {
+        return builds;
+    }
+
+    public int getColumns() {
+        return columns.size();
+    }
+
+    // --- SWEEP ---
+
+    // Drops the columns of chunks no bird is over or next to, they are built
+    // again if birds come back
+    public void retainAround(BirdPopulation population) {
+        int before = columns.size();
+        columns.keySet().removeIf(key -> population.countAround((int) (long) key, (int) (key >>> 32), 1) == 0);
+        if (columns.size() != before)
+            lastDistances = null;
+    }
+
+    // --- BUILDING ---
+
+    private int sectionIndex(int sectionY) {
+        return sectionY - (world.getMinY() >> 4);
+    }
+
+    private Column column(int chunkX, int chunkZ) {
+        long key = BirdPopulation.chunkKey(chunkX, chunkZ);
+        Column column = columns.get(key);
+        if (column == null) {
+            column = new Column(world.getHeight() >> 4);
+            columns.put(key, column);
+        }
+        return column;
+    }
+
+    private boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return world.isLoaded(pos.set(chunkX << 4, world.getMinY(), chunkZ << 4));
+    }
+
+    private byte[] distances(int sectionX, int sectionY, int sectionZ) {
+        if (lastDistances != null && sectionX == lastX && sectionY == lastY && sectionZ == lastZ)
+            return lastDistances;
+        byte[] distances = lookup(sectionX, sectionY, sectionZ);
+        if (distances != null) {
+            lastX = sectionX;
+            lastY = sectionY;
+            lastZ = sectionZ;
+            lastDistances = distances;
+        }
+        return distances;
+    }
+
+    private byte[] lookup(int sectionX, int sectionY, int sectionZ) {
+        int section = sectionIndex(sectionY);
+        if (section < 0 || section >= world.getHeight() >> 4)
+            return null;
+        Column column = columns.get(BirdPopulation.chunkKey(sectionX, sectionZ));
+        byte[] distances = column == null || column.distances == null ? null : column.distances[section];
+        if (distances != null)
+            return distances;
+
+        // Border cells look into every neighbor, all of them must be loaded
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (!isChunkLoaded(sectionX + dx, sectionZ + dz))
+                    return null;
+            }
+        }
+
+        // Nothing to build this far above the terrain of every neighbor
+        if (isAboveTerrain(sectionX, section, sectionZ))
+            return OPEN;
+
+        boolean open = true;
+        for (int dz = -1, n = 0; dz <= 1; dz++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++, n++) {
+                    long[] solid = solid(sectionX + dx, sectionY + dy, sectionZ + dz);
+                    neighborhood[n] = solid;
+                    open &= solid == EMPTY;
+                }
+            }
+        }
+        distances = open ? OPEN : spread();
+        column = column(sectionX, sectionZ);
+        if (column.distances == null)
+            column.distances = new byte[column.solid.length][];
+        column.distances[section] = distances;
+        builds++;
+        return distances;
+    }
+
+    // Whether the section and the ones above and below it hold only air in all
+    // nine columns, so every distance of the section is the cap
+    private boolean isAboveTerrain(int sectionX, int section, int sectionZ) {
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (section - 1 < top(sectionX + dx, sectionZ + dz))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private int top(int chunkX, int chunkZ) {
+        Column column = column(chunkX, chunkZ);
+        if (column.top < 0) {
+            int top = column.solid.length;
+            int minSection = world.getMinY() >> 4;
+            while (top > 0 && world.isSectionEmpty(chunkX, minSection + top - 1, chunkZ))
+                top--;
+            column.top = top;
+        }
+        return column.top;
+    }
+
+    // Which cells of a section hold a block with collision
+    private long[] solid(int sectionX, int sectionY, int sectionZ) {
+        int section = sectionIndex(sectionY);
+        // Above and below the world nothing collides
+        if (section < 0 || section >= world.getHeight() >> 4)
+            return EMPTY;
+        Column column = column(sectionX, sectionZ);
+        long[] solid = column.solid[section];
+        if (solid != null)
+            return solid;
+
+        solid = EMPTY;
+        if (!world.isSectionEmpty(sectionX, sectionY, sectionZ)) {
+            int baseX = sectionX << 4, baseY = sectionY << 4, baseZ = sectionZ << 4;
+            for (int cz = 0; cz < CELLS; cz++) {
+                for (int cy = 0; cy < CELLS; cy++) {
+                    for (int cx = 0; cx < CELLS; cx++) {
+                        if (!isCellSolid(baseX + (cx << CELL_SHIFT), baseY + (cy << CELL_SHIFT),
+                                baseZ + (cz << CELL_SHIFT)))
+                            continue;
+                        if (solid == EMPTY)
+                            solid = new long[EMPTY.length];
+                        int cell = cellIndex(cx, cy, cz);
+                        solid[cell >> 6] |= 1L << cell;
+                    }
+                }
+            }
+        }
+        column.solid[section] = solid;
+        return solid;
+    }
+
+    private static int cellIndex(int x, int y, int z) {
+        return (z * CELLS + y) * CELLS + x;
+    }
+
+    // Whether any block of the cell starting at the given corner collides
+    private boolean isCellSolid(int x, int y, int z) {
+        int size = 1 << CELL_SHIFT;
+        for (int dy = 0; dy < size; dy++) {
+            for (int dz = 0; dz < size; dz++) {
+                for (int dx = 0; dx < size; dx++) {
+                    if (world.hasCollision(pos.set(x + dx, y + dy, z + dz)))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Distances for the section in the middle of the neighborhood. Solid
+    // cells start at 0 and everything else at the cap, then each round lowers
+    // a cell to one more than the smallest value around it. The 3x3x3
+    // minimum is taken one axis at a time.
+    private byte[] spread() {
+        for (int z = 0; z < GRID; z++) {
+            for (int y = 0; y < GRID; y++) {
+                for (int x = 0; x < GRID; x++)
+                    grid[gridIndex(x, y, z)] = isSolid(x - REACH, y - REACH, z - REACH) ? 0 : (byte) MAX_DISTANCE;
+            }
+        }
+
+        for (int round = 1; round < MAX_DISTANCE; round++) {
+            minimum(grid, spread, 1, 0, 0);
+            minimum(spread, around, 0, 1, 0);
+            minimum(around, spread, 0, 0, 1);
+            for (int i = 0; i < grid.length; i++)
+                grid[i] = (byte) Math.min(grid[i], spread[i] + 1);
+        }
+
+        byte[] distances = new byte[SIZE * SIZE * SIZE];
+        int offset = REACH - BORDER;
+        for (int z = 0; z < SIZE; z++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++)
+                    distances[index(x, y, z)] = grid[gridIndex(x + offset, y + offset, z + offset)];
+            }
+        }
+        return distances;
+    }
+
+    private static int gridIndex(int x, int y, int z) {
+        return (z * GRID + y) * GRID + x;
+    }
+
+    // Minimum of each cell and its two neighbors along one axis
+    private static void minimum(byte[] from, byte[] to, int stepX, int stepY, int stepZ) {
+        int stride = gridIndex(stepX, stepY, stepZ);
+        for (int z = 0; z < GRID; z++) {
+            for (int y = 0; y < GRID; y++) {
+                for (int x = 0; x < GRID; x++) {
+                    int i = gridIndex(x, y, z);
+                    int value = from[i];
+                    if (x >= stepX && y >= stepY && z >= stepZ)
+                        value = Math.min(value, from[i - stride]);
+                    if (x + stepX < GRID && y + stepY < GRID && z + stepZ < GRID)
+                        value = Math.min(value, from[i + stride]);
+                    to[i] = (byte) value;
+                }
+            }
+        }
+    }
+
+    // Cell relative to the middle section's corner, within REACH of it
+    private boolean isSolid(int x, int y, int z) {
+        int sx = (x >> 3) + 1, sy = (y >> 3) + 1, sz = (z >> 3) + 1;
+        long[] solid = neighborhood[(sz * 3 + sy) * 3 + sx];
+        int cell = cellIndex(x & CELL_MASK, y & CELL_MASK, z & CELL_MASK);
+        return (solid[cell >> 6] & (1L << cell)) != 0;
+    }
+}
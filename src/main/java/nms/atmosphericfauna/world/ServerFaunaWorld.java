@@ -0,0 +1,49 @@
+package nms.atmosphericfauna.world;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import net.minecraft.server.level.ServerLevel;
+
+// A server level in server simulation, one per level with players in it.
+// Only touched from the server thread.
+public class ServerFaunaWorld extends LevelFaunaWorld {
+
+    private static final Map<ServerLevel, ServerFaunaWorld> VIEWS = new IdentityHashMap<>();
+
+    private final ServerLevel level;
+
+    private ServerFaunaWorld(ServerLevel level) {
+        super(level);
+        this.level = level;
+    }
+
+    public static ServerFaunaWorld of(ServerLevel level) {
+        return VIEWS.computeIfAbsent(level, ServerFaunaWorld::new);
+    }
+
+    // The view of this level if it has one, without creating it
+    public static ServerFaunaWorld find(ServerLevel level) {
+        return VIEWS.get(level);
+    }
+
+    // Drops the level's birds, it starts over empty next time
+    public static void remove(ServerLevel level) {
+        ServerFaunaWorld view = VIEWS.remove(level);
+        if (view != null)
+            view.getPopulation().clear();
+    }
+
+    public static void reset() {
+        for (ServerFaunaWorld view : VIEWS.values())
+            view.getPopulation().clear();
+        VIEWS.clear();
+    }
+
+    public static boolean isEmpty() {
+        return VIEWS.isEmpty();
+    }
+
+    public ServerLevel getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,382 @@
+package nms.atmosphericfauna.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.BiomeTags;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+// In-memory world with procedurally generated terrain: rolling hills, beaches,
+// snowy peaks, lakes and scattered trees. Everything is derived from the seed,
+// so two worlds with the same seed answer every query identically. Needs no
+// registries or bootstrap, tags are answered from the generated material.
+public class SyntheticFaunaWorld implements FaunaWorld {
+
+    public static final int SEA_LEVEL = 63;
+    public static final int MIN_Y = -64;
+    public static final int HEIGHT = 384;
+
+    public enum Material {
+        AIR(null, false, false),
+        WATER(null, false, false),
+        GRASS(BlockTags.DIRT, true, true),
+        DIRT(BlockTags.DIRT, true, true),
+        SAND(BlockTags.SAND, true, true),
+        STONE(BlockTags.BASE_STONE_OVERWORLD, true, true),
+        SNOW(BlockTags.SNOW, true, true),
+        LOG(BlockTags.LOGS, true, true),
+        LEAVES(BlockTags.LEAVES, true, true);
+
+        final TagKey<Block> tag;
+        final boolean collision;
+        final boolean sturdyTop;
+
+        Material(TagKey<Block> tag, boolean collision, boolean sturdyTop) {
+            this.tag = tag;
+            this.collision = collision;
+            this.sturdyTop = sturdyTop;
+        }
+    }
+
+    private static final int TREE_CELL_SHIFT = 3; // trees are placed in 8x8 cells
+    private static final int CACHE_SIZE = 1 << 12;
+
+    private final long seed;
+
+    private long gameTime = 0;
+    private long dayTime = 0;
+    private boolean raining = false;
+    private boolean thundering = false;
+    private final List<Vec3> players = new ArrayList<>();
+    private final ObstacleField obstacles = new ObstacleField(this);
+    private final WindField wind = new WindField(this);
+    private final FaunaEventBus events = new FaunaEventBus(this);
+
+    // Direct-mapped column height cache, terrain noise is the expensive part
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final int[] cacheHeights = new int[CACHE_SIZE];
+
+    public SyntheticFaunaWorld(long seed) {
+        this.seed = seed;
+        Arrays.fill(cacheKeys, Long.MIN_VALUE);
+    }
+
+    // --- SIMULATION CONTROL ---
+
+    public void tick() {
+        gameTime++;
+        dayTime++;
+    }
+
+    public void setDayTime(long dayTime) {
+        this.dayTime = dayTime;
+    }
+
+    public void setWeather(boolean raining, boolean thundering) {
+        this.raining = raining || thundering;
+        this.thundering = thundering;
+    }
+
+    public List<Vec3> getPlayers() {
+        return players;
+    }
+
+    // --- GENERATION ---
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private long hash(int x, int z, int salt) {
+        return mix(seed ^ (x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL) ^ (salt * 0x165667B19E3779F9L));
+    }
+
+    // Uniform value in [0, 1) for a lattice point
+    private double lattice(int x, int z, int salt) {
+        return (hash(x, z, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    // Smoothly interpolated value noise in [0, 1)
+    private double valueNoise(double x, double z, int salt) {
+        int x0 = (int) Math.floor(x);
+        int z0 = (int) Math.floor(z);
+        double fx = x - x0;
+        double fz = z - z0;
+        double sx = fx * fx * (3.0 - 2.0 * fx);
+        double sz = fz * fz * (3.0 - 2.0 * fz);
+
+        double a = lattice(x0, z0, salt);
+        double b = lattice(x0 + 1, z0, salt);
+        double c = lattice(x0, z0 + 1, salt);
+        double d = lattice(x0 + 1, z0 + 1, salt);
+        double top = a + (b - a) * sx;
+        double bottom = c + (d - c) * sx;
+        return top + (bottom - top) * sz;
+    }
+
+    private int computeTerrainHeight(int x, int z) {
+        double hills = valueNoise(x / 64.0, z / 64.0, 1) * 0.6
+                + valueNoise(x / 24.0, z / 24.0, 2) * 0.3
+                + valueNoise(x / 8.0, z / 8.0, 3) * 0.1;
+        double mountains = valueNoise(x / 256.0, z / 256.0, 4);
+        mountains = mountains > 0.6 ? (mountains - 0.6) * 2.5 : 0.0;
+        return SEA_LEVEL - 10 + (int) (hills * 30.0 + mountains * 50.0);
+    }
+
+    // Y of the topmost terrain block, ignoring water and trees
+    public int getTerrainHeight(int x, int z) {
+        long key = ((long) x << 32) | (z & 0xFFFFFFFFL);
+        int slot = (int) mix(key) & (CACHE_SIZE - 1);
+        if (cacheKeys[slot] != key) {
+            cacheKeys[slot] = key;
+            cacheHeights[slot] = computeTerrainHeight(x, z);
+        }
+        return cacheHeights[slot];
+    }
+
+    private boolean isForest(int x, int z) {
+        return valueNoise(x / 96.0, z / 96.0, 5) > 0.55;
+    }
+
+    // Each 8x8 cell holds at most one tree. Trunks stay two blocks inside their
+    // cell so leaves never cross into a neighboring cell.
+    private Material treeMaterial(int x, int y, int z) {
+        int cellX = x >> TREE_CELL_SHIFT;
+        int cellZ = z >> TREE_CELL_SHIFT;
+        long h = hash(cellX, cellZ, 6);
+        int tx = (cellX << TREE_CELL_SHIFT) + 2 + (int) ((h >>> 8) & 3);
+        int tz = (cellZ << TREE_CELL_SHIFT) + 2 + (int) ((h >>> 16) & 3);
+        int dx = Math.abs(x - tx);
+        int dz = Math.abs(z - tz);
+        if (dx > 2 || dz > 2)
+            return null;
+
+        int chance = isForest(tx, tz) ? 70 : 12;
+        if ((h & 127) >= chance)
+            return null;
+
+        int ground = getTerrainHeight(tx, tz);
+        if (ground < SEA_LEVEL + 1 || ground > SEA_LEVEL + 30)
+            return null;
+
+        int base = ground + 1;
+        int top = base + 3 + (int) ((h >>> 24) & 3);
+        if (dx == 0 && dz == 0 && y >= base && y <= top)
+            return Material.LOG;
+
+        int dy = y - top;
+        if (dy >= -1 && dy <= 0 && !(dx == 2 && dz == 2))
+            return Material.LEAVES;
+        if (dy == 1 && dx <= 1 && dz <= 1)
+            return Material.LEAVES;
+        return null;
+    }
+
+    public Material getMaterial(int x, int y, int z) {
+        int height = getTerrainHeight(x, z);
+        if (y > height) {
+            if (y < SEA_LEVEL)
+                return Material.WATER;
+            if (y - height <= 12) {
+                Material tree = treeMaterial(x, y, z);
+                if (tree != null)
+                    return tree;
+            }
+            return Material.AIR;
+        }
+
+        if (y == height) {
+            if (height > SEA_LEVEL + 32)
+                return Material.SNOW;
+            if (height <= SEA_LEVEL + 1)
+                return Material.SAND;
+            // Steep slopes show bare stone
+            int slope = Math.abs(getTerrainHeight(x + 1, z) - height) + Math.abs(getTerrainHeight(x, z + 1) - height);
+            return slope >= 3 ? Material.STONE : Material.GRASS;
+        }
+        return height - y <= 3 ? Material.DIRT : Material.STONE;
+    }
+
+    private Material getMaterial(BlockPos pos) {
+        return getMaterial(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    // --- BLOCKS ---
+
+    // Unbounded, every column is generated on demand
+    @Override
+    public boolean isLoaded(BlockPos pos) {
+        return true;
+    }
+
+    @Override
+    public boolean isEmptyBlock(BlockPos pos) {
+        return getMaterial(pos) == Material.AIR;
+    }
+
+    @Override
+    public boolean hasCollision(BlockPos pos) {
+        return getMaterial(pos).collision;
+    }
+
+    @Override
+    public boolean isSturdyTop(BlockPos pos) {
+        return getMaterial(pos).sturdyTop;
+    }
+
+    @Override
+    public boolean isBlockInAny(BlockPos pos, List<TagKey<Block>> tags) {
+        TagKey<Block> tag = getMaterial(pos).tag;
+        return tag != null && tags.contains(tag);
+    }
+
+    // Nothing but air above the tallest column's trees
+    @Override
+    public boolean isSectionEmpty(int sectionX, int sectionY, int sectionZ) {
+        int bottom = sectionY << 4;
+        if (bottom < SEA_LEVEL)
+            return false;
+        for (int z = sectionZ << 4, endZ = z + 16; z < endZ; z++) {
+            for (int x = sectionX << 4, endX = x + 16; x < endX; x++) {
+                if (getHeight(Heightmap.Types.MOTION_BLOCKING, x, z) > bottom)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ObstacleField getObstacles() {
+        return obstacles;
+    }
+
+    // --- TERRAIN ---
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        int height = Math.max(getTerrainHeight(x, z), SEA_LEVEL - 1);
+        for (int y = height + 12; y > height; y--) {
+            Material material = getMaterial(x, y, z);
+            if (material == Material.AIR)
+                continue;
+            if (material == Material.LEAVES && type == Heightmap.Types.MOTION_BLOCKING_NO_LEAVES)
+                continue;
+            return y + 1;
+        }
+        return height + 1;
+    }
+
+    @Override
+    public int getMinY() {
+        return MIN_Y;
+    }
+
+    @Override
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return SEA_LEVEL;
+    }
+
+    @Override
+    public boolean isBiomeIn(BlockPos pos, TagKey<Biome> tag) {
+        if (tag.equals(BiomeTags.IS_OVERWORLD))
+            return true;
+        int height = getTerrainHeight(pos.getX(), pos.getZ());
+        if (tag.equals(BiomeTags.IS_FOREST))
+            return isForest(pos.getX(), pos.getZ());
+        if (tag.equals(BiomeTags.IS_OCEAN))
+            return height < SEA_LEVEL - 4;
+        if (tag.equals(BiomeTags.IS_BEACH))
+            return height >= SEA_LEVEL - 4 && height <= SEA_LEVEL + 1;
+        if (tag.equals(BiomeTags.IS_MOUNTAIN))
+            return height > SEA_LEVEL + 30;
+        return false;
+    }
+
+    // Sky light only: full daylight above the surface, darker under leaves and
+    // at night, none underground
+    @Override
+    public int getMaxLocalRawBrightness(BlockPos pos) {
+        int x = pos.getX();
+        int z = pos.getZ();
+        if (pos.getY() <= getTerrainHeight(x, z))
+            return 0;
+        int sky = 15 - getSkyDarken();
+        if (pos.getY() < getHeight(Heightmap.Types.MOTION_BLOCKING, x, z))
+            sky -= 3;
+        return Math.max(0, sky);
+    }
+
+    private int getSkyDarken() {
+        long time = dayTime % 24000;
+        int darken;
+        if (time < 12000)
+            darken = 0;
+        else if (time < 13500)
+            darken = (int) ((time - 12000) * 11 / 1500);
+        else if (time < 22500)
+            darken = 11;
+        else
+            darken = (int) ((24000 - time) * 11 / 1500);
+        if (raining)
+            darken += 3;
+        if (thundering)
+            darken += 2;
+        return Math.min(11, darken);
+    }
+
+    // --- TIME AND WEATHER ---
+
+    @Override
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    @Override
+    public long getDayTime() {
+        return dayTime;
+    }
+
+    @Override
+    public boolean isRaining() {
+        return raining;
+    }
+
+    @Override
+    public boolean isThundering() {
+        return thundering;
+    }
+
+    @Override
+    public WindField getWind() {
+        return wind;
+    }
+
+    // --- EVENTS ---
+
+    @Override
+    public FaunaEventBus getEvents() {
+        return events;
+    }
+
+    // --- PLAYERS ---
+
+    @Override
+    public List<Vec3> players() {
+        return players;
+    }
+}
@@ -0,0 +1,159 @@
+package nms.atmosphericfauna.world;
+
+// Wind shared by every bird of a world, so separate flocks drift the same way.
+// Once per tick the field works out the prevailing wind, which turns slowly
+// and picks up in rain and more in thunder, and a table of gusts tiled over the
+// world in cells of 32x32 blocks that moves downwind. A bird reads the cell it
+// is in, one table lookup, scaled by its height above sea level. Updated
+// lazily by the first sample of a tick, from the thread ticking the birds.
+public final class WindField {
+
+    private static final int CELL_SHIFT = 5;
+    private static final int TILES = 16;
+    private static final int TILE_MASK = TILES - 1;
+
+    // Gust noise lattice points per table side, the table wraps seamlessly
+    private static final int LATTICE = 4;
+
+    // Push on a flying bird, in blocks per tick squared
+    private static final double CALM = 0.0003;
+    private static final double RAIN = 0.001;
+    private static final double THUNDER = 0.0025;
+
+    // How much gusts add to or take from the wind, and push sideways
+    private static final double GUST = 0.6;
+    private static final double CROSS = 0.3;
+
+    // Weather changes blow in over a few hundred ticks
+    private static final double EASE = 0.99;
+
+    // Ticks for the prevailing wind to drift through one noise step
+    private static final double TURN_TICKS = 6000.0;
+
+    // Blocks per tick the gusts move at full thunder strength
+    private static final double GUST_SPEED = 0.4;
+
+    private final FaunaWorld world;
+    private final double[] table = new double[TILES * TILES * 2];
+
+    private long time = Long.MIN_VALUE;
+    private double strength = CALM;
+    private double windX = 0.0;
+    private double windZ = 0.0;
+    private double driftX = 0.0;
+    private double driftZ = 0.0;
+
+    public WindField(FaunaWorld world) {
+        this.world = world;
+    }
+
+    // --- QUERY ---
+
+    // Writes the wind's push at the point into out, x, y and z. Wind is
+    // horizontal, out[1] is always 0.
+    public void sample(double x, double y, double z, double[] out) {
+        long now = world.getGameTime();
+        if (now != time)
+            update(now);
+
+        int tileX = ((int) Math.floor(x) >> CELL_SHIFT) & TILE_MASK;
+        int tileZ = ((int) Math.floor(z) >> CELL_SHIFT) & TILE_MASK;
+        int i = (tileZ * TILES + tileX) * 2;
+        // Calmer near the ground, up to half again as strong high up
+        double height = Math.min(1.5, Math.max(0.5, 0.5 + (y - world.getSeaLevel()) / 64.0));
+        out[0] = table[i] * height;
+        out[1] = 0.0;
+        out[2] = table[i + 1] * height;
+    }
+
+    // Prevailing wind, without gusts or height
+    public double getWindX() {
+        return windX * strength;
+    }
+
+    public double getWindZ() {
+        return windZ * strength;
+    }
+
+    // --- UPDATE ---
+
+    private void update(long now) {
+        // Catch up on ticks nobody asked in, a jump back starts over
+        long ticks = time == Long.MIN_VALUE || now < time ? 0 : Math.min(now - time, 24000);
+        time = now;
+
+        double target = world.isThundering() ? THUNDER : world.isRaining() ? RAIN : CALM;
+        strength = target + (strength - target) * Math.pow(EASE, ticks);
+
+        double angle = noise(now / TURN_TICKS, 0) * Math.PI * 4;
+        windX = Math.cos(angle);
+        windZ = Math.sin(angle);
+
+        // The gust pattern rides the wind
+        double speed = GUST_SPEED * strength / THUNDER;
+        driftX += windX * speed * ticks;
+        driftZ += windZ * speed * ticks;
+        double period = TILES << CELL_SHIFT;
+        driftX %= period;
+        driftZ %= period;
+
+        double cellsPerLattice = (double) TILES / LATTICE;
+        for (int tz = 0; tz < TILES; tz++) {
+            for (int tx = 0; tx < TILES; tx++) {
+                double px = (tx - driftX / (1 << CELL_SHIFT)) / cellsPerLattice;
+                double pz = (tz - driftZ / (1 << CELL_SHIFT)) / cellsPerLattice;
+                double gust = 1.0 + GUST * (gustNoise(px, pz, 1) * 2.0 - 1.0);
+                double cross = CROSS * (gustNoise(px, pz, 2) * 2.0 - 1.0);
+                int i = (tz * TILES + tx) * 2;
+                table[i] = (windX * gust - windZ * cross) * strength;
+                table[i + 1] = (windZ * gust + windX * cross) * strength;
+            }
+        }
+    }
+
+    // --- NOISE ---
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    // Uniform value in [0, 1) for a lattice point
+    private static double lattice(long x, long z, int salt) {
+        return (mix((x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL) ^ (salt * 0x165667B19E3779F9L)) >>> 11)
+                * 0x1.0p-53;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3.0 - 2.0 * t);
+    }
+
+    // Smooth value noise along a line, in [0, 1)
+    private static double noise(double t, int salt) {
+        long t0 = (long) Math.floor(t);
+        double f = smooth(t - t0);
+        double a = lattice(t0, 0, salt);
+        return a + (lattice(t0 + 1, 0, salt) - a) * f;
+    }
+
+    // Smooth value noise over a lattice that wraps every LATTICE points, in [0, 1)
+    private static double gustNoise(double x, double z, int salt) {
+        int x0 = (int) Math.floor(x);
+        int z0 = (int) Math.floor(z);
+        double sx = smooth(x - x0);
+        double sz = smooth(z - z0);
+        int ax = Math.floorMod(x0, LATTICE), bx = Math.floorMod(x0 + 1, LATTICE);
+        int az = Math.floorMod(z0, LATTICE), bz = Math.floorMod(z0 + 1, LATTICE);
+
+        double a = lattice(ax, az, salt);
+        double b = lattice(bx, az, salt);
+        double c = lattice(ax, bz, salt);
+        double d = lattice(bx, bz, salt);
+        double top = a + (b - a) * sx;
+        double bottom = c + (d - c) * sx;
+        return top + (bottom - top) * sz;
+    }
+}
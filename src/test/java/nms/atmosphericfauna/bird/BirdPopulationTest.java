@@ -0,0 +1,78 @@
+package nms.atmosphericfauna.bird;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import nms.atmosphericfauna.species.Species;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+import nms.atmosphericfauna.world.SyntheticFaunaWorld;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import net.minecraft.util.RandomSource;
+
+class BirdPopulationTest {
+
+    private static final int BIRDS = 10;
+
+    private final SyntheticFaunaWorld world = new SyntheticFaunaWorld(1L);
+    private final Species crow = SpeciesRegistry.get(SpeciesRegistry.CROW);
+    private final BirdPopulation population = new BirdPopulation(RandomSource.create(1L));
+    private final List<Bird> birds = new ArrayList<>();
+
+    private void spawn() {
+        for (int i = 0; i < BIRDS; i++) {
+            double x = i * 16.0;
+            birds.add(population.obtain(crow, world, x, world.getTerrainHeight((int) x, 0) + 8.0, 0.0, 0, 0, 0));
+        }
+    }
+
+    // Like the particle engine after evicting particles, only the first half of
+    // the birds keeps ticking
+    private void tickFirstHalf() {
+        world.tick();
+        for (int i = 0; i < BIRDS / 2; i++)
+            birds.get(i).tick();
+    }
+
+    @Test
+    void staleBirdsExpireFromBirdTicks() {
+        spawn();
+        for (int pass = 0; pass < BirdPopulation.STALE_PASSES; pass++)
+            tickFirstHalf();
+        assertEquals(BIRDS, population.size(), "birds expired before missing enough passes");
+
+        tickFirstHalf();
+        assertEquals(BIRDS / 2, population.size());
+        for (int i = 0; i < BIRDS; i++)
+            assertEquals(i >= BIRDS / 2, birds.get(i).isRemoved(), "bird " + i);
+
+        // A particle may still hold them, so they are not handed out again
+        population.obtain(crow, world, 0.0, 100.0, 0.0, 0, 0, 0);
+        assertEquals(0, population.getBirdsReused());
+    }
+
+    @Test
+    void populationTickExpiresBeforeTickingAndPools() {
+        spawn();
+        for (int pass = 0; pass < BirdPopulation.STALE_PASSES; pass++)
+            tickFirstHalf();
+
+        world.tick();
+        population.tick(world);
+        assertEquals(BIRDS / 2, population.size());
+        // Every survivor ticked in this pass
+        for (Bird bird : population.getBirds()) {
+            assertFalse(bird.isRemoved());
+            assertEquals(population.pass, bird.lastPass);
+        }
+
+        Bird reused = population.obtain(crow, world, 0.0, 100.0, 0.0, 0, 0, 0);
+        assertEquals(1, population.getBirdsReused());
+        assertTrue(birds.indexOf(reused) >= BIRDS / 2, "reused a bird that was still alive");
+        assertSame(crow, reused.getSpecies());
+    }
+}
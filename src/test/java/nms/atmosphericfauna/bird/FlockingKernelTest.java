@@ -0,0 +1,57 @@
+package nms.atmosphericfauna.bird;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// The vector kernel against the scalar reference. The test task runs with
+// --add-modules jdk.incubator.vector, so the kernel has to load.
+class FlockingKernelTest {
+
+    // Vector results may differ from scalar ones by rounding, never by more
+    private static final double TOLERANCE = 1.0e-9;
+
+    private static final int ROUNDS = 500;
+
+    @Test
+    void vectorKernelLoads() {
+        FlockingKernel.Kernel kernel = FlockingKernel.loadVector();
+        assertNotNull(kernel, "vector kernel unavailable, is the test task missing the vector module?");
+        assertTrue(kernel.lanes() > 0);
+    }
+
+    // Random flocks of 1 to 80 neighbors, some packed tight enough to separate,
+    // so both full vectors and the masked tail are covered
+    @Test
+    void vectorMatchesScalar() {
+        FlockingKernel.Kernel kernel = FlockingKernel.loadVector();
+        assertNotNull(kernel, "vector kernel unavailable");
+
+        Random random = new Random(42);
+        FlockingKernel.Batch batch = new FlockingKernel.Batch();
+        double[] scalar = new double[FlockingKernel.OUTPUT_SIZE];
+        double[] vector = new double[FlockingKernel.OUTPUT_SIZE];
+        for (int round = 0; round < ROUNDS; round++) {
+            batch.clear();
+            int count = 1 + random.nextInt(80);
+            double spread = 0.5 + random.nextDouble() * 6.0;
+            for (int i = 0; i < count; i++) {
+                batch.add(random.nextGaussian() * spread, random.nextGaussian() * spread * 0.5,
+                        random.nextGaussian() * spread, random.nextGaussian() * 0.1, random.nextGaussian() * 0.05,
+                        random.nextGaussian() * 0.1);
+            }
+            double xd = random.nextGaussian() * 0.1;
+            double zd = random.nextGaussian() * 0.1;
+            // Crow tuning
+            FlockingKernel.steerScalar(0.0, 0.0, 0.0, xd, 0.0, zd, batch, 0.002, 0.01, 2.5, 0.05, scalar);
+            kernel.steer(0.0, 0.0, 0.0, xd, 0.0, zd, batch, 0.002, 0.01, 2.5, 0.05, vector);
+            for (int o = 0; o < FlockingKernel.OUTPUT_SIZE; o++) {
+                assertEquals(scalar[o], vector[o], TOLERANCE * Math.max(1.0, Math.abs(scalar[o])),
+                        "output " + o + " with " + count + " neighbors");
+            }
+        }
+    }
+}
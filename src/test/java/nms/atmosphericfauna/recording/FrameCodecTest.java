@@ -0,0 +1,123 @@
+package nms.atmosphericfauna.recording;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import nms.atmosphericfauna.bird.Bird;
+import nms.atmosphericfauna.simulation.HeadlessSimulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+// Frames the way server flock sync sends them: only birds near a moving
+// viewer, so birds drop out and come back, and a new encoder with a reset
+// decoder whenever the viewer changes level.
+class FrameCodecTest {
+
+    private static final int TICKS = 400;
+    private static final int KEYFRAME_EVERY = 150;
+    private static final double RANGE = 48.0;
+
+    private final HeadlessSimulation simulation = new HeadlessSimulation(
+            HeadlessSimulation.Options.parse(new String[] {"--birds=200", "--seed=5"}));
+    private final List<Bird> visible = new ArrayList<>();
+
+    // Birds within range of a viewer circling the flocks
+    private List<Bird> visibleAt(int tick) {
+        List<Bird> birds = simulation.getPopulation().getBirds();
+        double centerX = 0, centerZ = 0;
+        for (Bird bird : birds) {
+            centerX += bird.getX() / birds.size();
+            centerZ += bird.getZ() / birds.size();
+        }
+        double angle = tick * 0.05;
+        double viewerX = centerX + Math.cos(angle) * RANGE;
+        double viewerZ = centerZ + Math.sin(angle) * RANGE;
+        visible.clear();
+        for (Bird bird : birds) {
+            double dx = bird.getX() - viewerX;
+            double dz = bird.getZ() - viewerZ;
+            if (dx * dx + dz * dz <= RANGE * RANGE)
+                visible.add(bird);
+        }
+        return visible;
+    }
+
+    @Test
+    void roundTripsAcrossKeyframes() throws IOException {
+        simulation.populate();
+        FrameEncoder encoder = null;
+        FrameDecoder decoder = new FrameDecoder(FrameEncoder.SCALE);
+        FlightRecording.Frame frame = new FlightRecording.Frame();
+        int keyframes = 0;
+        int entered = 0;
+        Set<Integer> lastIds = new HashSet<>();
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            simulation.tick();
+            if (tick % KEYFRAME_EVERY == 0) {
+                encoder = new FrameEncoder();
+                decoder.reset();
+                keyframes++;
+            }
+            long time = simulation.getWorld().getGameTime();
+            List<Bird> birds = visibleAt(tick);
+            int length = encoder.encode(time, birds);
+
+            ByteBuffer buffer = ByteBuffer.wrap(encoder.getBuffer(), 0, length);
+            decoder.decode(buffer, frame);
+            assertEquals(0, buffer.remaining(), "bytes left over at tick " + tick);
+            assertEquals(time, frame.tick());
+            assertEquals(birds.size(), frame.size());
+            for (int i = 0; i < birds.size(); i++) {
+                Bird bird = birds.get(i);
+                String at = "bird " + bird.getId() + " at tick " + tick;
+                assertEquals(bird.getId(), frame.id(i), at);
+                assertEquals(bird.getSpecies().getName(), frame.species(i), at);
+                assertEquals(bird.getState(), frame.state(i), at);
+                assertEquals(FrameEncoder.quantize(bird.getX()), frame.raw(i, 0), at);
+                assertEquals(FrameEncoder.quantize(bird.getY()), frame.raw(i, 1), at);
+                assertEquals(FrameEncoder.quantize(bird.getZ()), frame.raw(i, 2), at);
+                assertEquals(FrameEncoder.quantize(bird.getXd()), frame.raw(i, 3), at);
+                assertEquals(FrameEncoder.quantize(bird.getYd()), frame.raw(i, 4), at);
+                assertEquals(FrameEncoder.quantize(bird.getZd()), frame.raw(i, 5), at);
+            }
+
+            Set<Integer> ids = new HashSet<>();
+            for (Bird bird : birds) {
+                ids.add(bird.getId());
+                if (tick % KEYFRAME_EVERY != 0 && !lastIds.contains(bird.getId()))
+                    entered++;
+            }
+            lastIds = ids;
+        }
+        assertEquals((TICKS + KEYFRAME_EVERY - 1) / KEYFRAME_EVERY, keyframes);
+        assertTrue(entered > 0, "no bird came into range between keyframes");
+    }
+
+    // A client that missed the keyframe must not pick up the stream mid way
+    @Test
+    void resetDecoderRejectsContinuedFrames() throws IOException {
+        simulation.populate();
+        FrameEncoder encoder = new FrameEncoder();
+        FrameDecoder decoder = new FrameDecoder(FrameEncoder.SCALE);
+        FlightRecording.Frame frame = new FlightRecording.Frame();
+        List<Bird> birds = simulation.getPopulation().getBirds();
+
+        simulation.tick();
+        int length = encoder.encode(simulation.getWorld().getGameTime(), birds);
+        decoder.decode(ByteBuffer.wrap(encoder.getBuffer(), 0, length), frame);
+
+        simulation.tick();
+        decoder.reset();
+        int next = encoder.encode(simulation.getWorld().getGameTime(), birds);
+        assertThrows(IOException.class,
+                () -> decoder.decode(ByteBuffer.wrap(encoder.getBuffer(), 0, next), frame));
+    }
+}
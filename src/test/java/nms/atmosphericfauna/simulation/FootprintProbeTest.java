@@ -0,0 +1,21 @@
+package nms.atmosphericfauna.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+// Retained heap per bird, so per-bird state doesn't quietly grow back. Each
+// bird of the probe is alone in its chunk and pays for its own chunk entry,
+// about 617 bytes at 5000 birds with Serial or G1. Slimming the birds took
+// about 150 bytes off, growing back by that much fails.
+class FootprintProbeTest {
+
+    private static final int BIRDS = 5000;
+    private static final double MAX_BYTES_PER_BIRD = 700.0;
+
+    @Test
+    void bytesPerBirdStayBounded() {
+        double perBird = FootprintProbe.bytesPerBird(BIRDS, 20);
+        assertTrue(perBird < MAX_BYTES_PER_BIRD, perBird + " retained bytes per bird");
+    }
+}
@@ -0,0 +1,45 @@
+package nms.atmosphericfauna.spawning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import nms.atmosphericfauna.species.SpeciesRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Client and server spawn cycles record at the same time, no count may be lost
+class SpawnMetricsTest {
+
+    private static final int THREADS = 4;
+    private static final int RECORDS = 100_000;
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        SpawnMetrics.reset();
+        SpawnMetrics.SpeciesStats stats = SpawnMetrics.forSpecies(SpeciesRegistry.get(SpeciesRegistry.CROW));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < RECORDS; i++) {
+                    SpawnMetrics.recordCycle(SpawnRejection.NONE);
+                    stats.record(SpawnMetrics.Stage.PACK, LocationRejection.NONE);
+                    stats.recordPack(3, 2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        long total = (long) THREADS * RECORDS;
+        assertEquals(total, SpawnMetrics.getCycles(SpawnRejection.NONE));
+        assertEquals(total, stats.get(SpawnMetrics.Stage.PACK, LocationRejection.NONE));
+        assertEquals(total, stats.getPacks());
+        assertEquals(total, stats.getPartialPacks());
+        assertEquals(2 * total, stats.getSpawned());
+        assertEquals(total, stats.getShortfall());
+        SpawnMetrics.reset();
+    }
+}
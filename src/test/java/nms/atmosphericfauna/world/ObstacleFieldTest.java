@@ -0,0 +1,88 @@
+package nms.atmosphericfauna.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import nms.atmosphericfauna.bird.BirdPopulation;
+import nms.atmosphericfauna.species.SpeciesRegistry;
+
+import java.util.Random;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import org.junit.jupiter.api.Test;
+
+class ObstacleFieldTest {
+
+    private static final int POINTS = 3000;
+
+    private final SyntheticFaunaWorld world = new SyntheticFaunaWorld(7L);
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+    // Points from below the surface to far above it, so sections are built,
+    // scanned as air and skipped as above the terrain
+    @Test
+    void matchesBruteForce() {
+        ObstacleField field = world.getObstacles();
+        Random random = new Random(7);
+        for (int i = 0; i < POINTS; i++) {
+            double x = random.nextDouble() * 512.0;
+            double z = random.nextDouble() * 512.0;
+            double y = world.getTerrainHeight((int) x, (int) z) - 8.0 + random.nextDouble() * 72.0;
+            assertEquals(bruteForce(x, y, z), field.distance(x, y, z), "at " + x + " " + y + " " + z);
+        }
+    }
+
+    @Test
+    void sweepKeepsOnlyColumnsNearBirds() {
+        ObstacleField field = world.getObstacles();
+        BirdPopulation population = new BirdPopulation(RandomSource.create(7L));
+        double x = 100.0, z = 100.0;
+        population.obtain(SpeciesRegistry.get(SpeciesRegistry.CROW), world, x, world.getTerrainHeight(100, 100) + 2.0,
+                z, 0, 0, 0);
+        field.distance(x, world.getTerrainHeight(100, 100) + 2.0, z);
+        field.distance(400.0, world.getTerrainHeight(400, 400) + 2.0, 400.0);
+        int before = field.getColumns();
+
+        field.retainAround(population);
+        assertTrue(field.getColumns() > 0 && field.getColumns() < before, field.getColumns() + " of " + before);
+        // Still answers the same once columns are gone
+        assertEquals(bruteForce(400.0, world.getTerrainHeight(400, 400) + 2.0, 400.0),
+                field.distance(400.0, world.getTerrainHeight(400, 400) + 2.0, 400.0));
+
+        field.retainAround(new BirdPopulation(RandomSource.create(7L)));
+        assertEquals(0, field.getColumns());
+    }
+
+    // Chebyshev distance in 2x2x2 cells to the nearest cell with a colliding
+    // block, capped like the field
+    private int bruteForce(double x, double y, double z) {
+        int cx = Math.floorDiv((int) Math.floor(x), 2);
+        int cy = Math.floorDiv((int) Math.floor(y), 2);
+        int cz = Math.floorDiv((int) Math.floor(z), 2);
+        int best = ObstacleField.MAX_DISTANCE;
+        for (int dz = -best; dz <= best; dz++) {
+            for (int dy = -best; dy <= best; dy++) {
+                for (int dx = -best; dx <= best; dx++) {
+                    int distance = Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz)));
+                    if (distance < best && isCellSolid(cx + dx, cy + dy, cz + dz))
+                        best = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean isCellSolid(int cx, int cy, int cz) {
+        for (int y = cy * 2; y < cy * 2 + 2; y++) {
+            if (y < world.getMinY() || y >= world.getMinY() + world.getHeight())
+                continue;
+            for (int z = cz * 2; z < cz * 2 + 2; z++) {
+                for (int x = cx * 2; x < cx * 2 + 2; x++) {
+                    if (world.hasCollision(pos.set(x, y, z)))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+}
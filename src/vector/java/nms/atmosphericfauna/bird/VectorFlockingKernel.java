@@ -0,0 +1,128 @@
+package nms.atmosphericfauna.bird;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// FlockingKernel.steer over several neighbors per instruction with the
+// incubating Vector API. Built in its own source set, the only one compiled
+// with the incubator module, and created by name from FlockingKernel when the
+// JVM was started with --add-modules jdk.incubator.vector. Sums are taken in a
+// different order than the scalar loop, so results agree with it up to
+// rounding, not bit for bit.
+final class VectorFlockingKernel implements FlockingKernel.Kernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final int LANES = SPECIES.length();
+
+    // Created by FlockingKernel.loadVector()
+    VectorFlockingKernel() {
+    }
+
+    @Override
+    public int lanes() {
+        return LANES;
+    }
+
+    @Override
+    public void steer(double x, double y, double z, double xd, double yd, double zd, FlockingKernel.Batch batch,
+            double cohesionStrength, double alignmentStrength, double separationDistance,
+            double separationStrength, double[] out) {
+        int count = batch.count;
+        double[] bx = batch.x, by = batch.y, bz = batch.z;
+        double[] bxd = batch.xd, byd = batch.yd, bzd = batch.zd;
+
+        // --- CENTER AND AVERAGE VELOCITY ---
+
+        DoubleVector cx = DoubleVector.zero(SPECIES), cy = cx, cz = cx;
+        DoubleVector avx = cx, avy = cx, avz = cx;
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            cx = cx.add(DoubleVector.fromArray(SPECIES, bx, i));
+            cy = cy.add(DoubleVector.fromArray(SPECIES, by, i));
+            cz = cz.add(DoubleVector.fromArray(SPECIES, bz, i));
+            avx = avx.add(DoubleVector.fromArray(SPECIES, bxd, i));
+            avy = avy.add(DoubleVector.fromArray(SPECIES, byd, i));
+            avz = avz.add(DoubleVector.fromArray(SPECIES, bzd, i));
+        }
+        if (i < count) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, count);
+            cx = cx.add(DoubleVector.fromArray(SPECIES, bx, i, tail));
+            cy = cy.add(DoubleVector.fromArray(SPECIES, by, i, tail));
+            cz = cz.add(DoubleVector.fromArray(SPECIES, bz, i, tail));
+            avx = avx.add(DoubleVector.fromArray(SPECIES, bxd, i, tail));
+            avy = avy.add(DoubleVector.fromArray(SPECIES, byd, i, tail));
+            avz = avz.add(DoubleVector.fromArray(SPECIES, bzd, i, tail));
+        }
+        double centerX = cx.reduceLanes(VectorOperators.ADD) / count;
+        double centerY = cy.reduceLanes(VectorOperators.ADD) / count;
+        double centerZ = cz.reduceLanes(VectorOperators.ADD) / count;
+        double averageXd = avx.reduceLanes(VectorOperators.ADD) / count;
+        double averageYd = avy.reduceLanes(VectorOperators.ADD) / count;
+        double averageZd = avz.reduceLanes(VectorOperators.ADD) / count;
+
+        // Same tuning as the scalar kernel
+        double cohX = (centerX - x) * (cohesionStrength * 0.45);
+        double cohY = (centerY - y) * (cohesionStrength * 0.45);
+        double cohZ = (centerZ - z) * (cohesionStrength * 0.45);
+
+        double aliX = (averageXd - xd) * (alignmentStrength * 1.6);
+        double aliY = (averageYd - yd) * (alignmentStrength * 1.2);
+        double aliZ = (averageZd - zd) * (alignmentStrength * 1.6);
+
+        // --- SEPARATION ---
+
+        // Neighbors outside the separation distance, or on top of this bird,
+        // get a zero weight instead of a branch
+        double sepDistSq = separationDistance * separationDistance;
+        DoubleVector sepX = DoubleVector.zero(SPECIES), sepY = sepX, sepZ = sepX;
+        for (i = 0; i < bound; i += LANES) {
+            DoubleVector dx = DoubleVector.broadcast(SPECIES, x).sub(DoubleVector.fromArray(SPECIES, bx, i));
+            DoubleVector dy = DoubleVector.broadcast(SPECIES, y).sub(DoubleVector.fromArray(SPECIES, by, i));
+            DoubleVector dz = DoubleVector.broadcast(SPECIES, z).sub(DoubleVector.fromArray(SPECIES, bz, i));
+            DoubleVector weight = separationWeight(dx, dy, dz, separationDistance, sepDistSq);
+            sepX = sepX.add(dx.mul(weight));
+            sepY = sepY.add(dy.mul(weight));
+            sepZ = sepZ.add(dz.mul(weight));
+        }
+        if (i < count) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, count);
+            DoubleVector dx = DoubleVector.broadcast(SPECIES, x).sub(DoubleVector.fromArray(SPECIES, bx, i, tail));
+            DoubleVector dy = DoubleVector.broadcast(SPECIES, y).sub(DoubleVector.fromArray(SPECIES, by, i, tail));
+            DoubleVector dz = DoubleVector.broadcast(SPECIES, z).sub(DoubleVector.fromArray(SPECIES, bz, i, tail));
+            // Lanes past the batch read as neighbors at the origin
+            DoubleVector weight = separationWeight(dx, dy, dz, separationDistance, sepDistSq)
+                    .blend(0.0, tail.not());
+            sepX = sepX.add(dx.mul(weight));
+            sepY = sepY.add(dy.mul(weight));
+            sepZ = sepZ.add(dz.mul(weight));
+        }
+        double separationX = sepX.reduceLanes(VectorOperators.ADD) * (separationStrength * 1.6);
+        double separationY = sepY.reduceLanes(VectorOperators.ADD) * (separationStrength * 0.9);
+        double separationZ = sepZ.reduceLanes(VectorOperators.ADD) * (separationStrength * 1.6);
+
+        out[FlockingKernel.STEER_X] = cohX + aliX + separationX;
+        out[FlockingKernel.STEER_Y] = cohY + aliY + separationY;
+        out[FlockingKernel.STEER_Z] = cohZ + aliZ + separationZ;
+        out[FlockingKernel.CENTER_X] = centerX;
+        out[FlockingKernel.CENTER_Y] = centerY;
+        out[FlockingKernel.CENTER_Z] = centerZ;
+        out[FlockingKernel.AVG_XD] = averageXd;
+        out[FlockingKernel.AVG_YD] = averageYd;
+        out[FlockingKernel.AVG_ZD] = averageZd;
+    }
+
+    // (separationDistance - d) / separationDistance / d for neighbors within
+    // the separation distance, 0 for the rest and for ones on top of this bird
+    private static DoubleVector separationWeight(DoubleVector dx, DoubleVector dy, DoubleVector dz,
+            double separationDistance, double sepDistSq) {
+        DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+        VectorMask<Double> near = d2.compare(VectorOperators.LE, sepDistSq)
+                .and(d2.compare(VectorOperators.GT, 0.0001));
+        DoubleVector d = d2.sqrt();
+        return d.neg().add(separationDistance).div(d.mul(separationDistance)).blend(0.0, near.not());
+    }
+}